@@ -1,7 +1,8 @@
-import { useState, useEffect, useCallback } from 'react';
-import { GameResponseDTO, PlayerDTO, CardDTO } from '../types';
+import { useState, useEffect, useCallback, useRef } from 'react';
+import { GameMessage, GameResponseDTO, PlayerDTO, CardDTO } from '../types';
 import { gameService } from '../services/gameService';
 import { webSocketService } from '../services/webSocketService';
+import { applyGameMessage } from '../services/gameMessages';
 
 interface UseGameReturn {
   // Estado del juego
@@ -23,7 +24,9 @@ interface UseGameReturn {
 }
 
 export function useGame(playerId?: number): UseGameReturn {
-  const [game, setGame] = useState<GameResponseDTO | null>(null);
+  const [game, setGameState] = useState<GameResponseDTO | null>(null);
+  // Último estado aplicado, para encadenar los deltas sin esperar a que React vuelva a renderizar
+  const gameRef = useRef<GameResponseDTO | null>(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [connected, setConnected] = useState(false);
@@ -48,22 +51,35 @@ export function useGame(playerId?: number): UseGameReturn {
     };
   }, []);
 
-  // Manejar actualizaciones del juego vía WebSocket
-  const handleGameUpdate = useCallback((updatedGame: GameResponseDTO) => {
-    console.log('Actualización del juego recibida:', updatedGame);
-    setGame(updatedGame);
-    setError(null);
+  const setGame = useCallback((updatedGame: GameResponseDTO | null) => {
+    gameRef.current = updatedGame;
+    setGameState(updatedGame);
   }, []);
 
-  // Suscribirse a actualizaciones cuando tenemos un código de juego
+  // Manejar actualizaciones del juego vía WebSocket: estados completos y deltas encadenados por sequence
+  const handleGameUpdate = useCallback((message: GameMessage) => {
+    const result = applyGameMessage(gameRef.current, message);
+    if (result.kind === 'updated') {
+      setGame(result.game);
+      setError(null);
+    } else if (result.kind === 'gap') {
+      // Falta algún mensaje: se vuelve a pedir el estado completo
+      console.warn('Hueco en la secuencia de la partida; pidiendo el estado completo');
+      webSocketService.requestGameState(message.gameCode, handleGameUpdate);
+    }
+  }, [setGame]);
+
+  // Suscribirse a actualizaciones cuando tenemos un código de juego. Primero el topic y después el
+  // estado completo, para no perder los deltas que lleguen entre ambos
   useEffect(() => {
     if (game?.gameCode && connected) {
       webSocketService.subscribeToGame(game.gameCode, handleGameUpdate);
+      webSocketService.requestGameState(game.gameCode, handleGameUpdate);
     }
   }, [game?.gameCode, connected, handleGameUpdate]);
 
   // Calcular jugador actual y si es mi turno
-  const currentPlayer = game?.players.find(p => p.id === playerId) || null;
+  const currentPlayer = game?.players?.find(p => p.id === playerId) || null;
   const isMyTurn = Boolean(playerId && game?.currentPlayerId === playerId);
 
   // Funciones para manejar errores
@@ -87,7 +103,7 @@ export function useGame(playerId?: number): UseGameReturn {
     } finally {
       setLoading(false);
     }
-  }, []);
+  }, [setGame]);
 
   // Unirse a una partida
   const joinGame = useCallback(async (gameCode: string, playerName: string) => {
@@ -103,7 +119,7 @@ export function useGame(playerId?: number): UseGameReturn {
     } finally {
       setLoading(false);
     }
-  }, []);
+  }, [setGame]);
 
   // Jugar una carta
   const playCard = useCallback(async (card: CardDTO, colorChosen?: string) => {
@@ -0,0 +1,51 @@
+import type { GameDeltaDTO, GameMessage, GameResponseDTO } from '../types';
+
+/**
+ * Resultado de aplicar un mensaje de /topic/{gameCode} al estado que tiene el cliente:
+ * - 'updated': el mensaje era el siguiente de la secuencia (o un estado completo más nuevo).
+ * - 'ignored': repetido o anterior al estado actual; no cambia nada.
+ * - 'gap': falta algún mensaje intermedio; hay que pedir el estado completo de nuevo.
+ */
+export type ApplyResult =
+  | { kind: 'updated'; game: GameResponseDTO }
+  | { kind: 'ignored' }
+  | { kind: 'gap' };
+
+export function applyGameMessage(current: GameResponseDTO | null, message: GameMessage): ApplyResult {
+  if (message.type === 'STATE') {
+    // Un estado completo reemplaza al actual salvo que sea más antiguo
+    if (current && current.gameCode === message.gameCode && message.sequence < current.sequence) {
+      return { kind: 'ignored' };
+    }
+    return { kind: 'updated', game: message };
+  }
+
+  // Sin estado completo de esta partida no hay sobre qué aplicar el delta
+  if (!current || current.gameCode !== message.gameCode) {
+    return { kind: 'gap' };
+  }
+  if (message.sequence <= current.sequence) {
+    return { kind: 'ignored' };
+  }
+  if (message.sequence !== current.sequence + 1) {
+    return { kind: 'gap' };
+  }
+  return { kind: 'updated', game: applyDelta(current, message) };
+}
+
+function applyDelta(current: GameResponseDTO, delta: GameDeltaDTO): GameResponseDTO {
+  const cardCounts = delta.cardCounts;
+  return {
+    ...current,
+    sequence: delta.sequence,
+    status: delta.status ?? current.status,
+    topDiscardCard: delta.topDiscardCard ?? current.topDiscardCard,
+    currentColor: delta.currentColor ?? current.currentColor,
+    currentPlayerId: delta.currentPlayerId ?? current.currentPlayerId,
+    turnRemainingMs: delta.turnRemainingMs ?? current.turnRemainingMs,
+    players: cardCounts
+      ? current.players.map(player =>
+          String(player.id) in cardCounts ? { ...player, cardCount: cardCounts[String(player.id)] } : player)
+      : current.players,
+  };
+}
@@ -1,14 +1,16 @@
-import { Client, Frame, IMessage } from '@stomp/stompjs';
+import { Client, Frame, IMessage, StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import type { GameResponseDTO, PlayerActionDTO } from '../types';
+import type { GameMessage, GameResponseDTO, PlayerActionDTO } from '../types';
 
-export type GameEventHandler = (gameState: GameResponseDTO) => void;
+export type GameEventHandler = (message: GameMessage) => void;
+export type GameStateHandler = (gameState: GameResponseDTO) => void;
 export type PlayerActionHandler = (action: PlayerActionDTO) => void;
 
 class WebSocketService {
   private client: Client | null = null;
   private connected = false;
   private gameCode: string | null = null;
+  private gameSubscription: StompSubscription | null = null;
 
   /**
    * Conectar al servidor WebSocket
@@ -55,24 +57,26 @@ class WebSocketService {
       this.client.deactivate();
       this.connected = false;
       this.gameCode = null;
+      this.gameSubscription = null;
     }
   }
 
   /**
-   * Suscribirse a las actualizaciones de una partida específica
+   * Suscribirse a las actualizaciones de una partida específica. Por /topic/{gameCode} llegan
+   * estados completos (type STATE) y deltas (type DELTA); ver WEBSOCKET_API.md.
    */
   subscribeToGame(gameCode: string, onGameUpdate: GameEventHandler): void {
     if (!this.client || !this.connected) {
       throw new Error('WebSocket no está conectado');
     }
 
+    this.gameSubscription?.unsubscribe();
     this.gameCode = gameCode;
 
-    // Suscribirse al estado del juego - usar la misma ruta que el servidor
-    this.client.subscribe(`/topic/${gameCode}`, (message: IMessage) => {
+    this.gameSubscription = this.client.subscribe(`/topic/${gameCode}`, (message: IMessage) => {
       try {
-        const gameState: GameResponseDTO = JSON.parse(message.body);
-        onGameUpdate(gameState);
+        const gameMessage: GameMessage = JSON.parse(message.body);
+        onGameUpdate(gameMessage);
       } catch (error) {
         console.error('Error al parsear el estado del juego:', error);
       }
@@ -81,6 +85,26 @@ class WebSocketService {
     console.log(`Suscrito a las actualizaciones del juego: ${gameCode}`);
   }
 
+  /**
+   * Pedir el estado completo de una partida. El servidor responde una sola vez a la suscripción
+   * a /app/game/{gameCode}/state; se usa tras suscribirse al topic y al detectar un hueco en la secuencia.
+   */
+  requestGameState(gameCode: string, onGameState: GameStateHandler): void {
+    if (!this.client || !this.connected) {
+      throw new Error('WebSocket no está conectado');
+    }
+
+    const subscription = this.client.subscribe(`/app/game/${gameCode}/state`, (message: IMessage) => {
+      subscription.unsubscribe();
+      try {
+        const gameState: GameResponseDTO = JSON.parse(message.body);
+        onGameState(gameState);
+      } catch (error) {
+        console.error('Error al parsear el estado del juego:', error);
+      }
+    });
+  }
+
   /**
    * Suscribirse a las acciones de los jugadores
    */
@@ -40,20 +40,42 @@ export interface CardDTO {
 export interface PlayerDTO {
   id: number;
   name: string;
-  handSize: number;
-  isCurrentPlayer: boolean;
+  cardCount: number;
 }
 
+// Estado completo de la partida (REST y /topic/{gameCode})
 export interface GameResponseDTO {
+  type: 'STATE';
   id: number;
   gameCode: string;
   status: GameStatus;
   players: PlayerDTO[];
   topDiscardCard: CardDTO | null;
   currentPlayerId: number | null;
+  turnRemainingMs: number | null;
   createdById: number | null;
+  currentColor: Color | null;
+  // Versión del estado; los deltas continúan a partir de ella
+  sequence: number;
 }
 
+// Cambios respecto al mensaje anterior de /topic/{gameCode}; los campos ausentes no han cambiado
+export interface GameDeltaDTO {
+  type: 'DELTA';
+  gameCode: string;
+  // Sólo se aplica sobre un estado con sequence - 1
+  sequence: number;
+  status?: GameStatus;
+  topDiscardCard?: CardDTO;
+  currentColor?: Color;
+  currentPlayerId?: number;
+  turnRemainingMs?: number;
+  // Número de cartas de los jugadores cuya mano ha cambiado, por id de jugador
+  cardCounts?: Record<string, number>;
+}
+
+export type GameMessage = GameResponseDTO | GameDeltaDTO;
+
 export interface PlayerActionDTO {
   playerId: number;
   gameCode: string;
@@ -3,6 +3,7 @@ plugins {
 	id("org.springframework.boot") version "3.5.4"
 	id("io.spring.dependency-management") version "1.1.7"
 	id("org.flywaydb.flyway") version "10.10.0"
+	id("me.champeau.jmh") version "0.7.3"
 	jacoco
 }
 
@@ -25,19 +26,58 @@ repositories {
 	mavenCentral()
 }
 
+// Generador de carga (src/loadtest): bots STOMP contra un servidor ya arrancado
+val loadtest by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+configurations[loadtest.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+configurations[loadtest.annotationProcessorConfigurationName].extendsFrom(configurations.annotationProcessor.get())
+
+// Simulador de partidas sin servidor (src/simulation): fuera del jar del servidor
+val simulation by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[simulation.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[simulation.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+configurations[simulation.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+configurations[simulation.annotationProcessorConfigurationName].extendsFrom(configurations.annotationProcessor.get())
+
+// GameSimulatorTest se queda con el resto de tests en src/test
+sourceSets.test {
+	compileClasspath += simulation.output
+	runtimeClasspath += simulation.output
+}
+
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-websocket")
 	implementation("org.flywaydb:flyway-core")
 	implementation("org.flywaydb:flyway-database-postgresql")
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.9")
+	// Cliente TCP del relay STOMP (uno.broker.relay.enabled)
+	implementation("io.projectreactor.netty:reactor-netty-core")
+	// Broker STOMP embebido que sustituye al externo en local y en tests (uno.broker.embedded.enabled)
+	compileOnly("org.apache.activemq:artemis-server")
+	compileOnly("org.apache.activemq:artemis-stomp-protocol")
+	developmentOnly("org.apache.activemq:artemis-server")
+	developmentOnly("org.apache.activemq:artemis-stomp-protocol")
 	compileOnly("org.projectlombok:lombok")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	runtimeOnly("org.postgresql:postgresql")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	runtimeOnly("com.h2database:h2")
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testImplementation("org.apache.activemq:artemis-server")
+	testImplementation("org.apache.activemq:artemis-stomp-protocol")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
@@ -46,6 +86,43 @@ tasks.withType<Test> {
 	finalizedBy(tasks.jacocoTestReport) // report is always generated after tests run
 }
 
+// Benchmarks de las reglas y la serialización (src/jmh). ./gradlew jmh deja los resultados en JSON;
+// ./gradlew jmhArchive los copia a benchmarks/<commit>.json para comparar entre commits
+jmh {
+	jmhVersion.set("1.37")
+	fork.set(1)
+	warmupIterations.set(3)
+	iterations.set(5)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+tasks.register<Copy>("jmhArchive") {
+	dependsOn(tasks.named("jmh"))
+	val commit = providers.exec { commandLine("git", "rev-parse", "--short", "HEAD") }.standardOutput.asText.map { it.trim() }
+	from(layout.buildDirectory.file("results/jmh/results.json"))
+	into(layout.projectDirectory.dir("benchmarks"))
+	rename { "${commit.get()}.json" }
+}
+
+// ./gradlew simulate -Psimulation.games=5000000 -Psimulation.players=6
+tasks.register<JavaExec>("simulate") {
+	description = "Simula partidas completas con las reglas del motor, sin servidor, e imprime estadísticas y un digest"
+	group = "verification"
+	classpath = simulation.runtimeClasspath
+	mainClass.set("dev.rodrigovaamonde.unoserver.simulation.SimulationRunner")
+	systemProperties(project.properties.filterKeys { it.startsWith("simulation.") })
+}
+
+// ./gradlew loadTest -Ploadtest.games=500 -Ploadtest.duration-seconds=120
+tasks.register<JavaExec>("loadTest") {
+	description = "Juega partidas con bots STOMP contra un servidor arrancado e informa de jugadas/s, latencias y errores"
+	group = "verification"
+	classpath = loadtest.runtimeClasspath
+	mainClass.set("dev.rodrigovaamonde.unoserver.loadtest.LoadGenerator")
+	systemProperties(project.properties.filterKeys { it.startsWith("loadtest.") })
+}
+
 tasks.jacocoTestReport {
 	dependsOn(tasks.test) // tests are required to run before generating the report
 	reports {
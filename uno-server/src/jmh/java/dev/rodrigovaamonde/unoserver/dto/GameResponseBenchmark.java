@@ -0,0 +1,75 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de construir y serializar la respuesta completa que se difunde tras cada jugada en el
+ * camino JPA: {@link GameResponseDTO#fromEntity} y su serialización con Jackson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GameResponseBenchmark {
+
+    private Game game;
+    private GameResponseDTO response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        game = new Game("BENCH1");
+        game.setId(1L);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        long cardId = 1_000L;
+        for (int p = 0; p < 4; p++) {
+            Player player = new Player("Jugador " + p);
+            player.setId(100L + p);
+            game.addPlayer(player);
+            for (int i = 0; i < 7; i++) {
+                Card card = new Card(Color.values()[i % 4], CardValue.values()[i]);
+                card.setId(cardId++);
+                card.setPlayer(player);
+                player.getHand().add(card);
+            }
+        }
+        Card top = new Card(Color.RED, CardValue.SEVEN);
+        top.setId(cardId);
+        game.getDiscardPile().add(top);
+        game.setCurrentColor(Color.RED);
+        game.setCurrentPlayer(game.getPlayers().getFirst());
+        game.setCreatedBy(game.getPlayers().getFirst());
+
+        response = GameResponseDTO.fromEntity(game);
+        // Mismos módulos que registra Spring Boot en su ObjectMapper
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+    }
+
+    @Benchmark
+    public GameResponseDTO fromEntity() {
+        return GameResponseDTO.fromEntity(game);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] fromEntityAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(GameResponseDTO.fromEntity(game));
+    }
+}
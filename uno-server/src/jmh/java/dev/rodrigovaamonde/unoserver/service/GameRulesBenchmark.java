@@ -0,0 +1,166 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.Deck;
+import dev.rodrigovaamonde.unoserver.engine.GameRandom;
+import dev.rodrigovaamonde.unoserver.engine.GameRules;
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por jugada de las reglas sobre las entidades JPA ({@link GameDeck}, {@link GameRules}) y, como
+ * referencia, de sus equivalentes del motor en memoria ({@link Deck}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GameRulesBenchmark {
+
+    private Game game;
+    private Player currentPlayer;
+    private List<Card> deck;
+    private Card topDiscardCard;
+    private Deck engineDeck;
+    private GameRandom random;
+
+    @Setup
+    public void setUp() {
+        game = createGame();
+        currentPlayer = game.getPlayers().get(2);
+        game.setCurrentPlayer(currentPlayer);
+        deck = new ArrayList<>(game.getDrawPile());
+        topDiscardCard = game.getDiscardPile().getLast();
+
+        engineDeck = new Deck();
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            engineDeck.push((byte) code);
+        }
+        random = new GameRandom(42L);
+    }
+
+    /**
+     * Partida de 4 jugadores con 7 cartas cada uno y el resto del mazo en la pila de robo.
+     */
+    static Game createGame() {
+        Game game = new Game("BENCH1");
+        List<Card> cards = GameDeck.initializeDeck(game);
+        for (int i = 0; i < cards.size(); i++) {
+            cards.get(i).setId(1_000L + i);
+        }
+        Collections.shuffle(cards, new GameRandom(7L));
+        game.getDrawPile().addAll(cards);
+
+        for (int p = 0; p < 4; p++) {
+            Player player = new Player("Jugador " + p);
+            player.setId(100L + p);
+            game.addPlayer(player);
+            for (int i = 0; i < 7; i++) {
+                Card card = game.getDrawPile().removeLast();
+                card.setDeckGame(null);
+                card.setPlayer(player);
+                player.getHand().add(card);
+            }
+        }
+        Card first = game.getDrawPile().removeLast();
+        first.setDeckGame(null);
+        first.setDiscardPileGame(game);
+        game.getDiscardPile().add(first);
+        game.setCurrentColor(first.getColor() == Color.BLACK ? Color.RED : first.getColor());
+        game.setCurrentSeat(0);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        return game;
+    }
+
+    @Benchmark
+    public List<Card> initializeDeck() {
+        return GameDeck.initializeDeck(game);
+    }
+
+    @Benchmark
+    public List<Card> shuffleDeck() {
+        Collections.shuffle(deck);
+        return deck;
+    }
+
+    @Benchmark
+    public Deck shuffleEngineDeck() {
+        engineDeck.shuffle(random);
+        return engineDeck;
+    }
+
+    /**
+     * Lo que hace drawCard para comprobar si el jugador tiene alguna carta jugable.
+     */
+    @Benchmark
+    public void isCardPlayable(Blackhole blackhole) {
+        CardValue topValue = topDiscardCard.getValue();
+        for (Card card : currentPlayer.getHand()) {
+            blackhole.consume(GameRules.isCardPlayable(card.getColor(), card.getValue(), topValue, game.getCurrentColor()));
+        }
+    }
+
+    @Benchmark
+    public int nextSeat() {
+        return GameRules.nextSeat(game.getCurrentSeat(), 1, game.getPlayers().size(), game.isReversed());
+    }
+
+    /**
+     * Roba dos cartas (efecto de un +2) y las devuelve al mazo para que el estado no cambie
+     * entre invocaciones; la devolución son dos operaciones O(1) por carta.
+     */
+    @Benchmark
+    public List<Card> drawCardsForPlayer() {
+        List<Card> drawn = GameDeck.drawCardsForPlayer(game, currentPlayer, 2);
+        for (int i = drawn.size() - 1; i >= 0; i--) {
+            Card card = currentPlayer.getHand().removeLast();
+            card.setPlayer(null);
+            card.setDeckGame(game);
+            game.getDrawPile().add(card);
+        }
+        return drawn;
+    }
+
+    /**
+     * El rebarajado consume la pila de descarte, así que cada invocación parte de una partida
+     * con el mazo vacío y 80 cartas descartadas. La operación dura microsegundos, por lo que
+     * el coste de {@link Level#Invocation} es despreciable.
+     */
+    @State(Scope.Thread)
+    public static class EmptyDrawPile {
+        Game game;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            game = createGame();
+            while (!game.getDrawPile().isEmpty()) {
+                Card card = game.getDrawPile().removeLast();
+                card.setDeckGame(null);
+                card.setDiscardPileGame(game);
+                game.getDiscardPile().add(card);
+            }
+        }
+    }
+
+    @Benchmark
+    public Game reshuffleDiscardPile(EmptyDrawPile state) {
+        GameDeck.reshuffleDiscardPile(state.game);
+        return state.game;
+    }
+}
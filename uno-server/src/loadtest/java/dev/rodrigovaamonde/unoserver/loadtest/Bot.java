@@ -0,0 +1,289 @@
+package dev.rodrigovaamonde.unoserver.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rodrigovaamonde.unoserver.dto.DrawCardRequestDTO;
+import dev.rodrigovaamonde.unoserver.dto.GameDeltaDTO;
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.HandCardDTO;
+import dev.rodrigovaamonde.unoserver.dto.PlayCardRequestDTO;
+import dev.rodrigovaamonde.unoserver.dto.PlayerActionDTO;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Jugador automático con su propia sesión STOMP. Mantiene una vista mínima de la partida
+ * (secuencia, estado y turno) a partir de {@code /topic/{gameCode}} y, cuando le toca, consulta
+ * su mano por REST y juega una de las cartas que el servidor marca como jugables; si no tiene
+ * ninguna roba y, si lo robado tampoco sirve, pasa.
+ * <p>
+ * La latencia de una jugada es el tiempo desde que el bot envía el comando hasta que recibe
+ * la primera difusión posterior de la partida.
+ */
+final class Bot {
+
+    private final String name;
+    private final StompSession session;
+    private final GameApi gameApi;
+    private final ObjectMapper objectMapper;
+    private final LoadStats stats;
+    private final Executor executor;
+
+    private BotGame game;
+    private long playerId;
+    private StompSession.Subscription topicSubscription;
+    private StompSession.Subscription stateSubscription;
+
+    // Vista de la partida; sequence < 0 mientras no se ha recibido un estado completo
+    private long sequence = -1;
+    private Game.GameStatus status;
+    private Long currentPlayerId;
+
+    private long lastActedSequence = -1;
+    private long commandSentAt;
+    private boolean justDrew;
+
+    Bot(String name, StompSession session, GameApi gameApi, ObjectMapper objectMapper, LoadStats stats,
+        Executor executor) {
+        this.name = name;
+        this.session = session;
+        this.gameApi = gameApi;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.executor = executor;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Se une a una partida: se suscribe al topic antes de pedir el estado completo para no
+     * perder deltas entre ambos mensajes.
+     */
+    synchronized void join(BotGame game, long playerId) {
+        this.game = game;
+        this.playerId = playerId;
+        this.sequence = -1;
+        this.status = null;
+        this.lastActedSequence = -1;
+        this.commandSentAt = 0;
+        this.justDrew = false;
+        this.topicSubscription = session.subscribe("/topic/" + game.getGameCode(), new Handler(this::onTopicMessage));
+    }
+
+    synchronized void leave() {
+        if (topicSubscription != null) {
+            topicSubscription.unsubscribe();
+            topicSubscription = null;
+        }
+        unsubscribeState();
+        game = null;
+    }
+
+    /**
+     * Pide el estado completo por {@code /app/game/{gameCode}/state}; se usa al empezar la partida,
+     * tras un hueco en la secuencia y cuando el vigilante detecta que la partida está parada.
+     */
+    synchronized void resync() {
+        if (game == null) {
+            return;
+        }
+        // Si el bot tenía el turno, vuelve a jugar con el estado nuevo
+        lastActedSequence = -1;
+        unsubscribeState();
+        stateSubscription = session.subscribe("/app/game/" + game.getGameCode() + "/state", new Handler(this::onStateMessage));
+    }
+
+    private void unsubscribeState() {
+        // La respuesta de @SubscribeMapping llega una sola vez; sólo queda liberar la suscripción local
+        if (stateSubscription != null) {
+            stateSubscription.unsubscribe();
+            stateSubscription = null;
+        }
+    }
+
+    void disconnect() {
+        if (session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    private void onTopicMessage(byte[] payload) throws IOException {
+        JsonNode message = objectMapper.readTree(payload);
+        switch (message.path("type").asText()) {
+            case GameDeltaDTO.TYPE -> applyDelta(objectMapper.treeToValue(message, GameDeltaDTO.class));
+            case GameResponseDTO.TYPE -> applyFull(objectMapper.treeToValue(message, GameResponseDTO.class));
+            default -> stats.error("unknown-message");
+        }
+    }
+
+    private void onStateMessage(byte[] payload) throws IOException {
+        applyFull(objectMapper.readValue(payload, GameResponseDTO.class));
+    }
+
+    private synchronized void applyFull(GameResponseDTO state) {
+        if (game == null || !game.getGameCode().equals(state.getGameCode()) || state.getSequence() < sequence) {
+            return;
+        }
+        sequence = state.getSequence();
+        status = state.getStatus();
+        currentPlayerId = state.getCurrentPlayerId();
+        onViewChanged();
+    }
+
+    private synchronized void applyDelta(GameDeltaDTO delta) {
+        if (game == null || sequence < 0 || delta.sequence() <= sequence) {
+            return;
+        }
+        if (delta.sequence() != sequence + 1) {
+            stats.error("sequence-gap");
+            resync();
+            return;
+        }
+        sequence = delta.sequence();
+        if (delta.status() != null) {
+            status = delta.status();
+        }
+        if (delta.currentPlayerId() != null) {
+            currentPlayerId = delta.currentPlayerId();
+        }
+        onViewChanged();
+    }
+
+    private void onViewChanged() {
+        game.progressed();
+        if (commandSentAt != 0) {
+            stats.moveCompleted(System.nanoTime() - commandSentAt);
+            commandSentAt = 0;
+        }
+        if (status == Game.GameStatus.FINISHED || status == Game.GameStatus.CANCELLED) {
+            game.finished();
+            return;
+        }
+        if (status == Game.GameStatus.IN_PROGRESS && Long.valueOf(playerId).equals(currentPlayerId)
+            && sequence > lastActedSequence) {
+            lastActedSequence = sequence;
+            BotGame currentGame = game;
+            executor.execute(() -> takeTurn(currentGame));
+        }
+    }
+
+    private void takeTurn(BotGame currentGame) {
+        String gameCode = currentGame.getGameCode();
+        List<HandCardDTO> hand;
+        try {
+            hand = gameApi.getHand(gameCode, playerId);
+        } catch (RuntimeException e) {
+            stats.error("rest");
+            return;
+        }
+
+        HandCardDTO playable = choosePlayable(hand);
+        boolean drew;
+        synchronized (this) {
+            drew = justDrew;
+            justDrew = false;
+        }
+        if (playable != null) {
+            Color chosenColor = playable.color() == Color.BLACK ? mostCommonColor(hand) : null;
+            send(gameCode, "play-card", new PlayCardRequestDTO(playerId, playable.id(), chosenColor));
+            if (hand.size() == 2) {
+                send(gameCode, "declare-uno", new PlayerActionDTO(playerId));
+            }
+        } else if (drew) {
+            send(gameCode, "pass-turn", new PlayerActionDTO(playerId));
+        } else {
+            synchronized (this) {
+                justDrew = true;
+            }
+            send(gameCode, "draw-card", new DrawCardRequestDTO(playerId));
+        }
+    }
+
+    /**
+     * Elige entre las cartas que el servidor marca como jugables, prefiriendo las de color o
+     * número a los comodines, como haría un jugador humano.
+     */
+    private static HandCardDTO choosePlayable(List<HandCardDTO> hand) {
+        HandCardDTO wild = null;
+        for (HandCardDTO card : hand) {
+            if (!card.playable()) {
+                continue;
+            }
+            if (card.color() != Color.BLACK) {
+                return card;
+            }
+            wild = card;
+        }
+        return wild;
+    }
+
+    private static Color mostCommonColor(List<HandCardDTO> hand) {
+        Map<Color, Integer> counts = new EnumMap<>(Color.class);
+        for (HandCardDTO card : hand) {
+            if (card.color() != Color.BLACK) {
+                counts.merge(card.color(), 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse(Color.RED);
+    }
+
+    private void send(String gameCode, String action, Object request) {
+        try {
+            StompHeaders headers = new StompHeaders();
+            headers.setDestination("/app/game/" + gameCode + "/" + action);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            byte[] payload = objectMapper.writeValueAsBytes(request);
+            synchronized (this) {
+                if (commandSentAt == 0) {
+                    commandSentAt = System.nanoTime();
+                }
+            }
+            session.send(headers, payload);
+            stats.commandSent();
+        } catch (IOException | RuntimeException e) {
+            stats.error("stomp");
+        }
+    }
+
+    private interface PayloadConsumer {
+        void accept(byte[] payload) throws IOException;
+    }
+
+    private final class Handler implements StompFrameHandler {
+        private final PayloadConsumer consumer;
+
+        private Handler(PayloadConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            try {
+                consumer.accept((byte[]) payload);
+            } catch (IOException | RuntimeException e) {
+                stats.error("message");
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package dev.rodrigovaamonde.unoserver.loadtest;
+
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.PlayerDTO;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mesa de bots que juega partidas seguidas hasta que se agota la duración de la prueba. El
+ * primer bot crea la partida, el resto se une y, cuando termina, la mesa empieza otra.
+ */
+final class BotGame {
+
+    private static final AtomicInteger NAME_SEQUENCE = new AtomicInteger();
+
+    private final String runId;
+    private final List<Bot> bots;
+    private final GameApi gameApi;
+    private final LoadStats stats;
+    private final AtomicBoolean finished = new AtomicBoolean(true);
+
+    private volatile String gameCode;
+    private volatile long lastProgressNanos = System.nanoTime();
+    private volatile boolean stopping;
+
+    BotGame(String runId, List<Bot> bots, GameApi gameApi, LoadStats stats) {
+        this.runId = runId;
+        this.bots = bots;
+        this.gameApi = gameApi;
+        this.stats = stats;
+    }
+
+    String getGameCode() {
+        return gameCode;
+    }
+
+    /**
+     * Crea, completa y empieza una partida nueva. Los nombres de jugador son únicos en el
+     * servidor, así que cada partida usa nombres nuevos.
+     */
+    void startNewGame() {
+        if (stopping) {
+            return;
+        }
+        try {
+            String round = runId + "-" + NAME_SEQUENCE.incrementAndGet();
+            Bot creator = bots.getFirst();
+            GameResponseDTO game = gameApi.createGame(creator.getName() + "-" + round);
+            gameCode = game.getGameCode();
+            finished.set(false);
+            lastProgressNanos = System.nanoTime();
+            creator.join(this, playerId(game, creator.getName() + "-" + round));
+
+            for (Bot bot : bots.subList(1, bots.size())) {
+                String playerName = bot.getName() + "-" + round;
+                GameResponseDTO joined = gameApi.joinGame(gameCode, playerName);
+                bot.join(this, playerId(joined, playerName));
+            }
+            gameApi.startGame(gameCode, playerId(game, creator.getName() + "-" + round));
+            bots.forEach(Bot::resync);
+        } catch (RuntimeException e) {
+            stats.error("rest");
+            finished.set(true);
+            bots.forEach(Bot::leave);
+            // El vigilante volverá a intentarlo
+            lastProgressNanos = System.nanoTime();
+        }
+    }
+
+    void progressed() {
+        lastProgressNanos = System.nanoTime();
+    }
+
+    /**
+     * Lo llama cada bot al ver la partida terminada; sólo el primero cuenta la partida.
+     */
+    void finished() {
+        if (finished.compareAndSet(false, true)) {
+            stats.gameFinished();
+            // Fuera del hilo que difunde: leave() bloquea a cada bot
+            Thread.ofVirtual().start(() -> {
+                bots.forEach(Bot::leave);
+                startNewGame();
+            });
+        }
+    }
+
+    /**
+     * Si la partida lleva demasiado tiempo sin cambios (un comando rechazado o una difusión
+     * perdida), resincroniza a todos los bots; si ni siquiera empezó, crea otra.
+     */
+    void checkStalled(long stallTimeoutNanos) {
+        if (stopping || System.nanoTime() - lastProgressNanos < stallTimeoutNanos) {
+            return;
+        }
+        lastProgressNanos = System.nanoTime();
+        stats.error("stalled");
+        if (finished.get()) {
+            Thread.ofVirtual().start(this::startNewGame);
+        } else {
+            bots.forEach(Bot::resync);
+        }
+    }
+
+    void stop() {
+        stopping = true;
+        bots.forEach(Bot::leave);
+        bots.forEach(Bot::disconnect);
+    }
+
+    private static long playerId(GameResponseDTO game, String playerName) {
+        return game.getPlayers().stream()
+            .filter(player -> playerName.equals(player.getName()))
+            .map(PlayerDTO::getId)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Player " + playerName + " not found in game " + game.getGameCode()));
+    }
+}
@@ -0,0 +1,83 @@
+package dev.rodrigovaamonde.unoserver.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.HandCardDTO;
+import dev.rodrigovaamonde.unoserver.dto.JoinGameRequestDTO;
+import dev.rodrigovaamonde.unoserver.dto.StartGameRequestDTO;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cliente de la API REST de partidas. Las llamadas son bloqueantes: los bots se ejecutan en
+ * hilos virtuales. Sigue las redirecciones 307 del modo clúster hacia el nodo dueño.
+ */
+final class GameApi {
+
+    private static final TypeReference<List<HandCardDTO>> HAND = new TypeReference<>() { };
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    GameApi(ObjectMapper objectMapper, String baseUrl) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    GameResponseDTO createGame(String playerName) {
+        return post("/games", new JoinGameRequestDTO(null, playerName));
+    }
+
+    GameResponseDTO joinGame(String gameCode, String playerName) {
+        return post("/games/join", new JoinGameRequestDTO(gameCode, playerName));
+    }
+
+    GameResponseDTO startGame(String gameCode, long playerId) {
+        return post("/games/" + gameCode + "/start", new StartGameRequestDTO(playerId));
+    }
+
+    List<HandCardDTO> getHand(String gameCode, long playerId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/games/" + gameCode + "/players/" + playerId + "/hand"))
+            .GET()
+            .build();
+        return objectMapper.convertValue(send(request), HAND);
+    }
+
+    private GameResponseDTO post(String path, Object body) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            return objectMapper.convertValue(send(request), GameResponseDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request to " + path, e);
+        }
+    }
+
+    private Object send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + " from " + request.uri());
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Request to " + request.uri() + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + request.uri(), e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package dev.rodrigovaamonde.unoserver.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generador de carga sin interfaz: abre {@code games × players} sesiones STOMP, cada una con
+ * un {@link Bot}, y las hace jugar partidas completas contra un servidor arrancado aparte
+ * durante {@code duration-seconds}. Imprime el progreso cada cinco segundos y un resumen al
+ * terminar. Se configura con propiedades del sistema ({@code ./gradlew loadTest -Ploadtest.games=500}):
+ * <ul>
+ *   <li>{@code loadtest.base-url}: API REST (por defecto {@code http://localhost:8080/api}).</li>
+ *   <li>{@code loadtest.ws-url}: endpoint WebSocket (por defecto {@code ws://localhost:8080/api/ws/websocket}).</li>
+ *   <li>{@code loadtest.games}: partidas simultáneas (100).</li>
+ *   <li>{@code loadtest.players}: bots por partida (4).</li>
+ *   <li>{@code loadtest.duration-seconds}: duración de la prueba (60).</li>
+ *   <li>{@code loadtest.ramp-up-seconds}: tiempo en el que se reparten los arranques de las mesas (10).</li>
+ *   <li>{@code loadtest.stall-timeout-seconds}: tiempo sin cambios tras el que una partida se da por parada (5).</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080/api");
+        String wsUrl = System.getProperty("loadtest.ws-url", "ws://localhost:8080/api/ws/websocket");
+        int games = Integer.getInteger("loadtest.games", 100);
+        int players = Integer.getInteger("loadtest.players", 4);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+        int rampUpSeconds = Integer.getInteger("loadtest.ramp-up-seconds", 10);
+        long stallTimeoutNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("loadtest.stall-timeout-seconds", 5));
+
+        ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        LoadStats stats = new LoadStats();
+        GameApi gameApi = new GameApi(objectMapper, baseUrl);
+        // Las consultas REST de cada turno bloquean; con hilos virtuales no hace falta dimensionar un pool
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        System.out.printf("Run %s: %d partidas x %d bots contra %s durante %d s%n",
+            runId, games, players, baseUrl, durationSeconds);
+
+        AtomicInteger sessions = new AtomicInteger();
+        List<BotGame> tables = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            List<Bot> bots = new ArrayList<>(players);
+            for (int p = 0; p < players; p++) {
+                StompSession session = stompClient.connectAsync(wsUrl, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        stats.error("transport");
+                    }
+                }).get(10, TimeUnit.SECONDS);
+                sessions.incrementAndGet();
+                bots.add(new Bot("bot-" + runId + "-" + g + "-" + p, session, gameApi, objectMapper, stats, executor));
+            }
+            tables.add(new BotGame(runId, bots, gameApi, stats));
+        }
+
+        long startNanos = System.nanoTime();
+        long rampUpStepNanos = games == 0 ? 0 : TimeUnit.SECONDS.toNanos(rampUpSeconds) / games;
+        for (int g = 0; g < games; g++) {
+            BotGame table = tables.get(g);
+            long delayNanos = g * rampUpStepNanos;
+            executor.execute(() -> {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                    table.startNewGame();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < endNanos) {
+            TimeUnit.SECONDS.sleep(1);
+            tables.forEach(table -> table.checkStalled(stallTimeoutNanos));
+            if (System.nanoTime() >= nextReport) {
+                System.out.println(stats.progress(sessions.get()));
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        tables.forEach(BotGame::stop);
+        executor.shutdownNow();
+        System.out.println();
+        System.out.print(stats.summary(elapsedSeconds));
+    }
+}
@@ -0,0 +1,100 @@
+package dev.rodrigovaamonde.unoserver.loadtest;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de una ejecución del generador de carga: jugadas por segundo, latencia extremo a
+ * extremo (desde que un bot envía su comando hasta que recibe la difusión resultante) y errores
+ * por tipo.
+ */
+final class LoadStats {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Timer broadcastLatency = Timer.builder("loadtest.broadcast.latency")
+        .publishPercentiles(0.5, 0.99, 0.999)
+        .register(registry);
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder finishedGames = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private long lastReportMoves;
+    private long lastReportNanos = System.nanoTime();
+
+    void commandSent() {
+        commands.increment();
+    }
+
+    void moveCompleted(long latencyNanos) {
+        moves.increment();
+        broadcastLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void gameFinished() {
+        finishedGames.increment();
+    }
+
+    void error(String type) {
+        errors.computeIfAbsent(type, t -> new LongAdder()).increment();
+    }
+
+    /**
+     * Línea de progreso con el ritmo desde el informe anterior.
+     */
+    synchronized String progress(int sessions) {
+        long now = System.nanoTime();
+        long totalMoves = moves.sum();
+        double seconds = (now - lastReportNanos) / 1e9;
+        double movesPerSecond = (totalMoves - lastReportMoves) / seconds;
+        lastReportMoves = totalMoves;
+        lastReportNanos = now;
+        return String.format("sessions=%d moves/s=%.1f moves=%d games=%d errors=%d %s",
+            sessions, movesPerSecond, totalMoves, finishedGames.sum(), totalErrors(), latency());
+    }
+
+    String summary(double elapsedSeconds) {
+        long totalMoves = moves.sum();
+        long totalCommands = commands.sum();
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Duración:           %.1f s%n", elapsedSeconds));
+        summary.append(String.format("Jugadas:            %d (%.1f/s)%n", totalMoves, totalMoves / elapsedSeconds));
+        summary.append(String.format("Partidas acabadas:  %d%n", finishedGames.sum()));
+        summary.append(String.format("Latencia difusión:  %s%n", latency()));
+        summary.append(String.format("Errores:            %d (%.2f%% de %d comandos)%n", totalErrors(),
+            totalCommands == 0 ? 0.0 : 100.0 * totalErrors() / totalCommands, totalCommands));
+        Map<String, Long> byType = new TreeMap<>();
+        errors.forEach((type, count) -> byType.put(type, count.sum()));
+        byType.forEach((type, count) -> summary.append(String.format("  %-18s%d%n", type + ":", count)));
+        return summary.toString();
+    }
+
+    private long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private String latency() {
+        HistogramSnapshot snapshot = broadcastLatency.takeSnapshot();
+        StringBuilder latency = new StringBuilder();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            latency.append(String.format("p%s=%.1fms ", percentileLabel(percentile.percentile()),
+                percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        latency.append(String.format("max=%.1fms", snapshot.max(TimeUnit.MILLISECONDS)));
+        return latency.toString();
+    }
+
+    private static String percentileLabel(double percentile) {
+        String label = String.valueOf(percentile * 100);
+        return label.endsWith(".0") ? label.substring(0, label.length() - 2) : label;
+    }
+}
@@ -0,0 +1,38 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conexión al broker STOMP externo ({@code uno.broker.relay.*}) que comparten las instancias
+ * del servidor. Lo usan {@link WebSocketConfig} y, en local y en tests, {@link EmbeddedBrokerConfig}.
+ */
+@Component
+@Getter
+public class BrokerRelayProperties {
+
+    private final boolean enabled;
+    private final String host;
+    private final int port;
+    private final String clientLogin;
+    private final String clientPasscode;
+    private final String systemLogin;
+    private final String systemPasscode;
+
+    public BrokerRelayProperties(@Value("${uno.broker.relay.enabled:false}") boolean enabled,
+                                 @Value("${uno.broker.relay.host:localhost}") String host,
+                                 @Value("${uno.broker.relay.port:61613}") int port,
+                                 @Value("${uno.broker.relay.client-login:guest}") String clientLogin,
+                                 @Value("${uno.broker.relay.client-passcode:guest}") String clientPasscode,
+                                 @Value("${uno.broker.relay.system-login:guest}") String systemLogin,
+                                 @Value("${uno.broker.relay.system-passcode:guest}") String systemPasscode) {
+        this.enabled = enabled;
+        this.host = host;
+        this.port = port;
+        this.clientLogin = clientLogin;
+        this.clientPasscode = clientPasscode;
+        this.systemLogin = systemLogin;
+        this.systemPasscode = systemPasscode;
+    }
+}
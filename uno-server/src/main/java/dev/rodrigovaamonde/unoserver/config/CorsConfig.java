@@ -17,6 +17,8 @@ public class CorsConfig {
         configuration.addAllowedMethod("*");
         configuration.addAllowedHeader("*");
         configuration.setAllowCredentials(true);
+        // Nodo dueño de la partida en las redirecciones del clúster
+        configuration.addExposedHeader(GameAffinityConfig.OWNER_HEADER);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
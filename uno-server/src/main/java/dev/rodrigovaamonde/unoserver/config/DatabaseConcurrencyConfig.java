@@ -0,0 +1,58 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Con {@code spring.threads.virtual.enabled=true} Tomcat atiende cada petición en un hilo virtual
+ * y deja de haber un pool de hilos que limite cuántas peticiones acceden a la vez a la base de datos.
+ * Este interceptor limita las peticiones concurrentes a {@code GameController} al tamaño del pool
+ * de Hikari ({@code uno.threads.max-database-concurrency}); el resto espera su turno sin ocupar
+ * un hilo de plataforma.
+ * <p>
+ * Las peticiones asíncronas ({@code POST /games/quick-match}) devuelven el permiso al empezar la
+ * espera y toman otro en el despacho {@code ASYNC} que escribe la respuesta: {@code preHandle} se
+ * ejecuta en ambos despachos, pero {@code afterCompletion} sólo en el último.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig implements WebMvcConfigurer {
+
+    private final Semaphore permits;
+
+    public DatabaseConcurrencyConfig(@Value("${uno.threads.max-database-concurrency:10}") int maxDatabaseConcurrency) {
+        this.permits = new Semaphore(maxDatabaseConcurrency, true);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                throws InterruptedException {
+                permits.acquire();
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                       Object handler) {
+                permits.release();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                permits.release();
+            }
+        }).addPathPatterns("/games/**");
+    }
+}
@@ -0,0 +1,42 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Broker STOMP dentro del propio proceso que sustituye al externo en local y en los tests.
+ * <p>
+ * Se activa con {@code uno.broker.embedded.enabled=true} y escucha en
+ * {@code uno.broker.relay.host}:{@code uno.broker.relay.port}, de modo que el relay de
+ * {@link WebSocketConfig} se conecta a él igual que a un broker real. Sin persistencia ni
+ * seguridad: sólo sirve para ejecutar el modo relay sin infraestructura. Artemis no se incluye
+ * en el jar de producción (dependencia {@code developmentOnly}/{@code testImplementation}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "uno.broker.embedded.enabled", havingValue = "true")
+@ConditionalOnClass(name = "org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ")
+public class EmbeddedBrokerConfig {
+
+    @Bean(destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(BrokerRelayProperties relay) throws Exception {
+        // Mismas convenciones de destino que Spring: /topic difunde a todos, /queue a un único consumidor
+        String acceptor = "tcp://" + relay.getHost() + ":" + relay.getPort()
+            + "?protocols=STOMP;multicastPrefix=/topic/;anycastPrefix=/queue/";
+
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        configuration.addAcceptorConfiguration("stomp", acceptor);
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        // Arranca antes de que el relay abra su conexión de sistema (al iniciar el contexto)
+        broker.start();
+        return broker;
+    }
+}
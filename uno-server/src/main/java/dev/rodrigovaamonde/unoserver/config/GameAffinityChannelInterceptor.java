@@ -0,0 +1,67 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import dev.rodrigovaamonde.unoserver.dto.GameOwnerDTO;
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
+import dev.rodrigovaamonde.unoserver.service.GameOwnershipService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Intercepta los comandos y suscripciones STOMP de partidas ({@code /app/game/{gameCode}/...})
+ * que pertenecen a otro nodo del clúster. El mensaje se descarta y se envía a la sesión, por
+ * {@code /user/queue/game/{gameCode}/owner}, el nodo dueño ({@link GameOwnerDTO}) para que el
+ * cliente se reconecte allí. Sin clúster todas las partidas son locales y no hace nada.
+ */
+@Component
+public class GameAffinityChannelInterceptor implements ChannelInterceptor {
+
+    private static final Pattern GAME_DESTINATION = Pattern.compile("^/app/game/([^/]+)/.*");
+
+    private final GameOwnershipService ownershipService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Lazy: la plantilla depende de los canales que configura WebSocketConfig con este interceptor
+    public GameAffinityChannelInterceptor(GameOwnershipService ownershipService,
+                                          @Lazy SimpMessagingTemplate messagingTemplate) {
+        this.ownershipService = ownershipService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!ownershipService.isEnabled()) {
+            return message;
+        }
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if ((type != SimpMessageType.MESSAGE && type != SimpMessageType.SUBSCRIBE) || destination == null) {
+            return message;
+        }
+        Matcher matcher = GAME_DESTINATION.matcher(destination);
+        if (!matcher.matches() || ownershipService.isLocal(matcher.group(1))) {
+            return message;
+        }
+
+        String gameCode = matcher.group(1);
+        ClusterNode owner = ownershipService.ownerOf(gameCode);
+        if (owner == null) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, "/queue/game/" + gameCode + "/owner",
+            GameOwnerDTO.fromEntity(gameCode, owner), headers.getMessageHeaders());
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
+import dev.rodrigovaamonde.unoserver.service.GameOwnershipService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Con {@code uno.cluster.enabled=true}, las peticiones REST sobre una partida de otro nodo
+ * ({@code /games/{gameCode}/**}) se responden con un 307 hacia el nodo dueño, que conserva el método
+ * y el cuerpo. La cabecera {@value #OWNER_HEADER} indica además qué nodo es. El dueño sale sólo del
+ * código, sin consultar la base de datos. El código de {@code POST /games/join} viaja en el cuerpo,
+ * así que esa redirección la hace el propio controlador ({@link #ownerLocation}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "uno.cluster.enabled", havingValue = "true")
+public class GameAffinityConfig implements WebMvcConfigurer {
+
+    public static final String OWNER_HEADER = "X-Uno-Game-Node";
+
+    private final GameOwnershipService ownershipService;
+
+    public GameAffinityConfig(GameOwnershipService ownershipService) {
+        this.ownershipService = ownershipService;
+    }
+
+    /**
+     * URL de la misma petición en el nodo dueño.
+     */
+    public static String ownerLocation(ClusterNode owner, HttpServletRequest request) {
+        return owner.getUrl() + request.getRequestURI()
+            + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String gameCode = gameCodeOf(request);
+                if (gameCode == null || ownershipService.isLocal(gameCode)) {
+                    return true;
+                }
+
+                ClusterNode owner = ownershipService.ownerOf(gameCode);
+                if (owner == null) {
+                    // Sin nodos vivos en el anillo no hay a quién redirigir: se atiende aquí
+                    return true;
+                }
+                response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+                response.setHeader(HttpHeaders.LOCATION, ownerLocation(owner, request));
+                response.setHeader(OWNER_HEADER, owner.getNodeId());
+                return false;
+            }
+        }).addPathPatterns("/games/*/**");
+    }
+
+    private String gameCodeOf(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+            (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null ? variables.get("gameCode") : null;
+    }
+}
@@ -0,0 +1,68 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+@Configuration
+@EnableScheduling
+public class GameEngineConfig {
+
+    /**
+     * Motor en memoria. Con {@code uno.turn-timer.enabled} cada turno dura
+     * {@code uno.turn-timer.timeout-ms}; al agotarse, el servidor roba y pasa por el jugador.
+     */
+    @Bean
+    public GameEngine gameEngine(@Value("${uno.engine.enabled:true}") boolean enabled,
+                                 @Value("${uno.turn-timer.enabled:true}") boolean turnTimerEnabled,
+                                 @Value("${uno.turn-timer.timeout-ms:30000}") long turnTimeoutMs) {
+        return new GameEngine(enabled, turnTimerEnabled ? turnTimeoutMs : 0L);
+    }
+
+    /**
+     * Ejecutor compartido por los buzones de comandos de todas las partidas. Es aquí donde los
+     * comandos tocan JDBC (cargas, volcados, rehidrataciones), así que es aquí donde se limita su
+     * concurrencia.
+     * <p>
+     * Con hilos de plataforma, un {@link ForkJoinPool} de {@code uno.engine.command-threads} hilos en
+     * modo asíncrono (FIFO), porque cada tarea es un drenado corto de un buzón. Con
+     * {@code spring.threads.virtual.enabled=true}, un hilo virtual por drenado y como mucho
+     * {@code uno.threads.max-database-concurrency} drenados a la vez: el resto espera su permiso
+     * aparcado en su hilo virtual. El permiso se toma dentro de la tarea y no al encolarla, porque
+     * un buzón que cede el hilo se vuelve a planificar mientras aún tiene el suyo.
+     */
+    @Bean
+    public Executor gameCommandExecutor(
+        @Value("${uno.engine.command-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+        @Value("${uno.threads.max-database-concurrency:10}") int maxDatabaseConcurrency
+    ) {
+        if (!virtualThreads) {
+            return new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        }
+        ExecutorService virtualThreadExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("game-command-", 0).factory());
+        Semaphore permits = new Semaphore(maxDatabaseConcurrency, true);
+        return new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                virtualThreadExecutor.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        };
+    }
+}
@@ -1,25 +1,120 @@
 package dev.rodrigovaamonde.unoserver.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.UUID;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final boolean virtualThreads;
+    private final int maxDatabaseConcurrency;
+    private final BrokerRelayProperties relay;
+    private final GameAffinityChannelInterceptor gameAffinityInterceptor;
+
+    public WebSocketConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${uno.threads.max-database-concurrency:10}") int maxDatabaseConcurrency,
+                           BrokerRelayProperties relay, GameAffinityChannelInterceptor gameAffinityInterceptor) {
+        this.virtualThreads = virtualThreads;
+        this.maxDatabaseConcurrency = maxDatabaseConcurrency;
+        this.relay = relay;
+        this.gameAffinityInterceptor = gameAffinityInterceptor;
+    }
+
+    /**
+     * Por defecto, broker simple en memoria: las difusiones sólo llegan a los clientes conectados
+     * a esta instancia. Con {@code uno.broker.relay.enabled=true} los destinos se reenvían a un
+     * broker STOMP externo compartido por todas las instancias, y los mensajes a usuarios conectados
+     * a otra instancia se resuelven a través del propio broker.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if (relay.isEnabled()) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relay.getHost())
+                .setRelayPort(relay.getPort())
+                .setClientLogin(relay.getClientLogin())
+                .setClientPasscode(relay.getClientPasscode())
+                .setSystemLogin(relay.getSystemLogin())
+                .setSystemPasscode(relay.getSystemPasscode())
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // Los deltas de /topic/{gameCode} deben llegar en orden aunque el canal de salida use varios hilos
+        config.setPreservePublishOrder(true);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
+                .setHandshakeHandler(new AnonymousHandshakeHandler())
                 .withSockJS();
     }
+
+    /**
+     * Con hilos virtuales cada mensaje entrante se procesa en su propio hilo virtual. Las jugadas
+     * sólo se encolan en el buzón de su partida, y su acceso a JDBC lo limita el ejecutor de los
+     * buzones ({@code GameEngineConfig#gameCommandExecutor}); el límite de este canal cubre lo que
+     * sí consulta la base de datos en el propio hilo de entrada (el estado al suscribirse y la
+     * partida rápida).
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Las partidas de otro nodo del clúster no llegan a los controladores
+        registration.interceptors(gameAffinityInterceptor);
+        if (virtualThreads) {
+            registration.executor(virtualThreadExecutor("stomp-inbound-", maxDatabaseConcurrency));
+        }
+    }
+
+    /**
+     * El canal de salida no toca la base de datos: hilos virtuales sin límite de concurrencia.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(virtualThreadExecutor("stomp-outbound-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY));
+        }
+    }
+
+    /**
+     * No hay autenticación: cada conexión recibe un usuario anónimo propio para que los mensajes
+     * privados ({@code /user/queue/...}, p. ej. la carta robada) lleguen sólo a esa sesión.
+     */
+    private static final class AnonymousHandshakeHandler extends DefaultHandshakeHandler {
+        @Override
+        protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                          Map<String, Object> attributes) {
+            Principal user = super.determineUser(request, wsHandler, attributes);
+            if (user != null) {
+                return user;
+            }
+            String name = "anonymous-" + UUID.randomUUID();
+            return () -> name;
+        }
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
 }
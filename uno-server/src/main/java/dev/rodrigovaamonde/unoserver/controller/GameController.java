@@ -1,28 +1,52 @@
 package dev.rodrigovaamonde.unoserver.controller;
 
+import dev.rodrigovaamonde.unoserver.config.GameAffinityConfig;
+import dev.rodrigovaamonde.unoserver.dto.GameEventDTO;
 import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.HandCardDTO;
 import dev.rodrigovaamonde.unoserver.dto.JoinGameRequestDTO;
+import dev.rodrigovaamonde.unoserver.dto.LobbyPageDTO;
+import dev.rodrigovaamonde.unoserver.dto.QuickMatchDTO;
 import dev.rodrigovaamonde.unoserver.dto.StartGameRequestDTO;
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
 import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Operation;
+import dev.rodrigovaamonde.unoserver.service.GameOwnershipService;
 import dev.rodrigovaamonde.unoserver.service.GameService;
+import dev.rodrigovaamonde.unoserver.service.MatchmakingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
 @RestController
 @RequestMapping("/games")
 @Tag(name = "Game Management", description = "API para crear, unirse y empezar partidas de UNO")
 public class GameController {
     private final GameService gameService;
+    private final GameMetrics gameMetrics;
+    private final MatchmakingService matchmakingService;
+    private final GameOwnershipService ownershipService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameMetrics gameMetrics, MatchmakingService matchmakingService,
+                          GameOwnershipService ownershipService) {
         this.gameService = gameService;
+        this.gameMetrics = gameMetrics;
+        this.matchmakingService = matchmakingService;
+        this.ownershipService = ownershipService;
     }
 
     @Operation(summary = "Crear una nueva partida", description = "Crea una nueva sala de juego y automáticamente añade al jugador creador.")
@@ -32,11 +56,44 @@ public class GameController {
     })
     @PostMapping
     public ResponseEntity<GameResponseDTO> createGame(@RequestBody JoinGameRequestDTO request) {
-        Game newGame = gameService.createGameWithPlayer(request.playerName());
+        Game newGame = gameMetrics.record(Operation.CREATE, () -> gameService.createGameWithPlayer(request.playerName()));
         GameResponseDTO response = GameResponseDTO.fromEntity(newGame);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Listar salas abiertas", description = "Devuelve las salas en espera con al menos minOpenSeats asientos libres, las que más llevan esperando primero. Para la página siguiente se pide afterId = nextAfterId.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de salas abiertas",
+            content = { @Content(mediaType = "application/json", schema = @Schema(implementation = LobbyPageDTO.class)) })
+    })
+    @GetMapping("/lobbies")
+    public ResponseEntity<LobbyPageDTO> listLobbies(
+        @RequestParam(defaultValue = "0") long afterId,
+        @RequestParam(defaultValue = "1") int minOpenSeats,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(gameService.listLobbies(afterId, minOpenSeats, limit));
+    }
+
+    @Operation(summary = "Partida rápida", description = "Pone al jugador en la cola de emparejamiento y responde cuando hay partida: la devuelve ya empezada junto con el id del jugador. Si no se completa a tiempo, la partida empieza con los jugadores que haya (al menos dos).")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Jugador emparejado en una partida empezada",
+            content = { @Content(mediaType = "application/json", schema = @Schema(implementation = QuickMatchDTO.class)) }),
+        @ApiResponse(responseCode = "400", description = "Nombre de jugador vacío"),
+        @ApiResponse(responseCode = "408", description = "No se encontró partida a tiempo")
+    })
+    @PostMapping("/quick-match")
+    public CompletableFuture<ResponseEntity<QuickMatchDTO>> quickMatch(@RequestBody JoinGameRequestDTO request) {
+        return matchmakingService.enqueue(request.playerName())
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                if (e.getCause() instanceof TimeoutException) {
+                    return ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build();
+                }
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            });
+    }
+
     @Operation(summary = "Unirse a una partida por código", description = "Permite a un jugador unirse a una partida usando el código de la partida.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Jugador unido exitosamente",
@@ -45,8 +102,19 @@ public class GameController {
         @ApiResponse(responseCode = "404", description = "Partida no encontrada")
     })
     @PostMapping("/join")
-    public ResponseEntity<GameResponseDTO> joinGameByCode(@RequestBody JoinGameRequestDTO request) {
-        Game updatedGame = gameService.joinGameByCode(request.gameCode(), request.playerName());
+    public ResponseEntity<GameResponseDTO> joinGameByCode(@RequestBody JoinGameRequestDTO request,
+                                                          HttpServletRequest httpRequest) {
+        // El código viaja en el cuerpo: GameAffinityConfig no lo ve, así que se redirige aquí
+        ClusterNode owner = request.gameCode() == null || ownershipService.isLocal(request.gameCode())
+            ? null : ownershipService.ownerOf(request.gameCode());
+        if (owner != null) {
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .header(HttpHeaders.LOCATION, GameAffinityConfig.ownerLocation(owner, httpRequest))
+                .header(GameAffinityConfig.OWNER_HEADER, owner.getNodeId())
+                .build();
+        }
+        Game updatedGame = gameMetrics.record(Operation.JOIN,
+            () -> gameService.joinGameByCode(request.gameCode(), request.playerName()));
         GameResponseDTO response = GameResponseDTO.fromEntity(updatedGame);
         return ResponseEntity.ok(response);
     }
@@ -58,12 +126,13 @@ public class GameController {
         @ApiResponse(responseCode = "400", description = "Petición inválida (ej. nombre de jugador ya existe o la partida ya empezó)"),
         @ApiResponse(responseCode = "404", description = "Partida no encontrada")
     })
-    @PostMapping("/{gameId}/join")
+    @PostMapping("/{gameCode}/join")
     public ResponseEntity<GameResponseDTO> joinGame(
-        @PathVariable Long gameId,
+        @PathVariable String gameCode,
         @RequestBody JoinGameRequestDTO request
     ) {
-        Game updatedGame = gameService.joinGame(gameId, request.playerName());
+        Game updatedGame = gameMetrics.record(Operation.JOIN,
+            () -> gameService.joinGameByCode(gameCode, request.playerName()));
 
         GameResponseDTO response = GameResponseDTO.fromEntity(updatedGame);
 
@@ -83,22 +152,31 @@ public class GameController {
         @PathVariable String gameCode,
         @RequestBody StartGameRequestDTO request
     ) {
-        Game startedGame = gameService.startGameByCode(gameCode, request.playerId());
+        Game startedGame = gameMetrics.record(Operation.START, () -> gameService.startGameByCode(gameCode, request.playerId()));
         GameResponseDTO response = GameResponseDTO.fromEntity(startedGame);
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Iniciar una partida", description = "Inicia una partida que tiene suficientes jugadores. Reparte las cartas y establece el primer turno.")
+    @Operation(summary = "Mano de un jugador", description = "Devuelve las cartas de la mano del jugador con sus ids, necesarios para jugarlas, y marca como playable las que puede jugar si es su turno.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Partida iniciada exitosamente",
-            content = { @Content(mediaType = "application/json", schema = @Schema(implementation = GameResponseDTO.class)) }),
-        @ApiResponse(responseCode = "400", description = "No se puede iniciar la partida (ej. no hay suficientes jugadores)"),
+        @ApiResponse(responseCode = "200", description = "Cartas de la mano del jugador"),
+        @ApiResponse(responseCode = "404", description = "Partida o jugador no encontrados")
+    })
+    @GetMapping("/{gameCode}/players/{playerId}/hand")
+    public ResponseEntity<List<HandCardDTO>> getHand(@PathVariable String gameCode, @PathVariable Long playerId) {
+        return ResponseEntity.ok(gameService.getHand(gameCode, playerId));
+    }
+
+    @Operation(summary = "Diario de eventos de una partida", description = "Devuelve, en orden de secuencia, los comandos aceptados en la partida. Sirve para auditoría y repeticiones.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Eventos de la partida"),
         @ApiResponse(responseCode = "404", description = "Partida no encontrada")
     })
-    @PostMapping("/{gameId}/start")
-    public ResponseEntity<GameResponseDTO> startGame(@PathVariable Long gameId) {
-        Game startedGame = gameService.startGame(gameId);
-        GameResponseDTO response = GameResponseDTO.fromEntity(startedGame);
-        return ResponseEntity.ok(response);
+    @GetMapping("/{gameCode}/events")
+    public ResponseEntity<List<GameEventDTO>> getGameEvents(@PathVariable String gameCode) {
+        List<GameEventDTO> events = gameService.getGameEvents(gameCode).stream()
+            .map(GameEventDTO::fromEntity)
+            .toList();
+        return ResponseEntity.ok(events);
     }
 }
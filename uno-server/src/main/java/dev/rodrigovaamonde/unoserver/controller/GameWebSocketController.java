@@ -5,13 +5,17 @@ import dev.rodrigovaamonde.unoserver.annotation.WebSocketParam;
 import dev.rodrigovaamonde.unoserver.annotation.WebSocketResponse;
 import dev.rodrigovaamonde.unoserver.dto.*;
 import dev.rodrigovaamonde.unoserver.model.Card;
-import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.service.GameBroadcastService;
+import dev.rodrigovaamonde.unoserver.service.GameCommandDispatcher;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Operation;
 import dev.rodrigovaamonde.unoserver.service.GameService;
+import dev.rodrigovaamonde.unoserver.service.MatchmakingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
@@ -21,11 +25,76 @@ import java.security.Principal;
 public class GameWebSocketController {
 
     private final GameService gameService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameBroadcastService gameBroadcastService;
+    private final GameCommandDispatcher commandDispatcher;
+    private final GameMetrics gameMetrics;
+    private final MatchmakingService matchmakingService;
 
-    public GameWebSocketController(GameService gameService, SimpMessagingTemplate messagingTemplate) {
+    public GameWebSocketController(GameService gameService, GameBroadcastService gameBroadcastService,
+                                   GameCommandDispatcher commandDispatcher, GameMetrics gameMetrics,
+                                   MatchmakingService matchmakingService) {
         this.gameService = gameService;
-        this.messagingTemplate = messagingTemplate;
+        this.gameBroadcastService = gameBroadcastService;
+        this.commandDispatcher = commandDispatcher;
+        this.gameMetrics = gameMetrics;
+        this.matchmakingService = matchmakingService;
+    }
+
+    @WebSocketOperation(
+        summary = "Estado completo de la partida",
+        description = "Al suscribirse se recibe una sola vez el estado completo con su número de secuencia. "
+            + "Después, /topic/{gameCode} envía sólo deltas (sequence + campos cambiados); si el cliente detecta "
+            + "un hueco en la secuencia, vuelve a suscribirse aquí para resincronizarse.",
+        destination = "/app/game/{gameCode}/state",
+        tags = {"Gameplay"}
+    )
+    @WebSocketResponse(
+        channel = "/app/game/{gameCode}/state",
+        description = "Estado completo enviado sólo al cliente que se suscribe",
+        content = GameResponseDTO.class,
+        broadcast = false
+    )
+    @SubscribeMapping("/game/{gameCode}/state")
+    public GameResponseDTO subscribeToGameState(
+        @WebSocketParam(
+            name = "gameCode",
+            description = "Código único de 6 caracteres que identifica la partida",
+            example = "ABC123"
+        )
+        @DestinationVariable String gameCode
+    ) {
+        return gameService.getGameState(gameCode);
+    }
+
+    @WebSocketOperation(
+        summary = "Partida rápida",
+        description = "Pone al jugador en la cola de emparejamiento. Cuando hay partida, se le envía ya empezada "
+            + "junto con su id de jugador; después puede suscribirse a su estado como cualquier otra partida.",
+        destination = "/app/quick-match",
+        responseChannels = {"/queue/quick-match"},
+        tags = {"Matchmaking"}
+    )
+    @WebSocketResponse(
+        channel = "/queue/quick-match",
+        description = "Partida empezada y id del jugador, enviados privadamente al jugador emparejado",
+        content = QuickMatchDTO.class,
+        broadcast = false
+    )
+    @MessageMapping("/quick-match")
+    public void quickMatch(
+        @WebSocketParam(
+            name = "request",
+            description = "Solicitud que contiene el nombre del jugador"
+        )
+        @Payload JoinGameRequestDTO request,
+        Principal principal
+    ) {
+        matchmakingService.enqueue(request.playerName())
+            .thenAccept(match -> gameBroadcastService.sendToUser(principal.getName(), "/queue/quick-match", match))
+            .exceptionally(e -> {
+                log.error("Error processing quick match request for {}: {}", request.playerName(), e.getMessage(), e);
+                return null;
+            });
     }
 
     @WebSocketOperation(
@@ -56,13 +125,15 @@ public class GameWebSocketController {
         )
         @Payload PlayCardRequestDTO request
     ) {
-        try {
-            gameService.playCard(gameCode, request);
-        } catch (Exception e) {
-            // TODO: Enviar un mensaje de error específico al jugador que hizo la jugada.
-            // Por ahora, lo registramos en el log del servidor.
-            log.error("Error processing play card request for game {}: {}", gameCode, e.getMessage(), e);
-        }
+        // Los comandos de una misma partida se ejecutan en serie en su buzón
+        commandDispatcher.execute(gameCode, () ->
+                gameMetrics.record(Operation.PLAY_CARD, () -> gameService.playCard(gameCode, request)))
+            .exceptionally(e -> {
+                // TODO: Enviar un mensaje de error específico al jugador que hizo la jugada.
+                // Por ahora, lo registramos en el log del servidor.
+                log.error("Error processing play card request for game {}: {}", gameCode, e.getMessage(), e);
+                return null;
+            });
     }
 
     @WebSocketOperation(
@@ -94,25 +165,22 @@ public class GameWebSocketController {
         @Payload DrawCardRequestDTO request,
         Principal principal
     ) {
-        try {
+        commandDispatcher.execute(gameCode, () -> gameMetrics.record(Operation.DRAW_CARD, () -> {
             Card drawnCard = gameService.drawCard(gameCode, request.playerId());
-            Game game = gameService.getGame(gameCode);
 
-            boolean isPlayable = gameService.isCardPlayable(drawnCard,
-                game.getDiscardPile().getLast(),
-                game.getCurrentColor());
+            boolean isPlayable = gameService.isCardPlayable(gameCode, drawnCard);
             DrawnCardDTO response = new DrawnCardDTO(drawnCard, isPlayable);
 
-            messagingTemplate.convertAndSendToUser(
+            gameBroadcastService.sendToUser(
                 principal.getName(),
                 "/queue/game/" + gameCode + "/drawn-card",
                 response
             );
-
-        } catch (Exception e) {
+        })).exceptionally(e -> {
             log.error("Error processing draw card request for game {}: {}", gameCode, e.getMessage(), e);
             //TODO: Enviar un mensaje de error específico al jugador que intentó robar una carta.
-        }
+            return null;
+        });
     }
 
     @WebSocketOperation(
@@ -143,11 +211,12 @@ public class GameWebSocketController {
         )
         @Payload PlayerActionDTO request
     ) {
-        try {
-            gameService.passTurn(gameCode, request.playerId());
-        } catch (Exception e) {
-            log.error("Error processing pass turn request for game {}: {}", gameCode, e.getMessage(), e);
-        }
+        commandDispatcher.execute(gameCode, () ->
+                gameMetrics.record(Operation.PASS_TURN, () -> gameService.passTurn(gameCode, request.playerId())))
+            .exceptionally(e -> {
+                log.error("Error processing pass turn request for game {}: {}", gameCode, e.getMessage(), e);
+                return null;
+            });
     }
 
     @WebSocketOperation(
@@ -178,12 +247,13 @@ public class GameWebSocketController {
         )
         @Payload PlayerActionDTO request
     ) {
-        try {
-            gameService.declareUno(gameCode, request.playerId());
-        } catch (Exception e) {
-            log.error("Error processing declare UNO request for game {}: {}", gameCode, e.getMessage(), e);
-            //TODO: Enviar un mensaje de error específico al jugador que intentó declarar UNO.
-        }
+        commandDispatcher.execute(gameCode, () ->
+                gameMetrics.record(Operation.DECLARE_UNO, () -> gameService.declareUno(gameCode, request.playerId())))
+            .exceptionally(e -> {
+                log.error("Error processing declare UNO request for game {}: {}", gameCode, e.getMessage(), e);
+                //TODO: Enviar un mensaje de error específico al jugador que intentó declarar UNO.
+                return null;
+            });
     }
 
     @WebSocketOperation(
@@ -214,11 +284,12 @@ public class GameWebSocketController {
         )
         @Payload ChallengeUnoRequestDTO request
     ) {
-        try {
-            gameService.challengeUno(gameCode, request);
-        } catch (Exception e) {
-            log.error("Error processing challenge UNO request for game {}: {}", gameCode, e.getMessage(), e);
-            //TODO: ENviar un mensaje de error específico al jugador que intentó desafiar UNO.
-        }
+        commandDispatcher.execute(gameCode, () ->
+                gameMetrics.record(Operation.CHALLENGE_UNO, () -> gameService.challengeUno(gameCode, request)))
+            .exceptionally(e -> {
+                log.error("Error processing challenge UNO request for game {}: {}", gameCode, e.getMessage(), e);
+                //TODO: ENviar un mensaje de error específico al jugador que intentó desafiar UNO.
+                return null;
+            });
     }
 }
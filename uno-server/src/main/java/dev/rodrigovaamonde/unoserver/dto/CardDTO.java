@@ -1,5 +1,6 @@
 package dev.rodrigovaamonde.unoserver.dto;
 
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
 import dev.rodrigovaamonde.unoserver.model.Card;
 import dev.rodrigovaamonde.unoserver.model.CardValue;
 import dev.rodrigovaamonde.unoserver.model.Color;
@@ -15,4 +16,8 @@ public record CardDTO (
         }
         return new CardDTO(card.getColor(), card.getValue());
     }
+
+    public static CardDTO fromCardCode(byte card) {
+        return new CardDTO(CardCodes.color(card), CardCodes.value(card));
+    }
 }
@@ -0,0 +1,30 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+
+import java.util.Map;
+
+/**
+ * DTO con los cambios de una partida respecto al mensaje anterior de {@code /topic/{gameCode}}.
+ * Los campos nulos no han cambiado y no se serializan.
+ * @param type Siempre {@value #TYPE}; los estados completos llevan {@value GameResponseDTO#TYPE}.
+ * @param sequence Versión del estado tras el cambio; un delta sólo se aplica sobre {@code sequence - 1}.
+ * @param turnRemainingMs Tiempo que le queda al jugador actual si ha empezado un turno nuevo.
+ * @param cardCounts Número de cartas de los jugadores cuya mano ha cambiado, por id de jugador.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GameDeltaDTO(
+    String type,
+    String gameCode,
+    long sequence,
+    Game.GameStatus status,
+    CardDTO topDiscardCard,
+    Color currentColor,
+    Long currentPlayerId,
+    Long turnRemainingMs,
+    Map<Long, Integer> cardCounts
+) {
+    public static final String TYPE = "DELTA";
+}
@@ -0,0 +1,29 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.GameEvent;
+import dev.rodrigovaamonde.unoserver.model.GameEventType;
+
+/**
+ * DTO con una entrada del diario de eventos de una partida.
+ */
+public record GameEventDTO(
+    long sequence,
+    GameEventType type,
+    Long playerId,
+    Long cardId,
+    Color chosenColor,
+    Long targetPlayerId
+) {
+
+    public static GameEventDTO fromEntity(GameEvent event) {
+        return new GameEventDTO(
+            event.getSequence(),
+            event.getType(),
+            event.getPlayerId(),
+            event.getCardId(),
+            event.getChosenColor(),
+            event.getTargetPlayerId()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
+
+/**
+ * DTO que indica al cliente qué nodo del clúster juega una partida y a qué URL debe conectarse.
+ */
+public record GameOwnerDTO(
+    String gameCode,
+    String nodeId,
+    String url
+) {
+
+    public static GameOwnerDTO fromEntity(String gameCode, ClusterNode node) {
+        return new GameOwnerDTO(gameCode, node.getNodeId(), node.getUrl());
+    }
+}
@@ -1,5 +1,8 @@
 package dev.rodrigovaamonde.unoserver.dto;
 
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.Color;
 import dev.rodrigovaamonde.unoserver.model.Game;
 import lombok.Data;
 
@@ -8,18 +11,28 @@ import java.util.List;
 @Data
 public class GameResponseDTO {
 
+    public static final String TYPE = "STATE";
+
+    // Distingue el estado completo de los deltas (GameDeltaDTO.TYPE) en /topic/{gameCode}
+    private String type = TYPE;
     private Long id;
     private String gameCode;
     private Game.GameStatus status;
     private List<PlayerDTO> players;
     private CardDTO topDiscardCard;
     private Long currentPlayerId;
+    // Tiempo que le queda al jugador actual antes de que su turno se agote; null si no hay plazo
+    private Long turnRemainingMs;
     private Long createdById;
+    private Color currentColor;
+    // Versión del estado en memoria; los deltas de /topic/{gameCode} continúan a partir de ella
+    private long sequence;
 
     public static GameResponseDTO fromEntity(Game game) {
         GameResponseDTO dto = new GameResponseDTO();
         dto.setGameCode(game.getGameCode());
         dto.setStatus(game.getStatus());
+        dto.setCurrentColor(game.getCurrentColor());
         dto.setPlayers(
             game.getPlayers().stream()
                 .map(PlayerDTO::fromEntity)
@@ -39,6 +52,40 @@ public class GameResponseDTO {
             dto.setCreatedById(game.getCreatedBy().getId());
         }
 
+        // Sin motor en memoria, el contador de jugadas hace de versión
+        dto.setSequence(game.getMoveCount());
+        return dto;
+    }
+
+    public static GameResponseDTO fromState(GameState state) {
+        GameResponseDTO dto = new GameResponseDTO();
+        dto.setGameCode(state.getGameCode());
+        dto.setStatus(state.getStatus());
+        dto.setPlayers(
+            state.getPlayers().stream()
+                .map(PlayerDTO::fromState)
+                .toList());
+
+        PlayerState currentPlayer = state.getCurrentPlayer();
+        if (currentPlayer != null) {
+            dto.setCurrentPlayerId(currentPlayer.getId());
+        }
+
+        if (state.hasTopDiscardCard()) {
+            dto.setTopDiscardCard(CardDTO.fromCardCode(state.getTopDiscardCard()));
+        }
+
+        dto.setTurnRemainingMs(turnRemainingMs(state.getTurnDeadlineMillis()));
+        dto.setCreatedById(state.getCreatedById());
+        dto.setCurrentColor(state.getCurrentColor());
+        dto.setSequence(state.getVersion());
         return dto;
     }
+
+    /**
+     * Milisegundos hasta {@code turnDeadlineMillis}, o null si el turno no tiene plazo.
+     */
+    public static Long turnRemainingMs(long turnDeadlineMillis) {
+        return turnDeadlineMillis > 0 ? Math.max(0L, turnDeadlineMillis - System.currentTimeMillis()) : null;
+    }
 }
@@ -0,0 +1,22 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+
+/**
+ * DTO de una carta de la mano de un jugador, con el id necesario para jugarla.
+ * @param playable Pista de jugada legal: true si es el turno del jugador y la carta se puede
+ *                 jugar sobre la carta superior con el color activo.
+ */
+public record HandCardDTO(
+    Long id,
+    Color color,
+    CardValue value,
+    boolean playable
+) {
+
+    public static HandCardDTO fromEntity(Card card, boolean playable) {
+        return new HandCardDTO(card.getId(), card.getColor(), card.getValue(), playable);
+    }
+}
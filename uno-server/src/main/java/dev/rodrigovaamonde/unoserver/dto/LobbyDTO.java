@@ -0,0 +1,19 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import dev.rodrigovaamonde.unoserver.service.LobbyIndex.Lobby;
+
+/**
+ * DTO de una sala en espera del listado de salas abiertas.
+ */
+public record LobbyDTO(
+    Long id,
+    String gameCode,
+    String hostName,
+    int playerCount,
+    int openSeats
+) {
+
+    public static LobbyDTO fromLobby(Lobby lobby) {
+        return new LobbyDTO(lobby.id(), lobby.gameCode(), lobby.hostName(), lobby.playerCount(), lobby.openSeats());
+    }
+}
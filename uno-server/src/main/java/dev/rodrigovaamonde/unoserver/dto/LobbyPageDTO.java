@@ -0,0 +1,14 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+import java.util.List;
+
+/**
+ * Página del listado de salas abiertas.
+ * @param nextAfterId Cursor de la página siguiente (el {@code afterId} que hay que pedir), o null si
+ *                    no hay más salas.
+ */
+public record LobbyPageDTO(
+    List<LobbyDTO> lobbies,
+    Long nextAfterId
+) {
+}
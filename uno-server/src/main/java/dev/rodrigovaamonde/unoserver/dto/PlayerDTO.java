@@ -1,5 +1,6 @@
 package dev.rodrigovaamonde.unoserver.dto;
 
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
 import dev.rodrigovaamonde.unoserver.model.Player;
 import lombok.Data;
 
@@ -16,4 +17,12 @@ public class PlayerDTO {
         dto.setCardCount(player.getHand().size());
         return dto;
     }
+
+    public static PlayerDTO fromState(PlayerState player) {
+        PlayerDTO dto = new PlayerDTO();
+        dto.setId(player.getId());
+        dto.setName(player.getName());
+        dto.setCardCount(player.getHand().size());
+        return dto;
+    }
 }
@@ -0,0 +1,21 @@
+package dev.rodrigovaamonde.unoserver.dto;
+
+/**
+ * DTO que recibe cada jugador emparejado por el matchmaking: la partida ya empezada y su propio id
+ * de jugador, necesario para jugar.
+ */
+public record QuickMatchDTO(
+    String gameCode,
+    Long playerId,
+    GameResponseDTO game
+) {
+
+    public static QuickMatchDTO forPlayer(GameResponseDTO game, String playerName) {
+        Long playerId = game.getPlayers().stream()
+            .filter(player -> player.getName().equals(playerName))
+            .findFirst()
+            .map(PlayerDTO::getId)
+            .orElse(null);
+        return new QuickMatchDTO(game.getGameCode(), playerId, game);
+    }
+}
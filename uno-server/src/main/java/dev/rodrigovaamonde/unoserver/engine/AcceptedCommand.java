@@ -0,0 +1,24 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.GameEventType;
+
+/**
+ * Comando aceptado por el motor, listo para añadirse al diario de la partida.
+ *
+ * @param sequence       Número de secuencia dentro de la partida (la versión del estado tras aplicarlo).
+ * @param type           Tipo de comando.
+ * @param playerId       Jugador que lo ejecutó (el desafiante en CHALLENGE_UNO).
+ * @param cardId         Carta jugada, sólo en PLAY_CARD.
+ * @param chosenColor    Color elegido al jugar un comodín.
+ * @param targetPlayerId Jugador desafiado, sólo en CHALLENGE_UNO.
+ */
+public record AcceptedCommand(
+    long sequence,
+    GameEventType type,
+    Long playerId,
+    Long cardId,
+    Color chosenColor,
+    Long targetPlayerId
+) {
+}
@@ -0,0 +1,115 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+
+/**
+ * Codificación compacta de las 108 cartas de una baraja de UNO en un {@code byte}.
+ * <p>
+ * Cada carta física tiene un código 0..107 (su posición en la baraja canónica, en el mismo orden
+ * que {@code GameDeck.initializeDeck}). A partir del código se obtiene en O(1), sin reservar
+ * memoria, su "cara" (un byte con {@code color << 4 | valor}) y su índice de copia, que distingue
+ * las cartas repetidas (p. ej. los dos 7 rojos o los cuatro comodines).
+ */
+public final class CardCodes {
+
+    public static final int DECK_SIZE = 108;
+
+    private static final Color[] COLORS = Color.values();
+    private static final CardValue[] VALUES = CardValue.values();
+    private static final Color[] PLAYABLE_COLORS = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW};
+
+    // Por código de carta
+    private static final byte[] FACES = new byte[DECK_SIZE];
+    private static final byte[] COPIES = new byte[DECK_SIZE];
+    // Por cara: primer código de carta y número de copias en la baraja
+    private static final int[] FIRST_CODE = new int[128];
+    private static final int[] COPY_COUNT = new int[128];
+    // Por color y por valor: conjunto de 128 bits (dos long) con los códigos de sus cartas
+    private static final long[][] CODES_BY_COLOR = new long[COLORS.length][2];
+    private static final long[][] CODES_BY_VALUE = new long[VALUES.length][2];
+
+    static {
+        int code = 0;
+        for (Color color : PLAYABLE_COLORS) {
+            code = addFace(code, color, CardValue.ZERO, 1);
+            for (CardValue value : new CardValue[]{CardValue.ONE, CardValue.TWO, CardValue.THREE, CardValue.FOUR,
+                CardValue.FIVE, CardValue.SIX, CardValue.SEVEN, CardValue.EIGHT, CardValue.NINE,
+                CardValue.SKIP, CardValue.REVERSE, CardValue.DRAW_TWO}) {
+                code = addFace(code, color, value, 2);
+            }
+        }
+        code = addFace(code, Color.BLACK, CardValue.WILD, 4);
+        addFace(code, Color.BLACK, CardValue.WILD_DRAW_FOUR, 4);
+    }
+
+    private CardCodes() {
+    }
+
+    private static int addFace(int firstCode, Color color, CardValue value, int copies) {
+        int face = face(color, value);
+        FIRST_CODE[face] = firstCode;
+        COPY_COUNT[face] = copies;
+        for (int copy = 0; copy < copies; copy++) {
+            int code = firstCode + copy;
+            FACES[code] = (byte) face;
+            COPIES[code] = (byte) copy;
+            CODES_BY_COLOR[color.ordinal()][code >> 6] |= 1L << (code & 63);
+            CODES_BY_VALUE[value.ordinal()][code >> 6] |= 1L << (code & 63);
+        }
+        return firstCode + copies;
+    }
+
+    public static int face(Color color, CardValue value) {
+        return color.ordinal() << 4 | value.ordinal();
+    }
+
+    public static int face(byte card) {
+        return FACES[card];
+    }
+
+    public static Color color(byte card) {
+        return COLORS[FACES[card] >> 4];
+    }
+
+    public static CardValue value(byte card) {
+        return VALUES[FACES[card] & 0x0F];
+    }
+
+    public static int copy(byte card) {
+        return COPIES[card];
+    }
+
+    public static int copies(Color color, CardValue value) {
+        return COPY_COUNT[face(color, value)];
+    }
+
+    /**
+     * Devuelve el código de la copia {@code copy} de la carta indicada.
+     */
+    public static byte encode(Color color, CardValue value, int copy) {
+        int face = face(color, value);
+        if (copy < 0 || copy >= COPY_COUNT[face]) {
+            throw new IllegalArgumentException("A UNO deck has no copy " + copy + " of " + color + " " + value);
+        }
+        return (byte) (FIRST_CODE[face] + copy);
+    }
+
+    public static boolean isPlayable(byte card, byte topCard, Color currentColor) {
+        return GameRules.isCardPlayable(color(card), value(card), value(topCard), currentColor);
+    }
+
+    /**
+     * Palabra {@code word} (0 o 1) del conjunto de códigos de las cartas que se pueden jugar sobre
+     * {@code topCard} con el color activo: comodines, cartas del color activo y cartas del mismo
+     * valor. Es la misma regla que {@link GameRules#isCardPlayable} expresada como máscara.
+     */
+    public static long playableCodes(int word, byte topCard, Color currentColor) {
+        long playable = CODES_BY_COLOR[Color.BLACK.ordinal()][word] | CODES_BY_VALUE[FACES[topCard] & 0x0F][word];
+        return currentColor == null ? playable : playable | CODES_BY_COLOR[currentColor.ordinal()][word];
+    }
+
+    public static String toString(byte card) {
+        return color(card) + " " + value(card);
+    }
+}
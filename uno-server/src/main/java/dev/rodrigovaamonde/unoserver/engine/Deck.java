@@ -0,0 +1,88 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Pila de cartas (mazo de robo o pila de descarte) respaldada por un {@code byte[]} de tamaño fijo.
+ * La cima es la última posición ocupada. Ninguna operación reserva memoria.
+ */
+public final class Deck {
+
+    private final byte[] cards = new byte[CardCodes.DECK_SIZE];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public byte get(int index) {
+        return cards[index];
+    }
+
+    public byte peek() {
+        if (size == 0) {
+            throw new IllegalStateException("The pile is empty.");
+        }
+        return cards[size - 1];
+    }
+
+    public void push(byte card) {
+        cards[size++] = card;
+    }
+
+    public byte pop() {
+        if (size == 0) {
+            throw new IllegalStateException("The pile is empty.");
+        }
+        return cards[--size];
+    }
+
+    /**
+     * Inserta una carta en el fondo de la pila (posición 0).
+     */
+    public void pushBottom(byte card) {
+        System.arraycopy(cards, 0, cards, 1, size);
+        cards[0] = card;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Mueve todas las cartas de {@code source} salvo su cima a esta pila, dejando la cima
+     * como única carta de {@code source}. Es el paso previo a rebarajar la pila de descarte.
+     */
+    public void takeAllButTop(Deck source) {
+        int moved = source.size - 1;
+        if (moved <= 0) {
+            return;
+        }
+        System.arraycopy(source.cards, 0, cards, size, moved);
+        size += moved;
+        source.cards[0] = source.cards[moved];
+        source.size = 1;
+    }
+
+    /**
+     * Barajado de Fisher-Yates in situ.
+     */
+    public void shuffle(RandomGenerator random) {
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    public void copyFrom(Deck other) {
+        System.arraycopy(other.cards, 0, cards, 0, other.size);
+        size = other.size;
+    }
+}
@@ -0,0 +1,408 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.GameEventType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor autoritativo en memoria para las partidas en curso.
+ * <p>
+ * Mantiene cada partida IN_PROGRESS como un {@link GameState} plano y aplica los comandos
+ * sin tocar la base de datos. Robar, jugar y rebarajar trabajan sobre los {@code byte[]} de
+ * {@link Deck} y {@link Hand} y no reservan memoria. Cada mutación marca la partida como
+ * "sucia"; la persistencia a las tablas {@code games}/{@code players}/{@code cards} se hace de forma diferida
+ * (write-behind) desde {@code GameWriteBehindService}, junto con los comandos aceptados que
+ * se añaden al diario de la partida ({@link AcceptedCommand}).
+ * <p>
+ * Con {@code turnTimeoutMs} mayor que cero cada turno tiene un plazo
+ * ({@link GameState#getTurnDeadlineMillis()}) que se reinicia al cambiar de turno; al agotarlo
+ * ({@link #expireTurn}) el jugador roba una carta y pasa.
+ */
+public class GameEngine {
+
+    private final boolean enabled;
+    // Duración de cada turno; 0 desactiva los plazos
+    private final long turnTimeoutMs;
+    private final Map<String, GameState> liveGames = new ConcurrentHashMap<>();
+    private final Set<String> dirtyGames = ConcurrentHashMap.newKeySet();
+
+    public GameEngine(boolean enabled) {
+        this(enabled, 0L);
+    }
+
+    public GameEngine(boolean enabled, long turnTimeoutMs) {
+        this.enabled = enabled;
+        this.turnTimeoutMs = turnTimeoutMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getTurnTimeoutMs() {
+        return turnTimeoutMs;
+    }
+
+    public Optional<GameState> find(String gameCode) {
+        return Optional.ofNullable(liveGames.get(gameCode));
+    }
+
+    /**
+     * Registra una partida viva. Si otro hilo ya la había registrado se devuelve la existente,
+     * de forma que nunca haya dos estados en memoria para el mismo código. El turno en curso
+     * empieza con el plazo completo.
+     */
+    public GameState register(GameState game) {
+        // Aún no es visible para otros hilos
+        startTurn(game);
+        GameState existing = liveGames.putIfAbsent(game.getGameCode(), game);
+        return existing != null ? existing : game;
+    }
+
+    public void evict(String gameCode) {
+        liveGames.remove(gameCode);
+        dirtyGames.remove(gameCode);
+    }
+
+    public Set<String> getLiveGameCodes() {
+        return Collections.unmodifiableSet(liveGames.keySet());
+    }
+
+    public int getLiveGameCount() {
+        return liveGames.size();
+    }
+
+    /**
+     * Devuelve y limpia el conjunto de partidas con cambios pendientes de persistir.
+     */
+    public List<String> drainDirtyGameCodes() {
+        List<String> drained = new ArrayList<>(dirtyGames.size());
+        for (String gameCode : dirtyGames) {
+            if (dirtyGames.remove(gameCode)) {
+                drained.add(gameCode);
+            }
+        }
+        return drained;
+    }
+
+    public void markDirty(String gameCode) {
+        dirtyGames.add(gameCode);
+    }
+
+    /**
+     * Quita la marca de cambios pendientes de una partida.
+     *
+     * @return true si la partida tenía cambios pendientes de persistir.
+     */
+    public boolean clearDirty(String gameCode) {
+        return dirtyGames.remove(gameCode);
+    }
+
+    public GameState playCard(String gameCode, Long playerId, Long cardId, Color chosenColor) {
+        GameState game = requireLiveGame(gameCode);
+        synchronized (game) {
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress.");
+            }
+
+            PlayerState player = findPlayer(game, playerId,
+                "Player not found with id " + playerId + " in game " + gameCode);
+
+            int cardCode = game.findCardCode(cardId);
+            if (cardCode < 0 || !player.getHand().contains((byte) cardCode)) {
+                throw new RuntimeException("Card not found with id " + cardId + " in player's hand");
+            }
+            byte cardToPlay = (byte) cardCode;
+
+            if (player != game.getCurrentPlayer()) {
+                throw new IllegalStateException("It's not your turn.");
+            }
+
+            byte topDiscardCard = game.getTopDiscardCard();
+            if (!CardCodes.isPlayable(cardToPlay, topDiscardCard, game.getCurrentColor())) {
+                throw new IllegalStateException("Card " + CardCodes.toString(cardToPlay) + " cannot be played on top of "
+                    + CardCodes.toString(topDiscardCard) + " with current color " + game.getCurrentColor());
+            }
+
+            // Sin transacción que deshacer: validamos el color elegido antes de mutar nada
+            if (CardCodes.color(cardToPlay) == Color.BLACK && (chosenColor == null || chosenColor == Color.BLACK)) {
+                throw new IllegalStateException(
+                    "A valid color (RED, GREEN, BLUE, YELLOW) must be chosen when playing a wild card.");
+            }
+
+            player.getHand().remove(cardToPlay);
+            game.getDiscardPile().push(cardToPlay);
+
+            //Si el jugador ya no tiene una carta, su estado de "UNO" se resetea
+            if (player.getHand().size() != 1) {
+                player.setHasDeclaredUno(false);
+            }
+
+            if (player.getHand().isEmpty()) {
+                game.setStatus(Game.GameStatus.FINISHED);
+                game.setCurrentPlayerIndex(-1);
+            } else {
+                game.setCurrentPlayerIndex(applyCardEffect(game, cardToPlay, chosenColor));
+            }
+            startTurn(game);
+
+            return accept(game, GameEventType.PLAY_CARD, playerId, cardId, chosenColor, null);
+        }
+    }
+
+    /**
+     * Roba una carta para el jugador actual y devuelve su código.
+     */
+    public byte drawCard(String gameCode, Long playerId) {
+        GameState game = requireLiveGame(gameCode);
+        synchronized (game) {
+            PlayerState player = findPlayer(game, playerId,
+                "Player not found with id " + playerId + " in game " + gameCode);
+
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress.");
+            }
+            if (player != game.getCurrentPlayer()) {
+                throw new IllegalStateException("It's not your turn.");
+            }
+
+            //Validar que el jugador realmente no puede jugar ninguna carta
+            if (hasPlayableCard(game, player)) {
+                throw new IllegalStateException(
+                    "You have playable cards in your hand. You must play a card instead of drawing.");
+            }
+
+            if (drawCardsForPlayer(game, player, 1) == 0) {
+                throw new IllegalStateException("No cards left to draw.");
+            }
+
+            accept(game, GameEventType.DRAW_CARD, playerId, null, null, null);
+            return player.getHand().get(player.getHand().size() - 1);
+        }
+    }
+
+    public GameState passTurn(String gameCode, Long playerId) {
+        GameState game = requireLiveGame(gameCode);
+        synchronized (game) {
+            PlayerState player = findPlayer(game, playerId,
+                "Player not found with id " + playerId + " in game " + gameCode);
+
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress.");
+            }
+            if (player != game.getCurrentPlayer()) {
+                throw new IllegalStateException("It's not your turn.");
+            }
+
+            game.setCurrentPlayerIndex(nextSeat(game, 1));
+            startTurn(game);
+            return accept(game, GameEventType.PASS_TURN, playerId, null, null, null);
+        }
+    }
+
+    /**
+     * Resuelve el turno en curso si su plazo ha vencido en {@code nowMillis}: el jugador roba una
+     * carta (si queda alguna) y pasa. No cuenta como actividad de la partida, de modo que una
+     * partida en la que nadie juega sigue pudiendo cancelarse por inactividad.
+     */
+    public Optional<GameState> expireTurn(String gameCode, long nowMillis) {
+        GameState game = liveGames.get(gameCode);
+        if (game == null) {
+            return Optional.empty();
+        }
+        synchronized (game) {
+            long deadline = game.getTurnDeadlineMillis();
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS || deadline == 0L || deadline > nowMillis) {
+                return Optional.empty();
+            }
+            return Optional.of(timeOutTurn(game, game.getCurrentPlayer()));
+        }
+    }
+
+    /**
+     * Agota el turno del jugador sin comprobar el plazo. Lo usa la reproducción del diario.
+     */
+    public GameState timeOutTurn(String gameCode, Long playerId) {
+        GameState game = requireLiveGame(gameCode);
+        synchronized (game) {
+            PlayerState player = findPlayer(game, playerId,
+                "Player not found with id " + playerId + " in game " + gameCode);
+
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress.");
+            }
+            if (player != game.getCurrentPlayer()) {
+                throw new IllegalStateException("It's not your turn.");
+            }
+            return timeOutTurn(game, player);
+        }
+    }
+
+    public GameState declareUno(String gameCode, Long playerId) {
+        GameState game = requireLiveGame(gameCode);
+        synchronized (game) {
+            PlayerState player = findPlayer(game, playerId,
+                "Player not found with id " + playerId + " in game " + gameCode);
+
+            if (player.getHand().size() != 1) {
+                throw new IllegalStateException("You can only declare UNO when you have one card left.");
+            }
+
+            player.setHasDeclaredUno(true);
+            return accept(game, GameEventType.DECLARE_UNO, playerId, null, null, null);
+        }
+    }
+
+    public GameState challengeUno(String gameCode, Long challengerId, Long challengedId) {
+        GameState game = requireLiveGame(gameCode);
+        synchronized (game) {
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress.");
+            }
+
+            PlayerState challenger = findPlayer(game, challengerId,
+                "Challenger not found with id " + challengerId + " in game " + gameCode);
+            PlayerState challenged = findPlayer(game, challengedId,
+                "Challenged player not found with id " + challengedId + " in game " + gameCode);
+
+            boolean challengeSuccessful = challenged.getHand().size() == 1 && !challenged.isHasDeclaredUno();
+            drawCardsForPlayer(game, challengeSuccessful ? challenged : challenger, 2);
+
+            return accept(game, GameEventType.CHALLENGE_UNO, challengerId, null, null, challengedId);
+        }
+    }
+
+    /**
+     * Cancela la partida si sigue en curso y no ha aceptado ningún comando desde
+     * {@code idleSinceMillis}. No es un comando del diario: la partida queda marcada para que
+     * la persistencia diferida la vuelque y la expulse del motor.
+     */
+    public Optional<GameState> cancelIfIdle(String gameCode, long idleSinceMillis) {
+        GameState game = liveGames.get(gameCode);
+        if (game == null) {
+            return Optional.empty();
+        }
+        synchronized (game) {
+            if (game.getStatus() != Game.GameStatus.IN_PROGRESS || game.getLastActivityMillis() >= idleSinceMillis) {
+                return Optional.empty();
+            }
+            game.setStatus(Game.GameStatus.CANCELLED);
+            game.setCurrentPlayerIndex(-1);
+            game.setTurnDeadlineMillis(0L);
+            markDirty(gameCode);
+            return Optional.of(game);
+        }
+    }
+
+    private GameState requireLiveGame(String gameCode) {
+        GameState game = liveGames.get(gameCode);
+        if (game == null) {
+            throw new RuntimeException("Game not found with code: " + gameCode);
+        }
+        return game;
+    }
+
+    private PlayerState findPlayer(GameState game, Long playerId, String notFoundMessage) {
+        for (PlayerState player : game.getPlayers()) {
+            if (player.getId().equals(playerId)) {
+                return player;
+            }
+        }
+        throw new RuntimeException(notFoundMessage);
+    }
+
+    private GameState accept(GameState game, GameEventType type, Long playerId, Long cardId,
+                             Color chosenColor, Long targetPlayerId) {
+        game.setLastActivityMillis(System.currentTimeMillis());
+        return record(game, type, playerId, cardId, chosenColor, targetPlayerId);
+    }
+
+    /**
+     * Registra un comando sin contarlo como actividad de los jugadores.
+     */
+    private GameState record(GameState game, GameEventType type, Long playerId, Long cardId,
+                             Color chosenColor, Long targetPlayerId) {
+        game.setVersion(game.getVersion() + 1);
+        game.recordCommand(new AcceptedCommand(game.getVersion(), type, playerId, cardId, chosenColor, targetPlayerId));
+        markDirty(game.getGameCode());
+        return game;
+    }
+
+    private GameState timeOutTurn(GameState game, PlayerState player) {
+        drawCardsForPlayer(game, player, 1);
+        game.setCurrentPlayerIndex(nextSeat(game, 1));
+        startTurn(game);
+        return record(game, GameEventType.TURN_TIMEOUT, player.getId(), null, null, null);
+    }
+
+    /**
+     * Reinicia el plazo del turno en curso; sin turno (partida terminada) o sin plazos queda a 0.
+     */
+    private void startTurn(GameState game) {
+        boolean timed = turnTimeoutMs > 0 && game.getStatus() == Game.GameStatus.IN_PROGRESS
+            && game.getCurrentPlayerIndex() >= 0;
+        game.setTurnDeadlineMillis(timed ? System.currentTimeMillis() + turnTimeoutMs : 0L);
+    }
+
+    private boolean hasPlayableCard(GameState game, PlayerState player) {
+        return player.getHand().hasPlayableCard(game.getTopDiscardCard(), game.getCurrentColor());
+    }
+
+    private int applyCardEffect(GameState game, byte playedCard, Color chosenColor) {
+        Color cardColor = CardCodes.color(playedCard);
+        game.setCurrentColor(cardColor == Color.BLACK ? chosenColor : cardColor);
+
+        switch (CardCodes.value(playedCard)) {
+            case SKIP:
+                return nextSeat(game, 2);
+            case REVERSE:
+                game.setReversed(!game.isReversed());
+                // Con 2 jugadores, REVERSE actúa como SKIP
+                return nextSeat(game, game.getPlayers().size() == 2 ? 2 : 1);
+            case DRAW_TWO:
+                drawCardsForPlayer(game, game.getPlayers().get(nextSeat(game, 1)), 2);
+                return nextSeat(game, 2);
+            case WILD_DRAW_FOUR:
+                drawCardsForPlayer(game, game.getPlayers().get(nextSeat(game, 1)), 4);
+                return nextSeat(game, 2);
+            default:
+                return nextSeat(game, 1);
+        }
+    }
+
+    private int nextSeat(GameState game, int positionsToAdvance) {
+        return GameRules.nextSeat(game.getCurrentPlayerIndex(), positionsToAdvance,
+            game.getPlayers().size(), game.isReversed());
+    }
+
+    /**
+     * Roba hasta {@code numberOfCards} cartas y devuelve cuántas se han robado realmente.
+     */
+    private int drawCardsForPlayer(GameState game, PlayerState player, int numberOfCards) {
+        Deck drawPile = game.getDrawPile();
+        int drawn = 0;
+        for (; drawn < numberOfCards; drawn++) {
+            if (drawPile.isEmpty()) {
+                reshuffleDiscardPile(game);
+                if (drawPile.isEmpty()) {
+                    break;
+                }
+            }
+            player.getHand().add(drawPile.pop());
+        }
+        return drawn;
+    }
+
+    private void reshuffleDiscardPile(GameState game) {
+        game.getDrawPile().takeAllButTop(game.getDiscardPile());
+        game.getDrawPile().shuffle(game.getRandom());
+    }
+}
@@ -0,0 +1,33 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador SplitMix64 con estado explícito. Forma parte del estado de la partida (se guarda en
+ * las instantáneas), de modo que rebarajar es determinista y el diario de eventos puede
+ * reproducirse exactamente a partir de una instantánea.
+ */
+public final class GameRandom implements RandomGenerator {
+
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,37 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+
+/**
+ * Reglas puras del UNO, sin dependencias de JPA ni de Spring.
+ * Las usan tanto {@code GameService} (modelo JPA) como {@link GameEngine} (estado en memoria),
+ * de forma que ambos caminos aplican exactamente las mismas reglas.
+ */
+public final class GameRules {
+
+    private GameRules() {
+    }
+
+    public static boolean isCardPlayable(Color cardColor, CardValue cardValue, CardValue topValue, Color currentColor) {
+        //1. Un comodín (negro) puede jugarse en cualquier momento
+        if (cardColor == Color.BLACK) return true;
+
+        //2. La carta coincide con el color activo
+        //3. O la carta coincide en valor con la carta superior de la pila de descarte
+        return cardColor == currentColor || cardValue == topValue;
+    }
+
+    /**
+     * Calcula el índice del asiento que juega tras avanzar {@code positionsToAdvance} posiciones
+     * en el sentido actual del juego.
+     */
+    public static int nextSeat(int currentSeat, int positionsToAdvance, int totalPlayers, boolean reversed) {
+        int direction = reversed ? -1 : 1;
+        int nextSeat = (currentSeat + (direction * positionsToAdvance)) % totalPlayers;
+        if (nextSeat < 0) {
+            nextSeat += totalPlayers; // Asegura que el índice no sea negativo
+        }
+        return nextSeat;
+    }
+}
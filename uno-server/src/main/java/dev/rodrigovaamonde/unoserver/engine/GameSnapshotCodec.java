@@ -0,0 +1,172 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Formato binario compacto y versionado del estado completo de una partida.
+ * <p>
+ * El primer byte es la versión del formato; {@link #decode} elige el lector según esa versión,
+ * de modo que las instantáneas antiguas siguen siendo legibles cuando el formato evoluciona.
+ * Formato v1 (los enteros {@code var} usan codificación LEB128):
+ * <pre>
+ * u8 formatVersion | var stateVersion | u8 status | u8 currentColor+1 | u8 flags | u8 currentPlayerIndex+1
+ * var createdById | u8 playerCount | { var id | utf name | u8 uno | u8 handSize | byte[handSize] }*
+ * u8 drawSize | byte[drawSize] | u8 discardSize | byte[discardSize] | 108 x var zigzag(delta cardId)
+ * </pre>
+ * El formato v2 añade, justo después de {@code stateVersion}, el estado del generador de la partida
+ * ({@code i64 randomState}) para que la reproducción del diario rebarajee igual. Las instantáneas v1
+ * se leen con un generador nuevo.
+ * Una partida de 4 jugadores ocupa unos 300 bytes.
+ */
+public final class GameSnapshotCodec {
+
+    public static final int CURRENT_FORMAT_VERSION = 2;
+
+    private static final Game.GameStatus[] STATUSES = Game.GameStatus.values();
+    private static final Color[] COLORS = Color.values();
+    private static final int FLAG_REVERSED = 1;
+
+    private GameSnapshotCodec() {
+    }
+
+    public static byte[] encode(GameState state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(384);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(CURRENT_FORMAT_VERSION);
+            writeVarLong(out, state.getVersion());
+            out.writeLong(state.getRandom().getState());
+            out.writeByte(state.getStatus().ordinal());
+            out.writeByte(state.getCurrentColor() == null ? 0 : state.getCurrentColor().ordinal() + 1);
+            out.writeByte(state.isReversed() ? FLAG_REVERSED : 0);
+            out.writeByte(state.getCurrentPlayerIndex() + 1);
+            writeVarLong(out, state.getCreatedById() == null ? 0L : state.getCreatedById());
+
+            out.writeByte(state.getPlayers().size());
+            for (PlayerState player : state.getPlayers()) {
+                writeVarLong(out, player.getId());
+                out.writeUTF(player.getName());
+                out.writeBoolean(player.isHasDeclaredUno());
+                Hand hand = player.getHand();
+                out.writeByte(hand.size());
+                for (int i = 0; i < hand.size(); i++) {
+                    out.writeByte(hand.get(i));
+                }
+            }
+
+            writeDeck(out, state.getDrawPile());
+            writeDeck(out, state.getDiscardPile());
+
+            // Los ids de las cartas de una partida suelen ser consecutivos: los deltas ocupan 1 byte
+            long previousId = 0L;
+            for (long cardId : state.getCardIds()) {
+                writeVarLong(out, zigZag(cardId - previousId));
+                previousId = cardId;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static GameState decode(Long id, String gameCode, byte[] snapshot) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            int formatVersion = in.readUnsignedByte();
+            return switch (formatVersion) {
+                case 1 -> decodeFields(id, gameCode, in, false);
+                case 2 -> decodeFields(id, gameCode, in, true);
+                default -> throw new IllegalStateException(
+                    "Unsupported game snapshot format version " + formatVersion + " for game " + gameCode);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GameState decodeFields(Long id, String gameCode, DataInputStream in,
+                                          boolean hasRandomState) throws IOException {
+        GameState state = new GameState(id, gameCode);
+        state.setVersion(readVarLong(in));
+        if (hasRandomState) {
+            state.getRandom().setState(in.readLong());
+        }
+        state.setStatus(STATUSES[in.readUnsignedByte()]);
+        int color = in.readUnsignedByte();
+        state.setCurrentColor(color == 0 ? null : COLORS[color - 1]);
+        state.setReversed((in.readUnsignedByte() & FLAG_REVERSED) != 0);
+        state.setCurrentPlayerIndex(in.readUnsignedByte() - 1);
+        long createdById = readVarLong(in);
+        state.setCreatedById(createdById == 0L ? null : createdById);
+
+        int playerCount = in.readUnsignedByte();
+        for (int p = 0; p < playerCount; p++) {
+            PlayerState player = new PlayerState(readVarLong(in), in.readUTF());
+            player.setHasDeclaredUno(in.readBoolean());
+            int handSize = in.readUnsignedByte();
+            for (int i = 0; i < handSize; i++) {
+                player.getHand().add(in.readByte());
+            }
+            state.getPlayers().add(player);
+        }
+
+        readDeck(in, state.getDrawPile());
+        readDeck(in, state.getDiscardPile());
+
+        long previousId = 0L;
+        long[] cardIds = state.getCardIds();
+        for (int code = 0; code < cardIds.length; code++) {
+            previousId += unZigZag(readVarLong(in));
+            cardIds[code] = previousId;
+        }
+        return state;
+    }
+
+    private static void writeDeck(DataOutputStream out, Deck deck) throws IOException {
+        out.writeByte(deck.size());
+        for (int i = 0; i < deck.size(); i++) {
+            out.writeByte(deck.get(i));
+        }
+    }
+
+    private static void readDeck(DataInputStream in, Deck deck) throws IOException {
+        int size = in.readUnsignedByte();
+        for (int i = 0; i < size; i++) {
+            deck.push(in.readByte());
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0L;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,175 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estado completo de una partida viva (IN_PROGRESS) mantenido en memoria por {@link GameEngine}.
+ * Es un objeto plano: no tiene proxies de Hibernate ni relaciones bidireccionales.
+ * Las cartas se representan con su código compacto de {@link CardCodes}; {@code cardIds}
+ * guarda, para cada código, el id de su fila en la tabla {@code cards}.
+ * Todas las mutaciones se hacen bajo el monitor de la propia instancia.
+ * <p>
+ * El generador {@code random} forma parte del estado: con él, aplicar los comandos del diario
+ * sobre una instantánea reproduce exactamente la partida, rebarajados incluidos.
+ */
+@Getter
+@Setter
+public class GameState {
+
+    private final Long id;
+    private final String gameCode;
+    private final List<PlayerState> players = new ArrayList<>();
+    private final Deck drawPile = new Deck();
+    private final Deck discardPile = new Deck();
+    private final long[] cardIds = new long[CardCodes.DECK_SIZE];
+    private final GameRandom random = new GameRandom(ThreadLocalRandom.current().nextLong());
+    // Comandos aceptados pendientes de añadirse al diario (game_events)
+    @Getter(AccessLevel.NONE)
+    private final List<AcceptedCommand> pendingCommands = new ArrayList<>();
+
+    private Game.GameStatus status = Game.GameStatus.IN_PROGRESS;
+    private Color currentColor;
+    private boolean reversed;
+    // Índice del jugador actual en la lista de jugadores, -1 si no hay turno activo
+    private int currentPlayerIndex = -1;
+    private Long createdById;
+    // Se incrementa con cada mutación aceptada
+    private long version;
+    // Instante (epoch ms) del último comando aceptado; no forma parte de la instantánea
+    private long lastActivityMillis = System.currentTimeMillis();
+    // Instante (epoch ms) en que vence el turno en curso, 0 si no tiene plazo; tampoco forma parte de la instantánea
+    private long turnDeadlineMillis;
+
+    public GameState(Long id, String gameCode) {
+        this.id = id;
+        this.gameCode = gameCode;
+    }
+
+    /**
+     * Construye el estado en memoria a partir del agregado JPA. Debe llamarse dentro de la
+     * transacción que cargó la partida, ya que recorre las colecciones perezosas.
+     */
+    public static GameState fromEntity(Game game) {
+        GameState state = new GameState(game.getId(), game.getGameCode());
+        // Siguiente índice de copia libre por cara de carta
+        int[] nextCopy = new int[128];
+        for (Player player : game.getPlayers()) {
+            PlayerState playerState = new PlayerState(player.getId(), player.getName());
+            player.getHand().forEach(card -> playerState.getHand().add(state.assignCode(card, nextCopy)));
+            playerState.setHasDeclaredUno(player.isHasDeclaredUno());
+            state.players.add(playerState);
+        }
+        game.getDrawPile().forEach(card -> state.drawPile.push(state.assignCode(card, nextCopy)));
+        game.getDiscardPile().forEach(card -> state.discardPile.push(state.assignCode(card, nextCopy)));
+        state.status = game.getStatus();
+        state.currentColor = game.getCurrentColor();
+        state.reversed = game.isReversed();
+        // Los jugadores se recorren en orden de asiento, así que el índice coincide
+        state.currentPlayerIndex = game.getCurrentSeat();
+        state.createdById = game.getCreatedBy() != null ? game.getCreatedBy().getId() : null;
+        if (game.getLastActivityAt() != null) {
+            state.lastActivityMillis = game.getLastActivityAt().toEpochMilli();
+        }
+        return state;
+    }
+
+    private byte assignCode(Card card, int[] nextCopy) {
+        int face = CardCodes.face(card.getColor(), card.getValue());
+        byte code = CardCodes.encode(card.getColor(), card.getValue(), nextCopy[face]++);
+        cardIds[code] = card.getId() != null ? card.getId() : 0L;
+        return code;
+    }
+
+    /**
+     * Devuelve el id de la fila de {@code cards} de la carta con el código indicado.
+     */
+    public Long getCardId(byte card) {
+        long cardId = cardIds[card];
+        return cardId == 0L ? null : cardId;
+    }
+
+    public void setCardId(byte card, Long cardId) {
+        cardIds[card] = cardId != null ? cardId : 0L;
+    }
+
+    /**
+     * Busca el código de carta a partir del id de su fila. Recorre como mucho 108 posiciones.
+     */
+    public int findCardCode(Long cardId) {
+        if (cardId == null) {
+            return -1;
+        }
+        for (int code = 0; code < cardIds.length; code++) {
+            if (cardIds[code] == cardId) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    public PlayerState getCurrentPlayer() {
+        return currentPlayerIndex < 0 ? null : players.get(currentPlayerIndex);
+    }
+
+    public boolean hasTopDiscardCard() {
+        return !discardPile.isEmpty();
+    }
+
+    public byte getTopDiscardCard() {
+        return discardPile.peek();
+    }
+
+    void recordCommand(AcceptedCommand command) {
+        pendingCommands.add(command);
+    }
+
+    /**
+     * Devuelve y limpia los comandos aceptados desde la última llamada. Debe llamarse bajo el monitor.
+     */
+    public List<AcceptedCommand> drainPendingCommands() {
+        if (pendingCommands.isEmpty()) {
+            return List.of();
+        }
+        List<AcceptedCommand> drained = new ArrayList<>(pendingCommands);
+        pendingCommands.clear();
+        return drained;
+    }
+
+    /**
+     * Devuelve al principio de la cola unos comandos drenados cuyo volcado ha fallado.
+     * Debe llamarse bajo el monitor.
+     */
+    public void requeuePendingCommands(List<AcceptedCommand> commands) {
+        pendingCommands.addAll(0, commands);
+    }
+
+    /**
+     * Copia profunda usada por la persistencia diferida para leer el estado fuera del monitor.
+     */
+    public GameState copy() {
+        GameState copy = new GameState(id, gameCode);
+        players.forEach(player -> copy.players.add(player.copy()));
+        copy.drawPile.copyFrom(drawPile);
+        copy.discardPile.copyFrom(discardPile);
+        System.arraycopy(cardIds, 0, copy.cardIds, 0, cardIds.length);
+        copy.status = status;
+        copy.currentColor = currentColor;
+        copy.reversed = reversed;
+        copy.currentPlayerIndex = currentPlayerIndex;
+        copy.createdById = createdById;
+        copy.version = version;
+        copy.lastActivityMillis = lastActivityMillis;
+        copy.random.setState(random.getState());
+        return copy;
+    }
+}
@@ -0,0 +1,129 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.Color;
+
+import java.util.Arrays;
+
+/**
+ * Mano de un jugador respaldada por un {@code byte[]} con contador de tamaño.
+ * El array sólo crece (duplicándose) si la mano supera su capacidad, algo raro en la práctica.
+ * <p>
+ * Además mantiene un índice de la mano: un conjunto de 128 bits con los códigos de carta presentes
+ * y el número de cartas de cada color, actualizados al añadir y quitar. Con él, saber si la carta
+ * está en la mano o si el jugador puede jugar algo son operaciones de bits, sin recorrer la mano.
+ */
+public final class Hand {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] cards = new byte[INITIAL_CAPACITY];
+    private int size;
+    // Bit (c & 63) de codes[c >> 6]: la carta de código c está en la mano
+    private final long[] codes = new long[2];
+    private final int[] colorCounts = new int[Color.values().length];
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public byte get(int index) {
+        return cards[index];
+    }
+
+    public void add(byte card) {
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, Math.min(cards.length * 2, CardCodes.DECK_SIZE));
+        }
+        cards[size++] = card;
+        codes[card >> 6] |= 1L << (card & 63);
+        colorCounts[CardCodes.face(card) >> 4]++;
+    }
+
+    public int indexOf(byte card) {
+        if (!contains(card)) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (cards[i] == card) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(byte card) {
+        return (codes[card >> 6] & 1L << (card & 63)) != 0;
+    }
+
+    /**
+     * Elimina la carta indicada conservando el orden del resto. Devuelve false si no estaba.
+     */
+    public boolean remove(byte card) {
+        int index = indexOf(card);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        size--;
+        codes[card >> 6] &= ~(1L << (card & 63));
+        colorCounts[CardCodes.face(card) >> 4]--;
+        return true;
+    }
+
+    public int countOfColor(Color color) {
+        return colorCounts[color.ordinal()];
+    }
+
+    /**
+     * Indica si alguna carta de la mano se puede jugar sobre {@code topCard} con el color activo.
+     */
+    public boolean hasPlayableCard(byte topCard, Color currentColor) {
+        return (codes[0] & CardCodes.playableCodes(0, topCard, currentColor)) != 0
+            || (codes[1] & CardCodes.playableCodes(1, topCard, currentColor)) != 0;
+    }
+
+    /**
+     * Indica si la carta está en la mano y se puede jugar sobre {@code topCard} con el color activo.
+     */
+    public boolean isPlayable(byte card, byte topCard, Color currentColor) {
+        int word = card >> 6;
+        return (codes[word] & CardCodes.playableCodes(word, topCard, currentColor) & 1L << (card & 63)) != 0;
+    }
+
+    /**
+     * Cartas de la mano que se pueden jugar, ordenadas por código. Sólo recorre los bits activos.
+     */
+    public byte[] playableCards(byte topCard, Color currentColor) {
+        long low = codes[0] & CardCodes.playableCodes(0, topCard, currentColor);
+        long high = codes[1] & CardCodes.playableCodes(1, topCard, currentColor);
+        byte[] playable = new byte[Long.bitCount(low) + Long.bitCount(high)];
+        int count = 0;
+        for (; low != 0; low &= low - 1) {
+            playable[count++] = (byte) Long.numberOfTrailingZeros(low);
+        }
+        for (; high != 0; high &= high - 1) {
+            playable[count++] = (byte) (64 + Long.numberOfTrailingZeros(high));
+        }
+        return playable;
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(codes, 0L);
+        Arrays.fill(colorCounts, 0);
+    }
+
+    public void copyFrom(Hand other) {
+        if (cards.length < other.size) {
+            cards = new byte[other.cards.length];
+        }
+        System.arraycopy(other.cards, 0, cards, 0, other.size);
+        size = other.size;
+        System.arraycopy(other.codes, 0, codes, 0, codes.length);
+        System.arraycopy(other.colorCounts, 0, colorCounts, 0, colorCounts.length);
+    }
+}
@@ -0,0 +1,30 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Estado en memoria de un jugador dentro de una partida viva.
+ */
+@Getter
+public class PlayerState {
+
+    private final Long id;
+    private final String name;
+    private final Hand hand = new Hand();
+
+    @Setter
+    private boolean hasDeclaredUno;
+
+    public PlayerState(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    PlayerState copy() {
+        PlayerState copy = new PlayerState(id, name);
+        copy.hand.copyFrom(hand);
+        copy.hasDeclaredUno = hasDeclaredUno;
+        return copy;
+    }
+}
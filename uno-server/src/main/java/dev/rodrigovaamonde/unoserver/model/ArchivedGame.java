@@ -0,0 +1,83 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una partida terminada que ha salido de las tablas {@code games}, {@code players}
+ * y {@code cards}. Conserva el id de la partida original, así que siempre se inserta como nueva.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "archived_games")
+public class ArchivedGame implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String gameCode;
+
+    // FINISHED o CANCELLED
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Game.GameStatus status;
+
+    private String winnerName;
+
+    // Puntos de las cartas que quedaron en las manos del resto de jugadores
+    @Column(nullable = false)
+    private int winnerScore;
+
+    @Column(nullable = false)
+    private int playerCount;
+
+    @Column(nullable = false)
+    private long moveCount;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long durationMs;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private List<ArchivedPlayer> players = new ArrayList<>();
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    // Sin este indicador save() haría un SELECT por fila antes de insertar (el id viene asignado)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,14 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+/**
+ * Resultado de un jugador en una partida archivada, en orden de asiento.
+ *
+ * @param cardsLeft Cartas que tenía en la mano al terminar la partida.
+ * @param points    Valor de esas cartas según {@link CardValue#getPoints()}.
+ */
+public record ArchivedPlayer(
+    String name,
+    int cardsLeft,
+    int points
+) {
+}
@@ -12,8 +12,10 @@ import lombok.NoArgsConstructor;
 @Table(name = "cards")
 public class Card {
 
+    // Bloques de 128 ids: una baraja completa con una sola llamada a la secuencia (ver V7)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_id_seq")
+    @SequenceGenerator(name = "cards_id_seq", sequenceName = "cards_id_seq", allocationSize = 128)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,35 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Instancia del servidor viva en el clúster. Cada nodo renueva su latido periódicamente; los
+ * nodos con un latido reciente forman el anillo que reparte las partidas.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "cluster_nodes")
+public class ClusterNode {
+
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    /** URL base a la que los clientes deben conectarse para jugar las partidas de este nodo. */
+    @Column(nullable = false)
+    private String url;
+
+    @Column(name = "last_heartbeat", nullable = false)
+    private Instant lastHeartbeat;
+
+    public ClusterNode(String nodeId, String url, Instant lastHeartbeat) {
+        this.nodeId = nodeId;
+        this.url = url;
+        this.lastHeartbeat = lastHeartbeat;
+    }
+}
@@ -1,13 +1,20 @@
 package dev.rodrigovaamonde.unoserver.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Data
 @NoArgsConstructor
@@ -15,27 +22,42 @@ import java.util.List;
 @Table(name = "games")
 public class Game {
 
+    // Asientos por partida: con 7 cartas por jugador y la primera del descarte, sobra mazo para los robos
+    public static final int MAX_PLAYERS = 10;
+
+    // Ids por bloques desde la secuencia para que Hibernate pueda agrupar los INSERT (ver V7)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "games_id_seq")
+    @SequenceGenerator(name = "games_id_seq", sequenceName = "games_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String gameCode;
 
+    // Ordenados por asiento: el índice en la lista es el asiento del jugador
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OrderBy("seat")
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Player> players = new ArrayList<>();
 
+    // Asiento por id de jugador; se construye al buscar y se descarta si cambia la lista
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<Long, Integer> seatsById;
+
     @OneToMany(mappedBy = "deckGame", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Card> drawPile = new ArrayList<>();
 
     @OneToMany(mappedBy = "discardPileGame", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Card> discardPile = new ArrayList<>();
 
-    @ManyToOne
-    @ToString.Exclude
-    private Player currentPlayer;
+    // Asiento del jugador con el turno, -1 si no hay turno activo
+    @Column(name = "current_seat", nullable = false)
+    private int currentSeat = -1;
 
     private boolean isReversed = false;
 
@@ -50,10 +72,38 @@ public class Game {
     @ToString.Exclude
     private Player createdBy;
 
+    // Instantánea binaria del estado en curso (modo de persistencia "snapshot", ver GameSnapshotCodec)
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "snapshot")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] snapshot;
+
+    // Versión del estado (número de mutaciones aceptadas) contenida en la instantánea
+    @Column(name = "snapshot_version")
+    private Long snapshotVersion;
+
+    // Comandos aceptados en la partida; con el motor en memoria es la versión del estado
+    @Column(name = "move_count", nullable = false)
+    private long moveCount;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    // Fin de la partida, tanto si termina con ganador como si se cancela por inactividad
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // Último alta, unión, cambio de estado o jugada; el reaper cancela las partidas inactivas
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt = Instant.now();
+
     public enum GameStatus {
         WAITING_FOR_PLAYERS,
         IN_PROGRESS,
-        FINISHED
+        FINISHED,
+        // Expirada por inactividad (IdleGameReaper)
+        CANCELLED
     }
 
     public Game(String gameCode) {
@@ -61,7 +111,95 @@ public class Game {
     }
 
     public void addPlayer(Player player) {
+        player.setSeat(players.size());
         players.add(player);
         player.setGame(this);
+        seatsById = null;
+        lastActivityAt = Instant.now();
+    }
+
+    /**
+     * Cambia el estado anotando cuándo empieza y termina la partida (duración en el archivo).
+     */
+    public void setStatus(GameStatus status) {
+        this.status = status;
+        lastActivityAt = Instant.now();
+        if (status == GameStatus.IN_PROGRESS && startedAt == null) {
+            startedAt = lastActivityAt;
+        } else if (isEnded() && finishedAt == null) {
+            finishedAt = lastActivityAt;
+        }
+    }
+
+    public boolean isFull() {
+        return players.size() >= MAX_PLAYERS;
+    }
+
+    public boolean isEnded() {
+        return status == GameStatus.FINISHED || status == GameStatus.CANCELLED;
+    }
+
+    public void recordMove() {
+        moveCount++;
+        lastActivityAt = Instant.now();
+    }
+
+    public void setPlayers(List<Player> players) {
+        this.players = players;
+        seatsById = null;
+    }
+
+    /**
+     * Busca un jugador de la partida por id en O(1).
+     */
+    public Optional<Player> findPlayer(Long playerId) {
+        int seat = seatOf(playerId);
+        return seat < 0 ? Optional.empty() : Optional.of(players.get(seat));
+    }
+
+    /**
+     * Asiento del jugador con el id indicado, o -1 si no está en la partida.
+     */
+    public int seatOf(Long playerId) {
+        if (playerId == null) {
+            return -1;
+        }
+        Integer seat = seats().get(playerId);
+        if (seat == null && seatsById.size() < players.size()) {
+            // Jugadores añadidos antes de tener id: se vuelve a indexar una vez asignados
+            seatsById = null;
+            seat = seats().get(playerId);
+        }
+        return seat != null ? seat : -1;
+    }
+
+    public Player getCurrentPlayer() {
+        return currentSeat < 0 ? null : players.get(currentSeat);
+    }
+
+    public void setCurrentPlayer(Player player) {
+        if (player == null) {
+            currentSeat = -1;
+            return;
+        }
+        int seat = player.getId() != null ? seatOf(player.getId()) : players.indexOf(player);
+        if (seat < 0) {
+            throw new IllegalArgumentException("Player " + player.getId() + " is not seated in game " + gameCode);
+        }
+        currentSeat = seat;
+    }
+
+    private Map<Long, Integer> seats() {
+        if (seatsById == null) {
+            Map<Long, Integer> seats = new HashMap<>();
+            for (int seat = 0; seat < players.size(); seat++) {
+                Long playerId = players.get(seat).getId();
+                if (playerId != null) {
+                    seats.put(playerId, seat);
+                }
+            }
+            seatsById = seats;
+        }
+        return seatsById;
     }
 }
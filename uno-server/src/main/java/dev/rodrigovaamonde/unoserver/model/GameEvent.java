@@ -0,0 +1,44 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada del diario append-only de una partida: un comando aceptado por el motor.
+ * Nunca se actualiza ni se borra mientras la partida existe.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "game_events")
+public class GameEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_events_id_seq")
+    @SequenceGenerator(name = "game_events_id_seq", sequenceName = "game_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GameEventType type;
+
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Column(name = "card_id")
+    private Long cardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chosen_color")
+    private Color chosenColor;
+
+    @Column(name = "target_player_id")
+    private Long targetPlayerId;
+}
@@ -0,0 +1,14 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+/**
+ * Tipos de comando registrados en el diario de eventos de una partida.
+ */
+public enum GameEventType {
+    PLAY_CARD,
+    DRAW_CARD,
+    PASS_TURN,
+    DECLARE_UNO,
+    CHALLENGE_UNO,
+    // Turno agotado: el servidor roba una carta por el jugador y pasa
+    TURN_TIMEOUT
+}
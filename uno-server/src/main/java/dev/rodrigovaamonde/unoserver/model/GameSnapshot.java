@@ -0,0 +1,39 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Instantánea periódica del estado de una partida tras el evento {@code sequence} de su diario.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "game_snapshots")
+public class GameSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_snapshots_id_seq")
+    @SequenceGenerator(name = "game_snapshots_id_seq", sequenceName = "game_snapshots_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] snapshot;
+
+    public GameSnapshot(Long gameId, long sequence, byte[] snapshot) {
+        this.gameId = gameId;
+        this.sequence = sequence;
+        this.snapshot = snapshot;
+    }
+}
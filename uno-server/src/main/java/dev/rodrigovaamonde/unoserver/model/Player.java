@@ -15,7 +15,8 @@ import java.util.List;
 public class Player {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "players_id_seq")
+    @SequenceGenerator(name = "players_id_seq", sequenceName = "players_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -27,6 +28,9 @@ public class Player {
 
     private boolean hasDeclaredUno = false;
 
+    // Posición en la mesa, asignada por Game.addPlayer
+    private Integer seat;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id")
     @ToString.Exclude
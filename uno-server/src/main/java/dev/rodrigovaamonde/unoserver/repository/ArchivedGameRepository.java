@@ -0,0 +1,12 @@
+package dev.rodrigovaamonde.unoserver.repository;
+
+import dev.rodrigovaamonde.unoserver.model.ArchivedGame;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ArchivedGameRepository extends JpaRepository<ArchivedGame, Long> {
+    Optional<ArchivedGame> findByGameCode(String gameCode);
+}
@@ -0,0 +1,13 @@
+package dev.rodrigovaamonde.unoserver.repository;
+
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+    List<ClusterNode> findByLastHeartbeatAfter(Instant since);
+}
@@ -0,0 +1,22 @@
+package dev.rodrigovaamonde.unoserver.repository;
+
+import dev.rodrigovaamonde.unoserver.model.GameEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GameEventRepository extends JpaRepository<GameEvent, Long> {
+    List<GameEvent> findByGameIdOrderBySequenceAsc(Long gameId);
+
+    List<GameEvent> findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(Long gameId, long sequence);
+
+    /**
+     * Último número de secuencia del diario de la partida, 0 si aún no tiene eventos.
+     */
+    @Query("select coalesce(max(e.sequence), 0) from GameEvent e where e.gameId = :gameId")
+    long findLastSequence(@Param("gameId") Long gameId);
+}
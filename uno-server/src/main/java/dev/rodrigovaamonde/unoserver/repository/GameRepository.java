@@ -1,12 +1,164 @@
 package dev.rodrigovaamonde.unoserver.repository;
 
 import dev.rodrigovaamonde.unoserver.model.Game;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
     Optional<Game> findByGameCode(String gameCode);
+
+    long countByStatus(Game.GameStatus status);
+
+    /**
+     * Lee sólo la instantánea de una partida en curso, sin cargar jugadores ni cartas.
+     */
+    @Query("select g.id as id, g.snapshot as snapshot from Game g " +
+        "where g.gameCode = :gameCode and g.status = :status and g.snapshot is not null")
+    Optional<GameSnapshotView> findSnapshotByGameCode(@Param("gameCode") String gameCode,
+                                                      @Param("status") Game.GameStatus status);
+
+    /**
+     * Persiste el estado de una partida como una única actualización de fila.
+     * La condición sobre {@code snapshot_version} descarta escrituras fuera de orden.
+     */
+    @Modifying
+    @Query(value = "UPDATE games SET snapshot = :snapshot, snapshot_version = :snapshotVersion, status = :status, " +
+        "current_color = :currentColor, is_reversed = :reversed, current_seat = :currentSeat, " +
+        "move_count = :snapshotVersion, last_activity_at = :lastActivityAt " +
+        "WHERE id = :id AND (snapshot_version IS NULL OR snapshot_version < :snapshotVersion)",
+        nativeQuery = true)
+    int updateSnapshot(@Param("id") Long id,
+                       @Param("snapshot") byte[] snapshot,
+                       @Param("snapshotVersion") long snapshotVersion,
+                       @Param("status") String status,
+                       @Param("currentColor") String currentColor,
+                       @Param("reversed") boolean reversed,
+                       @Param("currentSeat") int currentSeat,
+                       @Param("lastActivityAt") Instant lastActivityAt);
+
+    /**
+     * Avanza {@code move_count} antes de reescribir las filas relacionales de una partida. Igual que
+     * {@link #updateSnapshot}, no afecta a ninguna fila si la base de datos ya tiene una versión más
+     * nueva, y bloquea la fila hasta el final de la transacción.
+     */
+    @Modifying
+    @Query(value = "UPDATE games SET move_count = :moveCount WHERE id = :id AND move_count <= :moveCount",
+        nativeQuery = true)
+    int advanceMoveCount(@Param("id") Long id, @Param("moveCount") long moveCount);
+
+    /**
+     * Ids de las partidas terminadas antes de {@code finishedBefore}, las más antiguas primero.
+     */
+    @Query("select g.id from Game g where g.status in :statuses and g.finishedAt < :finishedBefore order by g.finishedAt, g.id")
+    List<Long> findIdsByStatusInAndFinishedAtBefore(@Param("statuses") Collection<Game.GameStatus> statuses,
+                                                    @Param("finishedBefore") Instant finishedBefore,
+                                                    Pageable pageable);
+
+    /**
+     * Estado y última actividad de las partidas indicadas, sin cargar jugadores ni cartas.
+     */
+    @Query("select g.id as id, g.gameCode as gameCode, g.status as status, g.lastActivityAt as lastActivityAt from Game g " +
+        "where g.gameCode in :gameCodes")
+    List<GameActivityView> findActivityByGameCodes(@Param("gameCodes") Collection<String> gameCodes);
+
+    /**
+     * Partidas en espera o en curso ordenadas por id, para cargar el reaper al arrancar.
+     */
+    @Query("select g.id as id, g.gameCode as gameCode, g.status as status, g.lastActivityAt as lastActivityAt from Game g " +
+        "where g.status in :statuses and g.id > :afterId order by g.id")
+    List<GameActivityView> findActivityByStatusIn(@Param("statuses") Collection<Game.GameStatus> statuses,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    /**
+     * Salas en espera ordenadas por id, con su número de jugadores y el nombre del creador, para
+     * cargar el índice de salas abiertas (LobbyIndex) sin hidratar las partidas.
+     */
+    @Query("select g.id as id, g.gameCode as gameCode, c.name as hostName, count(p) as playerCount, " +
+        "g.lastActivityAt as lastActivityAt from Game g left join g.players p left join g.createdBy c " +
+        "where g.status = :status and g.id > :afterId " +
+        "group by g.id, g.gameCode, c.name, g.lastActivityAt order by g.id")
+    List<LobbyView> findLobbies(@Param("status") Game.GameStatus status,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    /**
+     * Cancela en bloque las partidas indicadas que siguen en {@code status} y no han tenido actividad
+     * desde {@code idleBefore}. Las condiciones hacen la sentencia idempotente entre nodos.
+     */
+    @Modifying
+    @Query(value = "UPDATE games SET status = 'CANCELLED', current_seat = -1, finished_at = :now " +
+        "WHERE game_code IN (:gameCodes) AND status = :status AND last_activity_at < :idleBefore",
+        nativeQuery = true)
+    int cancelIdleGames(@Param("gameCodes") Collection<String> gameCodes,
+                        @Param("status") String status,
+                        @Param("idleBefore") Instant idleBefore,
+                        @Param("now") Instant now);
+
+    // Borrado por lotes de las filas de partidas ya archivadas (GameArchiveService), en orden de dependencias.
+    // Son sentencias masivas: no pasan por el contexto de persistencia ni cargan las cartas
+
+    @Modifying
+    @Query(value = "DELETE FROM cards WHERE deck_game_id IN (:gameIds) OR discard_pile_game_id IN (:gameIds) " +
+        "OR player_id IN (SELECT p.id FROM players p WHERE p.game_id IN (:gameIds))", nativeQuery = true)
+    int deleteCardsByGameIds(@Param("gameIds") Collection<Long> gameIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM game_events WHERE game_id IN (:gameIds)", nativeQuery = true)
+    int deleteEventsByGameIds(@Param("gameIds") Collection<Long> gameIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM game_snapshots WHERE game_id IN (:gameIds)", nativeQuery = true)
+    int deleteSnapshotsByGameIds(@Param("gameIds") Collection<Long> gameIds);
+
+    // games.created_by_player_id apunta a players sin ON DELETE
+    @Modifying
+    @Query(value = "UPDATE games SET created_by_player_id = NULL WHERE id IN (:gameIds)", nativeQuery = true)
+    int clearCreatorsByGameIds(@Param("gameIds") Collection<Long> gameIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM players WHERE game_id IN (:gameIds)", nativeQuery = true)
+    int deletePlayersByGameIds(@Param("gameIds") Collection<Long> gameIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM games WHERE id IN (:gameIds)", nativeQuery = true)
+    int deleteByIds(@Param("gameIds") Collection<Long> gameIds);
+
+    interface GameActivityView {
+        Long getId();
+
+        String getGameCode();
+
+        Game.GameStatus getStatus();
+
+        Instant getLastActivityAt();
+    }
+
+    interface LobbyView {
+        Long getId();
+
+        String getGameCode();
+
+        String getHostName();
+
+        Long getPlayerCount();
+
+        Instant getLastActivityAt();
+    }
+
+    interface GameSnapshotView {
+        Long getId();
+
+        byte[] getSnapshot();
+    }
 }
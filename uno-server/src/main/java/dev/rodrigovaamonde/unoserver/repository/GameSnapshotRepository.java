@@ -0,0 +1,12 @@
+package dev.rodrigovaamonde.unoserver.repository;
+
+import dev.rodrigovaamonde.unoserver.model.GameSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GameSnapshotRepository extends JpaRepository<GameSnapshot, Long> {
+    Optional<GameSnapshot> findFirstByGameIdOrderBySequenceDesc(Long gameId);
+}
@@ -0,0 +1,62 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hash consistente inmutable que asigna cada {@code gameCode} a un nodo.
+ * <p>
+ * Cada nodo ocupa {@link #VIRTUAL_NODES} puntos del anillo para repartir la carga de forma
+ * uniforme; una partida pertenece al primer punto igual o posterior a su hash. Al entrar o salir
+ * un nodo sólo cambian de dueño las partidas de los tramos que gana o pierde (~1/N del total).
+ * El hash no depende de la JVM, así que todos los nodos calculan el mismo dueño.
+ */
+public final class ConsistentHashRing {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodeIds) {
+        for (String nodeId : nodeIds) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    /**
+     * Nodo dueño de la partida, o {@code null} si el anillo está vacío.
+     */
+    public String ownerOf(String gameCode) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(gameCode));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido del mezclador final de MurmurHash3, que dispersa bien claves
+     * cortas y parecidas como los códigos de partida.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,202 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.rodrigovaamonde.unoserver.model.ArchivedGame;
+import dev.rodrigovaamonde.unoserver.model.ArchivedPlayer;
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import dev.rodrigovaamonde.unoserver.repository.ArchivedGameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archivo de las partidas terminadas o canceladas. Cada {@code uno.archive.interval-ms} resume
+ * las partidas que llevan más de {@code uno.archive.grace-period-ms} terminadas en una fila de
+ * {@code archived_games} (ganador, puntos, duración y número de jugadas) y borra sus filas de
+ * {@code games}, {@code players}, {@code cards} y del diario.
+ * <p>
+ * Trabaja en lotes de {@code uno.archive.batch-size} partidas, cada uno en su propia transacción
+ * corta, con una pausa entre lotes y un máximo de lotes por pasada. Si hay hilos esperando una
+ * conexión del pool de Hikari, la pasada se interrumpe y el resto queda para la siguiente:
+ * el archivo nunca compite con las jugadas por las conexiones.
+ */
+@Service
+@Slf4j
+public class GameArchiveService {
+
+    private static final List<Game.GameStatus> ENDED_STATUSES = List.of(Game.GameStatus.FINISHED, Game.GameStatus.CANCELLED);
+
+    private final GameRepository gameRepository;
+    private final ArchivedGameRepository archivedGameRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HikariDataSource hikariDataSource;
+    private final GameCache gameCache;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatchesPerRun;
+    private final Counter archivedGames;
+    private final Counter deferredRuns;
+
+    public GameArchiveService(GameRepository gameRepository, ArchivedGameRepository archivedGameRepository,
+                              TransactionTemplate transactionTemplate, DataSource dataSource,
+                              GameCache gameCache, MeterRegistry meterRegistry,
+                              @Value("${uno.archive.enabled:true}") boolean enabled,
+                              @Value("${uno.archive.grace-period-ms:600000}") long gracePeriodMs,
+                              @Value("${uno.archive.batch-size:50}") int batchSize,
+                              @Value("${uno.archive.batch-pause-ms:200}") long batchPauseMs,
+                              @Value("${uno.archive.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.gameRepository = gameRepository;
+        this.archivedGameRepository = archivedGameRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.hikariDataSource = dataSource instanceof HikariDataSource hikari ? hikari : null;
+        this.gameCache = gameCache;
+        this.enabled = enabled;
+        this.gracePeriod = Duration.ofMillis(gracePeriodMs);
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.archivedGames = Counter.builder("uno.archive.games")
+            .description("Partidas terminadas movidas a archived_games")
+            .register(meterRegistry);
+        this.deferredRuns = Counter.builder("uno.archive.deferred")
+            .description("Pasadas del archivo interrumpidas porque el pool de conexiones estaba ocupado")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Archiva lotes de partidas terminadas hasta que no quedan, se alcanza el máximo de lotes
+     * de la pasada o el pool de conexiones tiene peticiones esperando.
+     *
+     * @return Número de partidas archivadas en esta pasada.
+     */
+    @Scheduled(fixedDelayString = "${uno.archive.interval-ms:60000}", initialDelayString = "${uno.archive.interval-ms:60000}")
+    public int archiveFinishedGames() {
+        if (!enabled) {
+            return 0;
+        }
+        Instant finishedBefore = Instant.now().minus(gracePeriod);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (batch > 0 && !pause()) {
+                break;
+            }
+            if (isPoolContended()) {
+                deferredRuns.increment();
+                log.debug("Archive run deferred after {} games: connection pool is busy", total);
+                break;
+            }
+            Integer archived = transactionTemplate.execute(status -> archiveBatch(finishedBefore));
+            total += archived == null ? 0 : archived;
+            if (archived == null || archived < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} finished games", total);
+        }
+        return total;
+    }
+
+    private int archiveBatch(Instant finishedBefore) {
+        List<Long> gameIds = gameRepository.findIdsByStatusInAndFinishedAtBefore(
+            ENDED_STATUSES, finishedBefore, PageRequest.of(0, batchSize));
+        if (gameIds.isEmpty()) {
+            return 0;
+        }
+
+        Instant archivedAt = Instant.now();
+        List<ArchivedGame> archived = new ArrayList<>(gameIds.size());
+        for (Game game : gameRepository.findAllById(gameIds)) {
+            archived.add(archive(game, archivedAt));
+        }
+        gameCache.invalidateAll(archived.stream().map(ArchivedGame::getGameCode).toList());
+        archivedGameRepository.saveAll(archived);
+        // Los INSERT del archivo deben llegar a la base de datos antes de los borrados masivos
+        archivedGameRepository.flush();
+
+        gameRepository.deleteCardsByGameIds(gameIds);
+        gameRepository.deleteEventsByGameIds(gameIds);
+        gameRepository.deleteSnapshotsByGameIds(gameIds);
+        gameRepository.clearCreatorsByGameIds(gameIds);
+        gameRepository.deletePlayersByGameIds(gameIds);
+        gameRepository.deleteByIds(gameIds);
+
+        archivedGames.increment(archived.size());
+        return gameIds.size();
+    }
+
+    /**
+     * Resume una partida terminada. Cada jugador suma el valor de las cartas que le quedan
+     * ({@link dev.rodrigovaamonde.unoserver.model.CardValue#getPoints()}); el ganador, el que
+     * se quedó sin cartas, se anota la suma de los puntos del resto. Las partidas canceladas
+     * no tienen ganador.
+     */
+    static ArchivedGame archive(Game game, Instant archivedAt) {
+        List<ArchivedPlayer> players = new ArrayList<>(game.getPlayers().size());
+        Player winner = null;
+        int score = 0;
+        for (Player player : game.getPlayers()) {
+            int points = 0;
+            for (Card card : player.getHand()) {
+                points += card.getValue().getPoints();
+            }
+            players.add(new ArchivedPlayer(player.getName(), player.getHand().size(), points));
+            score += points;
+            if (winner == null && game.getStatus() == Game.GameStatus.FINISHED && player.getHand().isEmpty()) {
+                winner = player;
+            }
+        }
+
+        ArchivedGame archived = new ArchivedGame();
+        archived.setId(game.getId());
+        archived.setGameCode(game.getGameCode());
+        archived.setStatus(game.getStatus());
+        archived.setWinnerName(winner != null ? winner.getName() : null);
+        archived.setWinnerScore(winner != null ? score : 0);
+        archived.setPlayerCount(players.size());
+        archived.setMoveCount(game.getMoveCount());
+        archived.setStartedAt(game.getStartedAt());
+        archived.setFinishedAt(game.getFinishedAt());
+        if (game.getStartedAt() != null && game.getFinishedAt() != null) {
+            archived.setDurationMs(Duration.between(game.getStartedAt(), game.getFinishedAt()).toMillis());
+        }
+        archived.setPlayers(players);
+        archived.setArchivedAt(archivedAt);
+        return archived;
+    }
+
+    private boolean isPoolContended() {
+        if (hikariDataSource == null) {
+            return false;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
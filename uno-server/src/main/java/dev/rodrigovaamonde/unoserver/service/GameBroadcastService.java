@@ -0,0 +1,254 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rodrigovaamonde.unoserver.dto.CardDTO;
+import dev.rodrigovaamonde.unoserver.dto.GameDeltaDTO;
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica los cambios de las partidas vivas en {@code /topic/{gameCode}} como deltas.
+ * <p>
+ * Cada mensaje lleva como número de secuencia la versión del estado, que aumenta en uno con cada
+ * comando aceptado. Si la última vista publicada de la partida es justo la anterior se envía un
+ * {@link GameDeltaDTO} sólo con lo que ha cambiado; si no (primera publicación, tras una
+ * rehidratación...) se envía el {@link GameResponseDTO} completo. Los clientes obtienen el estado
+ * completo al suscribirse a {@code /app/game/{gameCode}/state} y vuelven a suscribirse si detectan
+ * un hueco en la secuencia. Para no perder cambios, el cliente se suscribe primero al topic y
+ * descarta los deltas con secuencia menor o igual que la del estado completo recibido.
+ * <p>
+ * Las publicaciones de una partida se hacen desde su buzón de comandos, por lo que nunca
+ * se ejecutan en paralelo para la misma partida.
+ * <p>
+ * Con {@code uno.broadcast.serialize-once} (por defecto) cada mensaje se serializa a JSON una sola
+ * vez y se envía como {@code byte[]}: el broker reparte ese mismo mensaje a todas las suscripciones
+ * locales sin volver a pasar por la cadena de conversores. {@code uno.broadcast.publish} y
+ * {@code uno.broadcast.allocated} (etiquetados por {@code mode}) miden el coste de cada publicación
+ * para comparar ambos modos.
+ */
+@Service
+public class GameBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean serializeOnce;
+    private final Timer publishTimer;
+    private final DistributionSummary allocationSummary;
+    // Última vista publicada de cada partida viva
+    private final Map<String, BroadcastView> views = new ConcurrentHashMap<>();
+
+    public GameBroadcastService(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${uno.broadcast.serialize-once:true}") boolean serializeOnce) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.serializeOnce = serializeOnce;
+        String mode = serializeOnce ? "serialize-once" : "convert";
+        this.publishTimer = Timer.builder("uno.broadcast.publish")
+            .description("Tiempo de calcular, serializar y entregar al broker una actualización de partida")
+            .tag("mode", mode)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.allocationSummary = DistributionSummary.builder("uno.broadcast.allocated")
+            .description("Bytes reservados por el hilo que publica una actualización de partida")
+            .baseUnit("bytes")
+            .tag("mode", mode)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    public void publish(GameState state) {
+        long startTime = System.nanoTime();
+        long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+
+        Object message;
+        synchronized (state) {
+            message = nextMessage(state);
+        }
+        send("/topic/" + state.getGameCode(), message);
+
+        publishTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        if (allocatedBefore >= 0) {
+            allocationSummary.record(AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore);
+        }
+    }
+
+    /**
+     * Olvida la última vista publicada de una partida que sale del motor de este nodo (terminada,
+     * cancelada o cedida a otro nodo). Si vuelve a cargarse, su primera publicación es completa.
+     */
+    public void forget(String gameCode) {
+        views.remove(gameCode);
+    }
+
+    /**
+     * Envío privado a un usuario por el mismo camino que las difusiones.
+     */
+    public void sendToUser(String user, String destination, Object payload) {
+        if (serializeOnce) {
+            // Mismo destino que resuelve convertAndSendToUser
+            String userDestination = messagingTemplate.getUserDestinationPrefix() + user.replace("/", "%2F") + destination;
+            messagingTemplate.send(userDestination, toJsonMessage(payload));
+        } else {
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+        }
+    }
+
+    private void send(String destination, Object payload) {
+        if (serializeOnce) {
+            messagingTemplate.send(destination, toJsonMessage(payload));
+        } else {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+    }
+
+    /**
+     * Serializa el payload una sola vez; el {@code byte[]} resultante se reparte tal cual.
+     */
+    private Message<byte[]> toJsonMessage(Object payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + payload.getClass().getSimpleName(), e);
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, headers.getMessageHeaders());
+    }
+
+    /**
+     * Estado completo de una partida viva, con la versión actual como número de secuencia.
+     */
+    public GameResponseDTO fullState(GameState state) {
+        synchronized (state) {
+            return GameResponseDTO.fromState(state);
+        }
+    }
+
+    private Object nextMessage(GameState state) {
+        String gameCode = state.getGameCode();
+        BroadcastView view = views.get(gameCode);
+        Object message;
+        if (view == null || view.version != state.getVersion() - 1
+            || view.cardCounts.length != state.getPlayers().size()) {
+            view = new BroadcastView(state.getPlayers().size());
+            views.put(gameCode, view);
+            message = GameResponseDTO.fromState(state);
+        } else {
+            message = delta(view, state);
+        }
+        view.update(state);
+
+        if (state.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            views.remove(gameCode);
+        }
+        return message;
+    }
+
+    private GameDeltaDTO delta(BroadcastView view, GameState state) {
+        Game.GameStatus status = state.getStatus() != view.status ? state.getStatus() : null;
+
+        byte topCard = state.hasTopDiscardCard() ? state.getTopDiscardCard() : BroadcastView.NO_CARD;
+        CardDTO topDiscardCard = topCard != view.topCard && topCard != BroadcastView.NO_CARD
+            ? CardDTO.fromCardCode(topCard) : null;
+
+        Color currentColor = state.getCurrentColor() != view.currentColor ? state.getCurrentColor() : null;
+
+        Long currentPlayerId = null;
+        if (state.getCurrentPlayerIndex() != view.currentPlayerIndex && state.getCurrentPlayer() != null) {
+            currentPlayerId = state.getCurrentPlayer().getId();
+        }
+
+        // Cada turno nuevo tiene su propio plazo, aunque repita el mismo jugador
+        Long turnRemainingMs = state.getTurnDeadlineMillis() != view.turnDeadlineMillis
+            ? GameResponseDTO.turnRemainingMs(state.getTurnDeadlineMillis()) : null;
+
+        Map<Long, Integer> cardCounts = null;
+        for (int i = 0; i < view.cardCounts.length; i++) {
+            int cardCount = state.getPlayers().get(i).getHand().size();
+            if (cardCount != view.cardCounts[i]) {
+                if (cardCounts == null) {
+                    cardCounts = new LinkedHashMap<>();
+                }
+                cardCounts.put(state.getPlayers().get(i).getId(), cardCount);
+            }
+        }
+
+        return new GameDeltaDTO(GameDeltaDTO.TYPE, state.getGameCode(), state.getVersion(), status,
+            topDiscardCard, currentColor, currentPlayerId, turnRemainingMs, cardCounts);
+    }
+
+    /**
+     * Bytes reservados por el hilo actual, si la JVM lo permite (-1 si no).
+     */
+    private static final class AllocationMeter {
+        private static final com.sun.management.ThreadMXBean THREADS = supportedThreadMXBean();
+
+        static long currentThreadAllocatedBytes() {
+            return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1L;
+        }
+
+        private static com.sun.management.ThreadMXBean supportedThreadMXBean() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean sunThreads
+                && sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lo mínimo necesario para calcular el siguiente delta, sin referencias al estado vivo.
+     */
+    private static final class BroadcastView {
+        static final byte NO_CARD = -1;
+
+        final int[] cardCounts;
+        long version;
+        Game.GameStatus status;
+        byte topCard = NO_CARD;
+        Color currentColor;
+        int currentPlayerIndex = -1;
+        long turnDeadlineMillis;
+
+        BroadcastView(int playerCount) {
+            this.cardCounts = new int[playerCount];
+        }
+
+        void update(GameState state) {
+            version = state.getVersion();
+            status = state.getStatus();
+            topCard = state.hasTopDiscardCard() ? state.getTopDiscardCard() : NO_CARD;
+            currentColor = state.getCurrentColor();
+            currentPlayerIndex = state.getCurrentPlayerIndex();
+            turnDeadlineMillis = state.getTurnDeadlineMillis();
+            for (int i = 0; i < cardCounts.length; i++) {
+                cardCounts[i] = state.getPlayers().get(i).getHand().size();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository.GameActivityView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caché de lectura de las partidas que no están vivas en el motor (salas en espera, partidas
+ * terminadas o canceladas y, con el motor desactivado, todas), hidratadas como {@link GameState}
+ * y guardadas por {@code gameCode}. Las lecturas ({@link #get}) cargan la partida de la base de
+ * datos sólo si no está en la caché; el estado cacheado es de sólo lectura y se consulta bajo su monitor.
+ * <p>
+ * Guarda como mucho {@code uno.cache.max-size} partidas (expulsa la menos usada) durante
+ * {@code uno.cache.ttl-ms} desde que se cargaron. Cada comando que modifica una partida la
+ * invalida ({@link #invalidate}) o la sustituye por el estado resultante ({@link #update}) al
+ * confirmarse su transacción. Una lectura que empezó a cargar antes de una invalidación de la misma
+ * partida no guarda su resultado, así que nunca vuelve a meter un estado anterior al cambio.
+ * <p>
+ * Con varios nodos, los cambios hechos en otro nodo no invalidan esta caché. Con
+ * {@code uno.cache.revalidate} (activo por defecto si {@code uno.cluster.enabled}) cada acierto se
+ * valida con una consulta de una sola fila del estado y la última actividad de la partida, mucho más
+ * barata que hidratarla con sus jugadores y cartas; si no coinciden, se descarta y se recarga.
+ */
+@Service
+public class GameCache {
+
+    // Franjas de los sellos de invalidación, indexadas por el hash del código de partida
+    private static final int STAMP_STRIPES = 64;
+
+    private final GameRepository gameRepository;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMs;
+    private final boolean revalidate;
+    // Orden de acceso: la primera entrada es la menos usada. Protegido por el monitor de la caché
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long[] invalidationStamps = new long[STAMP_STRIPES];
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidatedEvictions;
+    private final Counter staleEvictions;
+
+    public GameCache(GameRepository gameRepository, MeterRegistry meterRegistry,
+                     @Value("${uno.cache.enabled:true}") boolean enabled,
+                     @Value("${uno.cache.max-size:10000}") int maxSize,
+                     @Value("${uno.cache.ttl-ms:60000}") long ttlMs,
+                     @Value("${uno.cache.revalidate:${uno.cluster.enabled:false}}") boolean revalidate) {
+        this.gameRepository = gameRepository;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.revalidate = revalidate;
+
+        Gauge.builder("uno.cache.size", this, GameCache::size)
+            .description("Partidas en la caché de lectura")
+            .register(meterRegistry);
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.sizeEvictions = evictions(meterRegistry, "size");
+        this.expiredEvictions = evictions(meterRegistry, "expired");
+        this.invalidatedEvictions = evictions(meterRegistry, "invalidated");
+        this.staleEvictions = evictions(meterRegistry, "stale");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("uno.cache.gets")
+            .description("Lecturas de la caché de partidas")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("uno.cache.evictions")
+            .description("Partidas expulsadas de la caché de lectura")
+            .tag("cause", cause)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la partida, cargándola de la base de datos si no está en la caché. Debe llamarse
+     * dentro de una transacción: la carga recorre las colecciones perezosas del agregado.
+     */
+    public Optional<GameState> get(String gameCode) {
+        if (!enabled) {
+            return load(gameCode);
+        }
+
+        Entry entry;
+        long stamp;
+        synchronized (this) {
+            entry = entries.get(gameCode);
+            if (entry != null && System.currentTimeMillis() - entry.loadedAtMillis >= ttlMs) {
+                entries.remove(gameCode);
+                expiredEvictions.increment();
+                entry = null;
+            }
+            stamp = stampOf(gameCode);
+        }
+
+        if (entry != null) {
+            if (!revalidate || isCurrent(entry.state)) {
+                hits.increment();
+                return Optional.of(entry.state);
+            }
+            synchronized (this) {
+                if (entries.remove(gameCode, entry)) {
+                    staleEvictions.increment();
+                }
+            }
+        }
+
+        misses.increment();
+        Optional<GameState> loaded = load(gameCode);
+        loaded.ifPresent(state -> {
+            synchronized (this) {
+                // Si la partida se ha invalidado durante la carga, lo cargado puede ser anterior al cambio
+                if (stampOf(gameCode) == stamp) {
+                    store(state);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Sustituye la partida por el estado que deja un comando, al confirmarse la transacción en curso.
+     * La entidad se hidrata en el acto, mientras sus colecciones perezosas siguen cargables.
+     */
+    public void update(Game game) {
+        if (enabled) {
+            GameState state = GameState.fromEntity(game);
+            TransactionHooks.afterCommit(() -> {
+                synchronized (this) {
+                    bumpStamp(state.getGameCode());
+                    store(state);
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta la partida al terminar la transacción en curso (o en el acto si no hay ninguna).
+     */
+    public void invalidate(String gameCode) {
+        invalidateAll(List.of(gameCode));
+    }
+
+    public void invalidateAll(Collection<String> gameCodes) {
+        if (!enabled || gameCodes.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCompletion(() -> {
+            synchronized (this) {
+                for (String gameCode : gameCodes) {
+                    bumpStamp(gameCode);
+                    if (entries.remove(gameCode) != null) {
+                        invalidatedEvictions.increment();
+                    }
+                }
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Optional<GameState> load(String gameCode) {
+        return gameRepository.findByGameCode(gameCode).map(GameState::fromEntity);
+    }
+
+    /**
+     * La entrada sigue siendo válida si el estado y la última actividad de la fila no han cambiado:
+     * toda modificación de una partida actualiza al menos uno de los dos.
+     */
+    private boolean isCurrent(GameState state) {
+        List<GameActivityView> rows = gameRepository.findActivityByGameCodes(List.of(state.getGameCode()));
+        if (rows.isEmpty()) {
+            return false;
+        }
+        GameActivityView row = rows.getFirst();
+        synchronized (state) {
+            return row.getStatus() == state.getStatus() && row.getLastActivityAt() != null
+                && row.getLastActivityAt().toEpochMilli() == state.getLastActivityMillis();
+        }
+    }
+
+    private void store(GameState state) {
+        entries.put(state.getGameCode(), new Entry(state, System.currentTimeMillis()));
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private long stampOf(String gameCode) {
+        return invalidationStamps[stripeOf(gameCode)];
+    }
+
+    private void bumpStamp(String gameCode) {
+        invalidationStamps[stripeOf(gameCode)]++;
+    }
+
+    private static int stripeOf(String gameCode) {
+        return Math.floorMod(gameCode.hashCode(), STAMP_STRIPES);
+    }
+
+    private record Entry(GameState state, long loadedAtMillis) {
+    }
+}
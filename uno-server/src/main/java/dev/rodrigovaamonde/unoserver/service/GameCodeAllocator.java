@@ -0,0 +1,53 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Reparte códigos de partida únicos sin consultar la base de datos en cada intento.
+ * <p>
+ * Cada nodo reserva bloques de {@link #BLOCK_SIZE} números con una sola llamada a la secuencia
+ * {@code game_codes_seq} (que avanza de {@value #BLOCK_SIZE} en {@value #BLOCK_SIZE}) y los reparte
+ * desde memoria. Como los bloques de dos nodos nunca se solapan y {@link GameCodes} es una
+ * biyección, dos partidas nunca reciben el mismo código; no hay carrera entre comprobar e insertar.
+ */
+@Service
+public class GameCodeAllocator {
+
+    // Debe coincidir con el INCREMENT BY de game_codes_seq (V8 e import.sql)
+    static final int BLOCK_SIZE = 1000;
+    private static final String SEQUENCE_NAME = "game_codes_seq";
+
+    private final LongSupplier blockSource;
+    private long nextNumber;
+    private long blockEnd;
+
+    @Autowired
+    public GameCodeAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        String nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+        this.blockSource = () -> jdbcTemplate.queryForObject(nextValueSql, Long.class);
+    }
+
+    GameCodeAllocator(LongSupplier blockSource) {
+        this.blockSource = blockSource;
+    }
+
+    public synchronized String nextCode() {
+        if (nextNumber >= blockEnd) {
+            long blockStart = blockSource.getAsLong();
+            nextNumber = blockStart;
+            blockEnd = blockStart + BLOCK_SIZE;
+        }
+        long number = nextNumber++;
+        if (number >= GameCodes.CAPACITY) {
+            throw new IllegalStateException("Game code space exhausted.");
+        }
+        return GameCodes.encode(number);
+    }
+}
@@ -0,0 +1,40 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+/**
+ * Biyección entre números de partida y códigos de 6 caracteres alfanuméricos.
+ * <p>
+ * El número se mezcla con una permutación afín módulo 36^6 ({@code a·n + b}, con {@code a}
+ * coprimo con 36) para que números consecutivos no den códigos consecutivos, y se escribe en
+ * base 36. Números distintos dan siempre códigos distintos.
+ * <p>
+ * No hace falta volver del código al número: el número no es el id de la partida, y todo lo que
+ * se busca por código (motor, caché de lectura, índice de salas) ya está indexado por código, igual
+ * que el índice único de {@code games.game_code} para lo que va a la base de datos.
+ */
+public final class GameCodes {
+
+    public static final int LENGTH = 6;
+    public static final long CAPACITY = 2_176_782_336L; // 36^6
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    // Multiplicador impar y no divisible por 3: invertible módulo 36^6
+    private static final long MULTIPLIER = 1_580_030_173L;
+    private static final long OFFSET = 1_021_234_567L;
+
+    private GameCodes() {
+    }
+
+    public static String encode(long number) {
+        if (number < 0 || number >= CAPACITY) {
+            throw new IllegalArgumentException("Game code number out of range: " + number);
+        }
+        // Ambos factores son < 2^32: el producto cabe en un long
+        long permuted = (number * MULTIPLIER + OFFSET) % CAPACITY;
+        char[] code = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (permuted % ALPHABET.length()));
+            permuted /= ALPHABET.length();
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,149 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Buzón de comandos de un único escritor por partida.
+ * <p>
+ * Todos los comandos de un mismo {@code gameCode} se encolan en su buzón y se ejecutan en orden,
+ * de uno en uno, sobre un ejecutor compartido. Así dos mensajes STOMP de la misma partida nunca
+ * compiten entre sí, mientras que partidas distintas se procesan en paralelo en todos los núcleos.
+ * Los buzones vacíos se eliminan, de modo que sólo ocupan memoria las partidas con comandos pendientes.
+ */
+@Service
+public class GameCommandDispatcher {
+
+    // Comandos que un buzón ejecuta antes de ceder el hilo a otras partidas
+    private static final int MAX_COMMANDS_PER_RUN = 32;
+
+    private final Executor executor;
+    private final ConcurrentMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+    private final Timer waitTimer;
+    private final DistributionSummary depthSummary;
+
+    public GameCommandDispatcher(@Qualifier("gameCommandExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.waitTimer = Timer.builder("uno.mailbox.wait")
+            .description("Tiempo que un comando espera en el buzón de su partida antes de ejecutarse")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.depthSummary = DistributionSummary.builder("uno.mailbox.depth")
+            .description("Profundidad del buzón de la partida al encolar un comando")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("uno.mailbox.pending", pendingCommands, AtomicInteger::get)
+            .description("Comandos encolados en todos los buzones")
+            .register(meterRegistry);
+        Gauge.builder("uno.mailbox.active", mailboxes, ConcurrentMap::size)
+            .description("Partidas con comandos pendientes o en ejecución")
+            .register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> execute(String gameCode, Runnable command) {
+        return submit(gameCode, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Encola un comando en el buzón de la partida. El futuro se completa cuando el comando
+     * se ha ejecutado (o excepcionalmente con el error que haya lanzado).
+     */
+    public <T> CompletableFuture<T> submit(String gameCode, Supplier<T> command) {
+        PendingCommand<T> pending = new PendingCommand<>(command, System.nanoTime());
+        pendingCommands.incrementAndGet();
+        // compute() es atómico por clave: encolar y retirar un buzón vacío nunca se solapan
+        mailboxes.compute(gameCode, (code, mailbox) -> {
+            Mailbox target = mailbox != null ? mailbox : new Mailbox(code);
+            target.queue.add(pending);
+            depthSummary.record(target.queue.size());
+            if (!target.running) {
+                target.running = true;
+                executor.execute(target::drain);
+            }
+            return target;
+        });
+        return pending.result;
+    }
+
+    public int getPendingCommands() {
+        return pendingCommands.get();
+    }
+
+    private final class Mailbox {
+        private final String gameCode;
+        // Sólo se accede dentro de compute() o desde el único hilo que está drenando
+        private final Queue<PendingCommand<?>> queue = new ArrayDeque<>();
+        private boolean running;
+
+        private Mailbox(String gameCode) {
+            this.gameCode = gameCode;
+        }
+
+        private void drain() {
+            for (int executed = 0; executed < MAX_COMMANDS_PER_RUN; executed++) {
+                PendingCommand<?> next = poll();
+                if (next == null) {
+                    return;
+                }
+                pendingCommands.decrementAndGet();
+                waitTimer.record(System.nanoTime() - next.enqueuedAt, TimeUnit.NANOSECONDS);
+                next.run();
+            }
+            // Quedan comandos: se vuelve a planificar para no acaparar el hilo
+            executor.execute(this::drain);
+        }
+
+        /**
+         * Saca el siguiente comando o, si el buzón está vacío, lo da por terminado y lo elimina.
+         */
+        private PendingCommand<?> poll() {
+            PendingCommand<?>[] next = new PendingCommand<?>[1];
+            mailboxes.compute(gameCode, (code, mailbox) -> {
+                next[0] = queue.poll();
+                if (next[0] == null) {
+                    running = false;
+                    return null;
+                }
+                return this;
+            });
+            return next[0];
+        }
+    }
+
+    private static final class PendingCommand<T> {
+        private final Supplier<T> command;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private PendingCommand(Supplier<T> command, long enqueuedAt) {
+            this.command = command;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private void run() {
+            try {
+                result.complete(command.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Manejo de las cartas de una partida sobre las entidades JPA: crear la baraja, robar y rebarajar
+ * la pila de descarte. Sin dependencias de Spring, para que {@link GameService} y los benchmarks
+ * JMH (src/jmh) usen el mismo código. El equivalente del motor en memoria está en {@code GameEngine}.
+ */
+final class GameDeck {
+
+    private GameDeck() {
+    }
+
+    /**
+     * Las 108 cartas de una baraja de UNO, asignadas al mazo de robo de la partida, sin añadirlas
+     * todavía a él y sin barajar.
+     */
+    static List<Card> initializeDeck(Game game) {
+        List<Card> deck = new ArrayList<>();
+
+        // Cartas de colores (Rojo, Verde, Azul, Amarillo)
+        for (Color color : new Color[]{Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW}) {
+            // Una carta de '0' por color
+            Card zeroCard = new Card(color, CardValue.ZERO);
+            zeroCard.setDeckGame(game);
+            deck.add(zeroCard);
+
+            // Dos cartas del '1' al '9' por color
+            for (CardValue value : new CardValue[]{CardValue.ONE, CardValue.TWO, CardValue.THREE, CardValue.FOUR, CardValue.FIVE, CardValue.SIX, CardValue.SEVEN, CardValue.EIGHT, CardValue.NINE}) {
+                Card card1 = new Card(color, value);
+                card1.setDeckGame(game);
+                deck.add(card1);
+                
+                Card card2 = new Card(color, value);
+                card2.setDeckGame(game);
+                deck.add(card2);
+            }
+
+            // Dos cartas de acción por color
+            for (CardValue value : new CardValue[]{CardValue.SKIP, CardValue.REVERSE, CardValue.DRAW_TWO}) {
+                Card card1 = new Card(color, value);
+                card1.setDeckGame(game);
+                deck.add(card1);
+                
+                Card card2 = new Card(color, value);
+                card2.setDeckGame(game);
+                deck.add(card2);
+            }
+        }
+
+        // Cartas comodín (negras)
+        IntStream.range(0, 4).forEach(i -> {
+            Card wildCard = new Card(Color.BLACK, CardValue.WILD);
+            wildCard.setDeckGame(game);
+            deck.add(wildCard);
+            
+            Card wildDrawFourCard = new Card(Color.BLACK, CardValue.WILD_DRAW_FOUR);
+            wildDrawFourCard.setDeckGame(game);
+            deck.add(wildDrawFourCard);
+        });
+
+        return deck;
+    }
+
+    /**
+     * Pasa hasta {@code numberOfCards} cartas del mazo de robo a la mano del jugador, rebarajando la
+     * pila de descarte si el mazo se agota. Devuelve las cartas robadas, que pueden ser menos si
+     * no quedan más.
+     */
+    static List<Card> drawCardsForPlayer(Game game, Player player, int numberOfCards) {
+        List<Card> drawPile = game.getDrawPile();
+        List<Card> drawnCards = new ArrayList<>();
+
+        for (int i = 0; i < numberOfCards; i++) {
+            if (drawPile.isEmpty()) {
+                //si el mazo de robo está vacío, se baraja la pila de descarte y se convierte en el nuevo mazo de robo
+                reshuffleDiscardPile(game);
+                // Verificar si después de rebarajar tenemos cartas disponibles
+                if (drawPile.isEmpty()) {
+                    // No hay más cartas disponibles, terminar el bucle
+                    break;
+                }
+            }
+            Card card = drawPile.removeLast();
+            card.setDeckGame(null);
+            card.setPlayer(player);
+            player.getHand().add(card);
+            drawnCards.add(card);
+        }
+        return drawnCards;
+    }
+
+    /**
+     * Convierte la pila de descarte, salvo su carta superior, en el nuevo mazo de robo barajado.
+     */
+    static void reshuffleDiscardPile(Game game) {
+        Card topCard = game.getDiscardPile().removeLast(); // Retirar la última carta para no incluirla en el nuevo mazo
+        List<Card> newDrawPile = new ArrayList<>(game.getDiscardPile());
+
+        // Actualizar las relaciones de las cartas que van al mazo
+        for (Card card : newDrawPile) {
+            card.setDiscardPileGame(null);
+            card.setDeckGame(game);
+        }
+
+        Collections.shuffle(newDrawPile);
+        game.setDrawPile(newDrawPile);
+        game.getDiscardPile().clear();
+        game.getDiscardPile().add(topCard); // Volver a añadir la última carta como la nueva superior de la pila de descarte
+    }
+}
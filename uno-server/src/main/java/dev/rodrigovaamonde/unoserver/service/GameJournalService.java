@@ -0,0 +1,160 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.AcceptedCommand;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameSnapshotCodec;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.GameEvent;
+import dev.rodrigovaamonde.unoserver.model.GameSnapshot;
+import dev.rodrigovaamonde.unoserver.repository.GameEventRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameSnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diario append-only de las partidas: cada comando aceptado por el motor se añade a
+ * {@code game_events} con su número de secuencia y, cada {@code uno.journal.snapshot-interval}
+ * eventos, se guarda una instantánea completa en {@code game_snapshots}.
+ * <p>
+ * El estado de cualquier partida se reconstruye con la última instantánea más los eventos
+ * posteriores ({@link #rebuild}). Al empezar una partida se guarda la instantánea de la
+ * secuencia 0, de modo que también puede reproducirse desde el reparto inicial.
+ */
+@Service
+public class GameJournalService {
+
+    private final GameEventRepository gameEventRepository;
+    private final GameSnapshotRepository gameSnapshotRepository;
+    private final boolean enabled;
+    private final int snapshotInterval;
+    // Secuencia de la última instantánea guardada de cada partida viva (evita consultarla en cada volcado)
+    private final Map<Long, Long> lastSnapshotSequences = new ConcurrentHashMap<>();
+
+    public GameJournalService(GameEventRepository gameEventRepository,
+                              GameSnapshotRepository gameSnapshotRepository,
+                              @Value("${uno.journal.enabled:true}") boolean enabled,
+                              @Value("${uno.journal.snapshot-interval:50}") int snapshotInterval) {
+        this.gameEventRepository = gameEventRepository;
+        this.gameSnapshotRepository = gameSnapshotRepository;
+        this.enabled = enabled;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Guarda la instantánea inicial de una partida recién empezada. Debe ejecutarse dentro
+     * de la transacción que la empieza: si se deshace, la instantánea tampoco queda.
+     */
+    public void start(GameState state) {
+        if (!enabled) {
+            return;
+        }
+        gameSnapshotRepository.save(new GameSnapshot(state.getId(), state.getVersion(), GameSnapshotCodec.encode(state)));
+        TransactionHooks.afterCommit(() -> lastSnapshotSequences.put(state.getId(), state.getVersion()));
+    }
+
+    /**
+     * Añade al diario los comandos aceptados y, si toca, una instantánea del estado que los
+     * incluye a todos. Debe ejecutarse dentro de la transacción del volcado.
+     */
+    public void append(GameState state, List<AcceptedCommand> commands) {
+        if (!enabled || commands.isEmpty()) {
+            return;
+        }
+
+        List<GameEvent> events = new ArrayList<>(commands.size());
+        for (AcceptedCommand command : commands) {
+            GameEvent event = new GameEvent();
+            event.setGameId(state.getId());
+            event.setSequence(command.sequence());
+            event.setType(command.type());
+            event.setPlayerId(command.playerId());
+            event.setCardId(command.cardId());
+            event.setChosenColor(command.chosenColor());
+            event.setTargetPlayerId(command.targetPlayerId());
+            events.add(event);
+        }
+        gameEventRepository.saveAll(events);
+
+        long lastSnapshotSequence = lastSnapshotSequences.computeIfAbsent(state.getId(),
+            gameId -> gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc(gameId)
+                .map(GameSnapshot::getSequence)
+                .orElse(-1L));
+        if (lastSnapshotSequence < 0
+            || state.getVersion() - lastSnapshotSequence >= snapshotInterval
+            || state.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            saveSnapshot(state);
+        }
+    }
+
+    /**
+     * Olvida la información cacheada de una partida que ha salido del motor.
+     */
+    public void forget(Long gameId) {
+        lastSnapshotSequences.remove(gameId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<GameEvent> getEvents(Long gameId) {
+        return gameEventRepository.findByGameIdOrderBySequenceAsc(gameId);
+    }
+
+    /**
+     * Reconstruye el estado de una partida a partir de su última instantánea más los eventos
+     * posteriores, reproduciéndolos en un motor aislado que no afecta a las partidas vivas.
+     * Devuelve vacío si el diario está desactivado o la partida aún no tiene instantáneas.
+     * <p>
+     * La reproducción marca como actividad el momento en que se reproduce; la última actividad
+     * real es {@code lastActivityAt} (la de la fila de la partida), que se restaura al final para
+     * que la cancelación por inactividad no se aplace con cada rehidratación.
+     */
+    @Transactional(readOnly = true)
+    public Optional<GameState> rebuild(Long gameId, String gameCode, Instant lastActivityAt) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc(gameId).map(snapshot -> {
+            GameState state = GameSnapshotCodec.decode(gameId, gameCode, snapshot.getSnapshot());
+            GameEngine replayEngine = new GameEngine(true);
+            replayEngine.register(state);
+            for (GameEvent event : gameEventRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(
+                gameId, snapshot.getSequence())) {
+                replay(replayEngine, gameCode, event);
+            }
+            state.drainPendingCommands();
+            if (lastActivityAt != null) {
+                state.setLastActivityMillis(lastActivityAt.toEpochMilli());
+            }
+            lastSnapshotSequences.put(gameId, snapshot.getSequence());
+            return state;
+        });
+    }
+
+    static void replay(GameEngine engine, String gameCode, GameEvent event) {
+        switch (event.getType()) {
+            case PLAY_CARD -> engine.playCard(gameCode, event.getPlayerId(), event.getCardId(), event.getChosenColor());
+            case DRAW_CARD -> engine.drawCard(gameCode, event.getPlayerId());
+            case PASS_TURN -> engine.passTurn(gameCode, event.getPlayerId());
+            case DECLARE_UNO -> engine.declareUno(gameCode, event.getPlayerId());
+            case CHALLENGE_UNO -> engine.challengeUno(gameCode, event.getPlayerId(), event.getTargetPlayerId());
+            case TURN_TIMEOUT -> engine.timeOutTurn(gameCode, event.getPlayerId());
+        }
+    }
+
+    private void saveSnapshot(GameState state) {
+        gameSnapshotRepository.save(new GameSnapshot(state.getId(), state.getVersion(), GameSnapshotCodec.encode(state)));
+        lastSnapshotSequences.put(state.getId(), state.getVersion());
+    }
+}
@@ -0,0 +1,170 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Latencias por operación de partida, desglosadas por fase, y contadores de errores.
+ * <ul>
+ *   <li>{@code uno.game.operation{operation}}: tiempo total de la operación (sin la espera en el buzón,
+ *   que mide {@code uno.mailbox.wait}).</li>
+ *   <li>{@code uno.game.operation.phase{operation, phase}}: tiempo de cada fase: cargar la partida,
+ *   evaluar las reglas, guardar y difundir. Con el motor en memoria las jugadas no guardan nada
+ *   en línea; la escritura diferida se mide aparte en {@code uno.engine.flush}.</li>
+ *   <li>{@code uno.game.errors{operation, exception}}: operaciones fallidas por tipo de excepción.</li>
+ *   <li>{@code uno.games.live} y {@code uno.games.active{status}}: partidas en memoria y en la base de datos
+ *   (recontadas cada {@code uno.metrics.active-games-refresh-ms}).</li>
+ * </ul>
+ * Los temporizadores publican p50/p99/p999 y el histograma completo para agregarlos en Prometheus.
+ */
+@Component
+public class GameMetrics {
+
+    public enum Operation {
+        CREATE("create"),
+        JOIN("join"),
+        START("start"),
+        QUICK_MATCH("quick-match"),
+        PLAY_CARD("play-card"),
+        DRAW_CARD("draw-card"),
+        PASS_TURN("pass-turn"),
+        DECLARE_UNO("declare-uno"),
+        CHALLENGE_UNO("challenge-uno");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Phase {
+        LOAD("load"),
+        RULES("rules"),
+        SAVE("save"),
+        BROADCAST("broadcast");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Game.GameStatus[] ACTIVE_STATUSES =
+        {Game.GameStatus.WAITING_FOR_PLAYERS, Game.GameStatus.IN_PROGRESS};
+
+    private final MeterRegistry meterRegistry;
+    private final GameRepository gameRepository;
+    private final Map<Game.GameStatus, AtomicLong> activeGames = new EnumMap<>(Game.GameStatus.class);
+    private final Timer[] operationTimers = new Timer[Operation.values().length];
+    private final Timer[][] phaseTimers = new Timer[Operation.values().length][Phase.values().length];
+
+    public GameMetrics(MeterRegistry meterRegistry, GameEngine gameEngine, GameRepository gameRepository) {
+        this.meterRegistry = meterRegistry;
+        for (Operation operation : Operation.values()) {
+            operationTimers[operation.ordinal()] = Timer.builder("uno.game.operation")
+                .description("Tiempo total de una operación de partida")
+                .tag("operation", operation.tag)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+            for (Phase phase : Phase.values()) {
+                phaseTimers[operation.ordinal()][phase.ordinal()] = Timer.builder("uno.game.operation.phase")
+                    .description("Tiempo de una fase (load, rules, save, broadcast) de una operación de partida")
+                    .tag("operation", operation.tag)
+                    .tag("phase", phase.tag)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            }
+        }
+
+        Gauge.builder("uno.games.live", gameEngine, GameEngine::getLiveGameCount)
+            .description("Partidas en curso cargadas en el motor en memoria de este nodo")
+            .register(meterRegistry);
+        this.gameRepository = gameRepository;
+        for (Game.GameStatus status : ACTIVE_STATUSES) {
+            AtomicLong count = new AtomicLong();
+            activeGames.put(status, count);
+            Gauge.builder("uno.games.active", count, AtomicLong::get)
+                .description("Partidas en espera o en curso en la base de datos, según el último recuento")
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Recuenta las partidas activas de la base de datos. El gauge publica el último recuento en vez
+     * de lanzar un COUNT(*) por cada lectura de las métricas.
+     */
+    @Scheduled(fixedDelayString = "${uno.metrics.active-games-refresh-ms:30000}")
+    public void refreshActiveGames() {
+        for (Game.GameStatus status : ACTIVE_STATUSES) {
+            activeGames.get(status).set(gameRepository.countByStatus(status));
+        }
+    }
+
+    /**
+     * Ejecuta una operación completa midiendo su duración y contando el error si falla.
+     */
+    public <T> T record(Operation operation, Supplier<T> body) {
+        long startTime = System.nanoTime();
+        try {
+            return body.get();
+        } catch (RuntimeException e) {
+            Counter.builder("uno.game.errors")
+                .description("Operaciones de partida fallidas por tipo de excepción")
+                .tag("operation", operation.tag)
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+            throw e;
+        } finally {
+            operationTimers[operation.ordinal()].record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(Operation operation, Runnable body) {
+        record(operation, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Empieza a cronometrar las fases de una operación. Cada {@link Phases#lap} atribuye a una
+     * fase el tiempo transcurrido desde la vuelta anterior.
+     */
+    public Phases phases(Operation operation) {
+        return new Phases(phaseTimers[operation.ordinal()]);
+    }
+
+    public static final class Phases {
+        private final Timer[] timers;
+        private long lastLap = System.nanoTime();
+
+        private Phases(Timer[] timers) {
+            this.timers = timers;
+        }
+
+        public void lap(Phase phase) {
+            long now = System.nanoTime();
+            timers[phase.ordinal()].record(now - lastLap, TimeUnit.NANOSECONDS);
+            lastLap = now;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
+import dev.rodrigovaamonde.unoserver.repository.ClusterNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reparto de las partidas entre los nodos del clúster por hash consistente del {@code gameCode}.
+ * <p>
+ * Sólo el nodo dueño de una partida la mantiene en memoria y ejecuta sus comandos; el resto
+ * redirige al cliente al dueño. Cada nodo anuncia su latido en {@code cluster_nodes} y reconstruye
+ * el anillo con los nodos vivos, así que el reparto se reequilibra cuando un nodo entra o sale.
+ * Las partidas que dejan de pertenecer a este nodo se vuelcan y se expulsan del motor desde su
+ * buzón, detrás de los comandos ya encolados. Durante un intervalo de latido dos nodos pueden
+ * ver anillos distintos; el volcado previo garantiza que el nuevo dueño lee el estado persistido.
+ * <p>
+ * Con {@code uno.cluster.enabled=false} (por defecto) este nodo es dueño de todas las partidas.
+ */
+@Service
+@Slf4j
+public class GameOwnershipService {
+
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final GameEngine gameEngine;
+    private final GameCommandDispatcher commandDispatcher;
+    private final GameWriteBehindService writeBehindService;
+    private final boolean enabled;
+    private final String nodeId;
+    private final String nodeUrl;
+    private final Duration nodeTimeout;
+
+    // Anillo y miembros se publican juntos: todo nodo del anillo está siempre en members
+    private volatile Membership membership;
+
+    public GameOwnershipService(ClusterNodeRepository clusterNodeRepository, GameEngine gameEngine,
+                                GameCommandDispatcher commandDispatcher, GameWriteBehindService writeBehindService,
+                                @Value("${uno.cluster.enabled:false}") boolean enabled,
+                                @Value("${uno.cluster.node-id:${random.uuid}}") String nodeId,
+                                @Value("${uno.cluster.advertised-url:http://localhost:${server.port:8080}}") String nodeUrl,
+                                @Value("${uno.cluster.node-timeout-ms:15000}") long nodeTimeoutMs) {
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.gameEngine = gameEngine;
+        this.commandDispatcher = commandDispatcher;
+        this.writeBehindService = writeBehindService;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.nodeUrl = nodeUrl;
+        this.nodeTimeout = Duration.ofMillis(nodeTimeoutMs);
+        // Hasta el primer latido este nodo sólo se conoce a sí mismo
+        ClusterNode self = new ClusterNode(nodeId, nodeUrl, Instant.now());
+        this.membership = new Membership(new ConsistentHashRing(List.of(nodeId)), Map.of(nodeId, self));
+    }
+
+    private record Membership(ConsistentHashRing ring, Map<String, ClusterNode> members) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isLocal(String gameCode) {
+        return !enabled || nodeId.equals(membership.ring().ownerOf(gameCode));
+    }
+
+    /**
+     * Nodo dueño de la partida según el anillo actual, o null si el anillo está vacío.
+     */
+    public ClusterNode ownerOf(String gameCode) {
+        Membership current = membership;
+        String owner = current.ring().ownerOf(gameCode);
+        return owner != null ? current.members().get(owner) : null;
+    }
+
+    /**
+     * Renueva el latido de este nodo, recalcula el anillo con los nodos vivos y cede las
+     * partidas en memoria que ya no le pertenecen.
+     */
+    @Scheduled(fixedDelayString = "${uno.cluster.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        clusterNodeRepository.save(new ClusterNode(nodeId, nodeUrl, now));
+
+        Map<String, ClusterNode> alive = clusterNodeRepository.findByLastHeartbeatAfter(now.minus(nodeTimeout)).stream()
+            .collect(Collectors.toMap(ClusterNode::getNodeId, Function.identity()));
+        Membership previous = membership;
+        ConsistentHashRing ring = previous.ring();
+        if (!alive.keySet().equals(previous.members().keySet())) {
+            log.info("Cluster membership changed: {} -> {}", previous.members().keySet(), alive.keySet());
+            ring = new ConsistentHashRing(alive.keySet());
+        }
+        membership = new Membership(ring, alive);
+
+        handOffForeignGames();
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (enabled) {
+            writeBehindService.flushDirtyGames();
+            // El resto de nodos reparte nuestras partidas en su siguiente latido, sin esperar al timeout
+            clusterNodeRepository.deleteById(nodeId);
+        }
+    }
+
+    private void handOffForeignGames() {
+        for (String gameCode : gameEngine.getLiveGameCodes()) {
+            if (!isLocal(gameCode)) {
+                log.info("Handing off game {} to node {}", gameCode,
+                    Optional.ofNullable(ownerOf(gameCode)).map(ClusterNode::getNodeId).orElse("?"));
+                commandDispatcher.execute(gameCode, () -> writeBehindService.handOff(gameCode));
+            }
+        }
+    }
+}
@@ -2,76 +2,124 @@ package dev.rodrigovaamonde.unoserver.service;
 
 import dev.rodrigovaamonde.unoserver.dto.ChallengeUnoRequestDTO;
 import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.HandCardDTO;
+import dev.rodrigovaamonde.unoserver.dto.LobbyDTO;
+import dev.rodrigovaamonde.unoserver.dto.LobbyPageDTO;
 import dev.rodrigovaamonde.unoserver.dto.PlayCardRequestDTO;
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameRules;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.Hand;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
 import dev.rodrigovaamonde.unoserver.model.*;
 import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Operation;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Phase;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class GameService {
+    private static final int MAX_LOBBY_PAGE_SIZE = 100;
+
     private final GameRepository gameRepository;
     private final SimpMessagingTemplate messagingTemplate;
-    private static final SecureRandom random = new SecureRandom();
-    private static final String ALPHANUMERIC_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-
-    public GameService(GameRepository gameRepository, SimpMessagingTemplate messagingTemplate) {
+    private final GameEngine gameEngine;
+    private final GameSnapshotService gameSnapshotService;
+    private final GameJournalService gameJournalService;
+    private final GameBroadcastService gameBroadcastService;
+    private final GameCodeAllocator gameCodeAllocator;
+    private final GameMetrics gameMetrics;
+    private final IdleGameReaper idleGameReaper;
+    private final TurnTimerService turnTimerService;
+    private final GameCache gameCache;
+    private final LobbyIndex lobbyIndex;
+    private final GameCommandDispatcher commandDispatcher;
+
+    public GameService(GameRepository gameRepository, SimpMessagingTemplate messagingTemplate, GameEngine gameEngine,
+                       GameSnapshotService gameSnapshotService, GameJournalService gameJournalService,
+                       GameBroadcastService gameBroadcastService, GameCodeAllocator gameCodeAllocator,
+                       GameMetrics gameMetrics, IdleGameReaper idleGameReaper, TurnTimerService turnTimerService,
+                       GameCache gameCache, LobbyIndex lobbyIndex, GameCommandDispatcher commandDispatcher) {
         this.gameRepository = gameRepository;
         this.messagingTemplate = messagingTemplate;
+        this.gameEngine = gameEngine;
+        this.gameSnapshotService = gameSnapshotService;
+        this.gameJournalService = gameJournalService;
+        this.gameBroadcastService = gameBroadcastService;
+        this.gameCodeAllocator = gameCodeAllocator;
+        this.gameMetrics = gameMetrics;
+        this.idleGameReaper = idleGameReaper;
+        this.turnTimerService = turnTimerService;
+        this.gameCache = gameCache;
+        this.lobbyIndex = lobbyIndex;
+        this.commandDispatcher = commandDispatcher;
     }
 
     @Transactional
     public Game createGame() {
-        String gameCode = generateUniqueGameCode();
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.CREATE);
+        // El mazo no se crea hasta que la partida empieza: una sala en espera es sólo su fila de games
+        String gameCode = gameCodeAllocator.nextCode();
         Game game = new Game(gameCode);
-
-        List<Card> deck = initializeDeck(game);
-        Collections.shuffle(deck);
-
-        game.setDrawPile(deck);
-        return gameRepository.save(game);
+        phases.lap(Phase.RULES);
+        Game savedGame = gameRepository.save(game);
+        idleGameReaper.track(gameCode, Game.GameStatus.WAITING_FOR_PLAYERS);
+        lobbyIndex.put(savedGame);
+        phases.lap(Phase.SAVE);
+        return savedGame;
     }
 
     @Transactional
     public Game createGameWithPlayer(String playerName) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.CREATE);
         // Validar que el nombre del jugador no esté vacío
         if (playerName == null || playerName.trim().isEmpty()) {
             throw new IllegalArgumentException("Player name cannot be empty");
         }
 
-        String gameCode = generateUniqueGameCode();
+        // El mazo no se crea hasta que la partida empieza (ver materializeDeck)
+        String gameCode = gameCodeAllocator.nextCode();
         Game game = new Game(gameCode);
 
-        List<Card> deck = initializeDeck(game);
-        Collections.shuffle(deck);
-
-        game.setDrawPile(deck);
-
         // Crear y añadir el jugador creador automáticamente
         Player creator = new Player(playerName.trim());
         game.addPlayer(creator);
 
         // Establecer al creador de la partida
         game.setCreatedBy(creator);
+        phases.lap(Phase.RULES);
 
-        return gameRepository.save(game);
+        Game savedGame = gameRepository.save(game);
+        idleGameReaper.track(gameCode, Game.GameStatus.WAITING_FOR_PLAYERS);
+        lobbyIndex.put(savedGame);
+        phases.lap(Phase.SAVE);
+        return savedGame;
     }
 
     @Transactional
     public Game joinGame(Long gameId, String playerName) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.JOIN);
         Game game = gameRepository.findById(gameId)
             .orElseThrow(() -> new RuntimeException("Game not found with id: " + gameId));
+        phases.lap(Phase.LOAD);
 
         if (game.getStatus() != Game.GameStatus.WAITING_FOR_PLAYERS) {
             throw new IllegalStateException("Cannot join a game that is already in progress or finished.");
         }
+        if (game.isFull()) {
+            throw new IllegalStateException("The game is full.");
+        }
 
         boolean playerExists = game.getPlayers().stream().anyMatch(p -> p.getName().equalsIgnoreCase(playerName));
         if (playerExists) {
@@ -81,21 +129,31 @@ public class GameService {
         Player newPlayer = new Player(playerName);
 
         game.addPlayer(newPlayer);
+        phases.lap(Phase.RULES);
 
         Game updatedGame = gameRepository.save(game);
+        gameCache.invalidate(updatedGame.getGameCode());
+        lobbyIndex.put(updatedGame);
+        phases.lap(Phase.SAVE);
         notifyGameUpdate(updatedGame);
+        phases.lap(Phase.BROADCAST);
 
         return updatedGame;
     }
 
     @Transactional
     public Game joinGameByCode(String gameCode, String playerName) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.JOIN);
         Game game = gameRepository.findByGameCode(gameCode)
             .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
+        phases.lap(Phase.LOAD);
 
         if (game.getStatus() != Game.GameStatus.WAITING_FOR_PLAYERS) {
             throw new IllegalStateException("Cannot join a game that is already in progress or finished.");
         }
+        if (game.isFull()) {
+            throw new IllegalStateException("The game is full.");
+        }
 
         boolean playerExists = game.getPlayers().stream().anyMatch(p -> p.getName().equalsIgnoreCase(playerName));
         if (playerExists) {
@@ -105,77 +163,73 @@ public class GameService {
         Player newPlayer = new Player(playerName);
 
         game.addPlayer(newPlayer);
+        phases.lap(Phase.RULES);
 
         Game updatedGame = gameRepository.save(game);
+        gameCache.invalidate(updatedGame.getGameCode());
+        lobbyIndex.put(updatedGame);
+        phases.lap(Phase.SAVE);
         notifyGameUpdate(updatedGame);
+        phases.lap(Phase.BROADCAST);
 
         return updatedGame;
     }
 
+    /**
+     * Crea, llena y empieza en una sola transacción una partida con los jugadores que ha emparejado
+     * el matchmaking ({@link MatchmakingService}); si algo falla no queda ninguna sala a medias.
+     * La partida nunca pasa por sala en espera: no entra en el índice de salas y sólo se difunde,
+     * ya empezada, al confirmarse la transacción. El estado se resume dentro de la transacción,
+     * con las colecciones de la partida aún cargables.
+     */
     @Transactional
-    public Game startGame(Long gameId) {
-        Game game = gameRepository.findById(gameId)
-            .orElseThrow(() -> new RuntimeException("Game not found with id: " + gameId));
-
-        //1. Validaciones
-        if (game.getStatus() != Game.GameStatus.WAITING_FOR_PLAYERS) {
-            throw new IllegalStateException("Game has already started or is finished.");
-        }
-
-        if (game.getPlayers().size() < 2) {
-            throw new IllegalStateException("Cannot start the game with fewer than 2 players.");
-        }
-
-        //2. Cambiar estado de la partida
-        game.setStatus(Game.GameStatus.IN_PROGRESS);
-
-        //3. Repartir 7 cartas a cada jugador
-        List<Card> drawPile = game.getDrawPile();
-        for (Player player : game.getPlayers()) {
-            for (int i = 0; i < 7; i++) {
-                if (drawPile.isEmpty()) {
-                    throw new IllegalStateException("The deck ran out of cards during initial deal.");
-                }
-                Card card = drawPile.removeLast();
-                card.setDeckGame(null);
-                card.setPlayer(player);
-                player.getHand().add(card);
+    public GameResponseDTO createQuickMatch(List<String> playerNames) {
+        if (playerNames.size() < 2 || playerNames.size() > Game.MAX_PLAYERS) {
+            throw new IllegalArgumentException("A quick match needs between 2 and " + Game.MAX_PLAYERS + " players.");
+        }
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.QUICK_MATCH);
+        Game game = new Game(gameCodeAllocator.nextCode());
+        Set<String> names = new HashSet<>();
+        for (String playerName : playerNames) {
+            if (playerName == null || playerName.trim().isEmpty()) {
+                throw new IllegalArgumentException("Player name cannot be empty");
             }
-        }
-
-        //4. Poner la primera carta en la pila de decarte
-        Card firstCard;
-        do {
-            firstCard = drawPile.removeLast();
-            //Regla oficial: Si la primera carta es un Comodín +4, se devuelve al mazo y se baraja
-            if (firstCard.getValue() == CardValue.WILD_DRAW_FOUR) {
-                drawPile.add(firstCard);
-                Collections.shuffle(drawPile);
+            if (!names.add(playerName.trim().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("A player with the name '" + playerName + "' is already in this game.");
             }
-        } while (firstCard.getValue() == CardValue.WILD_DRAW_FOUR);
-
-        firstCard.setDeckGame(null);
-        firstCard.setDiscardPileGame(game);
-        game.getDiscardPile().add(firstCard);
-        game.setCurrentColor(firstCard.getColor());
-
-        //TODO: Aplicaar el efecto de la primera carta si es de acción (Saltar, Reversa, +2)
-
-        //5. Establecer el primer jugador
-        game.setCurrentPlayer(game.getPlayers().getFirst());
+            game.addPlayer(new Player(playerName.trim()));
+        }
+        game.setCreatedBy(game.getPlayers().getFirst());
+        return GameResponseDTO.fromEntity(start(game, phases));
+    }
 
-        Game startedGame = gameRepository.save(game);
-        notifyGameUpdate(startedGame);
+    @Transactional
+    public Game startGame(Long gameId) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.START);
+        Game game = gameRepository.findById(gameId)
+            .orElseThrow(() -> new RuntimeException("Game not found with id: " + gameId));
+        phases.lap(Phase.LOAD);
 
-        return startedGame;
+        checkStartable(game);
+        return start(game, phases);
     }
 
     @Transactional
     public Game startGameByCode(String gameCode, Long playerId) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.START);
         Game game = gameRepository.findByGameCode(gameCode)
             .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
+        phases.lap(Phase.LOAD);
+
+        checkStartable(game);
+        // Validar que solo el creador puede iniciar la partida
+        if (game.getCreatedBy() == null || !game.getCreatedBy().getId().equals(playerId)) {
+            throw new IllegalStateException("Only the game creator can start the game.");
+        }
+        return start(game, phases);
+    }
 
-        //1. Validaciones
+    private static void checkStartable(Game game) {
         if (game.getStatus() != Game.GameStatus.WAITING_FOR_PLAYERS) {
             throw new IllegalStateException("Game has already started or is finished.");
         }
@@ -183,16 +237,19 @@ public class GameService {
         if (game.getPlayers().size() < 2) {
             throw new IllegalStateException("Cannot start the game with fewer than 2 players.");
         }
+    }
 
-        // Validar que solo el creador puede iniciar la partida
-        if (game.getCreatedBy() == null || !game.getCreatedBy().getId().equals(playerId)) {
-            throw new IllegalStateException("Only the game creator can start the game.");
-        }
-
-        //2. Cambiar estado de la partida
+    /**
+     * Reparte, guarda la partida empezada y, al confirmarse la transacción, la pone en juego: con el
+     * motor activo la registra en memoria con su plazo de turno, y la difunde. Si la transacción se
+     * deshace, la partida no llega a estar viva en ningún sitio.
+     */
+    private Game start(Game game, GameMetrics.Phases phases) {
+        //1. Cambiar estado de la partida
         game.setStatus(Game.GameStatus.IN_PROGRESS);
 
-        //3. Repartir 7 cartas a cada jugador
+        //2. Crear el mazo y repartir 7 cartas a cada jugador
+        materializeDeck(game);
         List<Card> drawPile = game.getDrawPile();
         for (Player player : game.getPlayers()) {
             for (int i = 0; i < 7; i++) {
@@ -206,7 +263,7 @@ public class GameService {
             }
         }
 
-        //4. Poner la primera carta en la pila de decarte
+        //3. Poner la primera carta en la pila de decarte
         Card firstCard;
         do {
             firstCard = drawPile.removeLast();
@@ -224,20 +281,56 @@ public class GameService {
 
         //TODO: Aplicaar el efecto de la primera carta si es de acción (Saltar, Reversa, +2)
 
-        //5. Establecer el primer jugador
-        game.setCurrentPlayer(game.getPlayers().getFirst());
+        //4. Establecer el primer jugador
+        game.setCurrentSeat(0);
+        phases.lap(Phase.RULES);
 
         Game startedGame = gameRepository.save(game);
-        notifyGameUpdate(startedGame);
+        gameCache.invalidate(startedGame.getGameCode());
+        lobbyIndex.remove(startedGame.getGameCode());
+        idleGameReaper.track(startedGame.getGameCode(), Game.GameStatus.IN_PROGRESS);
+        if (gameEngine.isEnabled()) {
+            // El estado se resume aquí, con las colecciones de la partida aún cargables; la
+            // instantánea inicial del diario se guarda en esta misma transacción
+            GameState state = GameState.fromEntity(startedGame);
+            gameJournalService.start(state);
+            phases.lap(Phase.SAVE);
+            // A partir de aquí la partida se juega en memoria. El primer estado se difunde desde el
+            // buzón de la partida, para que ningún comando se ejecute ni se difunda antes que él
+            TransactionHooks.afterCommit(() -> commandDispatcher.execute(state.getGameCode(), () -> {
+                GameState liveGame = gameEngine.register(state);
+                turnTimerService.track(liveGame.getGameCode());
+                notifyGameUpdate(liveGame);
+                phases.lap(Phase.BROADCAST);
+            }));
+        } else {
+            GameResponseDTO gameResponse = GameResponseDTO.fromEntity(startedGame);
+            phases.lap(Phase.SAVE);
+            TransactionHooks.afterCommit(() -> commandDispatcher.execute(startedGame.getGameCode(), () -> {
+                messagingTemplate.convertAndSend("/topic/" + startedGame.getGameCode(), gameResponse);
+                phases.lap(Phase.BROADCAST);
+            }));
+        }
 
         return startedGame;
     }
 
     @Transactional
     public void playCard(String gameCode, PlayCardRequestDTO request) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.PLAY_CARD);
+        if (findLiveGame(gameCode).isPresent()) {
+            phases.lap(Phase.LOAD);
+            GameState state = gameEngine.playCard(gameCode, request.playerId(), request.cardId(), request.chosenColor());
+            phases.lap(Phase.RULES);
+            notifyGameUpdate(state);
+            phases.lap(Phase.BROADCAST);
+            return;
+        }
+
         //1. Buscar la partida por el código
         Game game = gameRepository.findByGameCode(gameCode)
             .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
+        phases.lap(Phase.LOAD);
 
         //2. Validar el estado de la partida
         if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
@@ -245,9 +338,7 @@ public class GameService {
         }
 
         //3. Encontrar al jugador y la carta en su mano
-        Player player = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(request.playerId()))
-            .findFirst()
+        Player player = game.findPlayer(request.playerId())
             .orElseThrow(() -> new RuntimeException("Player not found with id " + request.playerId() + " in game " + gameCode));
 
         Card cardToPlay = player.getHand().stream()
@@ -256,7 +347,7 @@ public class GameService {
             .orElseThrow(() -> new RuntimeException("Card not found with id " + request.cardId() + " in player's hand"));
 
         //4. Validar la jugada
-        if (!player.getId().equals(game.getCurrentPlayer().getId())) {
+        if (game.seatOf(player.getId()) != game.getCurrentSeat()) {
             throw new IllegalStateException("It's not your turn.");
         }
 
@@ -270,6 +361,7 @@ public class GameService {
         cardToPlay.setPlayer(null);
         cardToPlay.setDiscardPileGame(game);
         game.getDiscardPile().add(cardToPlay);
+        game.recordMove();
 
         //Si el jugador ya no tiene una carta, su estado de "UNO" se resetea
         if (player.getHand().size() != 1) {
@@ -279,37 +371,55 @@ public class GameService {
         //Comprobar si el jugador ha ganado
         if (player.getHand().isEmpty()) {
             game.setStatus(Game.GameStatus.FINISHED);
-            game.setCurrentPlayer(null); // No hay jugador actual, el juego ha terminado
+            game.setCurrentSeat(-1); // No hay jugador actual, el juego ha terminado
+            phases.lap(Phase.RULES);
             Game finishedGame = gameRepository.save(game);
+            gameCache.update(finishedGame);
+            phases.lap(Phase.SAVE);
             notifyGameUpdate(finishedGame);
+            phases.lap(Phase.BROADCAST);
             return;
         }
 
         //6. Aplicar efecto de la carta y determinar el siguiente jugador
-        Player nextPlayer = applyCardEffect(game, player, cardToPlay, request.chosenColor());
-        game.setCurrentPlayer(nextPlayer);
+        game.setCurrentSeat(applyCardEffect(game, cardToPlay, request.chosenColor()));
+        phases.lap(Phase.RULES);
 
         //7. Guardar y notificar el cambio
         Game updatedGame = gameRepository.save(game);
+        gameCache.update(updatedGame);
+        phases.lap(Phase.SAVE);
         notifyGameUpdate(updatedGame);
+        phases.lap(Phase.BROADCAST);
     }
 
     @Transactional
     public Card drawCard(String gameCode, Long playerId) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.DRAW_CARD);
+        Optional<GameState> liveGame = findLiveGame(gameCode);
+        if (liveGame.isPresent()) {
+            phases.lap(Phase.LOAD);
+            GameState state = liveGame.get();
+            byte drawnCard = gameEngine.drawCard(gameCode, playerId);
+            phases.lap(Phase.RULES);
+            notifyGameUpdate(state);
+            phases.lap(Phase.BROADCAST);
+            return toCard(state, drawnCard);
+        }
+
         //1. Encontrar la partida y el jugador
         Game game = gameRepository.findByGameCode(gameCode)
             .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
+        phases.lap(Phase.LOAD);
 
-        Player player = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(playerId))
-            .findFirst()
+        Player player = game.findPlayer(playerId)
             .orElseThrow(() -> new RuntimeException("Player not found with id " + playerId + " in game " + gameCode));
 
         //2. Validaciones
         if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
             throw new IllegalStateException("Game is not in progress.");
         }
-        if (!player.getId().equals(game.getCurrentPlayer().getId())) {
+        if (game.seatOf(player.getId()) != game.getCurrentSeat()) {
             throw new IllegalStateException("It's not your turn.");
         }
 
@@ -323,52 +433,86 @@ public class GameService {
         }
 
         //4. Robar una carta del mazo
-        List<Card> drawnCards = drawCardsForPlayer(game, player, 1);
+        List<Card> drawnCards = GameDeck.drawCardsForPlayer(game, player, 1);
         if (drawnCards.isEmpty()) {
             throw new IllegalStateException("No cards left to draw.");
         }
         Card drawnCard = drawnCards.getFirst();
+        game.recordMove();
+        phases.lap(Phase.RULES);
 
         //Guardamos el estado del juego con la nueva mano del jugador
         gameRepository.save(game);
+        // isCardPlayable lee la carta robada de la caché en lugar de volver a cargar la partida
+        gameCache.update(game);
+        phases.lap(Phase.SAVE);
 
         return drawnCard;
     }
 
     @Transactional
     public void passTurn(String gameCode, Long playerId) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.PASS_TURN);
+        if (findLiveGame(gameCode).isPresent()) {
+            phases.lap(Phase.LOAD);
+            GameState state = gameEngine.passTurn(gameCode, playerId);
+            phases.lap(Phase.RULES);
+            notifyGameUpdate(state);
+            phases.lap(Phase.BROADCAST);
+            return;
+        }
+
         Game game = gameRepository.findByGameCode(gameCode)
             .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
-        Player player = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(playerId))
-            .findFirst()
+        phases.lap(Phase.LOAD);
+        Player player = game.findPlayer(playerId)
             .orElseThrow(() -> new RuntimeException("Player not found with id " + playerId + " in game " + gameCode));
 
-        if (!player.getId().equals(game.getCurrentPlayer().getId())) {
+        if (game.seatOf(player.getId()) != game.getCurrentSeat()) {
             throw new IllegalStateException("It's not your turn.");
         }
 
         // Simplemente pasamos el turno al siguiente jugador
-        game.setCurrentPlayer(determineNextPlayer(game, player, 1));
+        game.setCurrentSeat(nextSeat(game, 1));
+        game.recordMove();
+        phases.lap(Phase.RULES);
         // Guardamos el estado del juego
         Game updatedGame = gameRepository.save(game);
+        gameCache.update(updatedGame);
+        phases.lap(Phase.SAVE);
         notifyGameUpdate(updatedGame);
+        phases.lap(Phase.BROADCAST);
     }
 
     @Transactional
     public void declareUno(String gameCode, Long playerId) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.DECLARE_UNO);
+        if (findLiveGame(gameCode).isPresent()) {
+            phases.lap(Phase.LOAD);
+            GameState state = gameEngine.declareUno(gameCode, playerId);
+            phases.lap(Phase.RULES);
+            // No cambia nada visible, pero avanza la secuencia: el delta (vacío) la mantiene
+            // contigua para que la siguiente publicación no tenga que enviar el estado completo
+            notifyGameUpdate(state);
+            phases.lap(Phase.BROADCAST);
+            return;
+        }
+
         Game game = getGame(gameCode);
-        Player player = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(playerId))
-            .findFirst()
+        phases.lap(Phase.LOAD);
+        Player player = game.findPlayer(playerId)
             .orElseThrow(() -> new RuntimeException("Player not found with id " + playerId + " in game " + gameCode));
 
         if (player.getHand().size() == 1) {
             player.setHasDeclaredUno(true);
+            game.recordMove();
+            phases.lap(Phase.RULES);
             //Guardamos el estado del jugador. No es necesario notificar a todos,
             // es un estado "silencioso" que se valida en la siguiente jugada o en un desafío.
             // Optionalmente, podíamos enviar una notificación específica para un feedback visual.
             gameRepository.save(game);
+            gameCache.update(game);
+            phases.lap(Phase.SAVE);
         } else {
             //Optional: Podríamos penalizar al jugador por intentar declarar UNO sin tener una sola carta.
             throw new IllegalStateException("You can only declare UNO when you have one card left.");
@@ -377,44 +521,196 @@ public class GameService {
 
     @Transactional
     public void challengeUno(String gameCode, ChallengeUnoRequestDTO request) {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.CHALLENGE_UNO);
+        if (findLiveGame(gameCode).isPresent()) {
+            phases.lap(Phase.LOAD);
+            GameState state = gameEngine.challengeUno(gameCode, request.challengerId(), request.challengedId());
+            phases.lap(Phase.RULES);
+            notifyGameUpdate(state);
+            phases.lap(Phase.BROADCAST);
+            return;
+        }
+
         Game game = getGame(gameCode);
+        phases.lap(Phase.LOAD);
         if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
             throw new IllegalStateException("Game is not in progress.");
         }
 
-        Player challenger = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(request.challengerId()))
-            .findFirst()
+        Player challenger = game.findPlayer(request.challengerId())
             .orElseThrow(() -> new RuntimeException("Challenger not found with id " + request.challengerId() + " in game " + gameCode));
 
-        Player challenged = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(request.challengedId()))
-            .findFirst()
+        Player challenged = game.findPlayer(request.challengedId())
             .orElseThrow(() -> new RuntimeException("Challenged player not found with id " + request.challengedId() + " in game " + gameCode));
 
         boolean challengeSuccessful = challenged.getHand().size() == 1 && !challenged.isHasDeclaredUno();
 
         if (challengeSuccessful) {
-            drawCardsForPlayer(game, challenged, 2); // El jugador desafiado roba 2 cartas
+            GameDeck.drawCardsForPlayer(game, challenged, 2); // El jugador desafiado roba 2 cartas
         } else {
-            drawCardsForPlayer(game, challenger, 2); // El desafiante roba 2 cartas
+            GameDeck.drawCardsForPlayer(game, challenger, 2); // El desafiante roba 2 cartas
         }
+        game.recordMove();
+        gameCache.update(game);
+        phases.lap(Phase.RULES);
 
         notifyGameUpdate(game);
+        phases.lap(Phase.BROADCAST);
     }
 
+    /**
+     * Carga la entidad de la partida, sin pasar por la caché de lectura, para los comandos que la modifican.
+     */
     public Game getGame(String gameCode) {
         return gameRepository.findByGameCode(gameCode)
             .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
     }
 
+    /**
+     * Indica si una carta puede jugarse ahora mismo en la partida, usando el estado en memoria
+     * si la partida está viva en el motor (la base de datos puede ir por detrás).
+     */
+    @Transactional(readOnly = true)
+    public boolean isCardPlayable(String gameCode, Card card) {
+        GameState state = requireGame(gameCode);
+        synchronized (state) {
+            return GameRules.isCardPlayable(card.getColor(), card.getValue(),
+                CardCodes.value(state.getTopDiscardCard()), state.getCurrentColor());
+        }
+    }
+
+    /**
+     * Estado completo de la partida para un cliente que se acaba de suscribir o que ha detectado
+     * un hueco en la secuencia de deltas.
+     */
+    @Transactional(readOnly = true)
+    public GameResponseDTO getGameState(String gameCode) {
+        GameState state = requireGame(gameCode);
+        if (gameEngine.isEnabled() && gameEngine.find(gameCode).isPresent()) {
+            return gameBroadcastService.fullState(state);
+        }
+        synchronized (state) {
+            return GameResponseDTO.fromState(state);
+        }
+    }
+
+    /**
+     * Mano actual de un jugador, usando el estado en memoria si la partida está viva en el motor.
+     * Cada carta indica si es una jugada legal ahora mismo; la pista sale del índice de bits de la
+     * mano en lugar de evaluar las reglas carta a carta.
+     */
+    @Transactional(readOnly = true)
+    public List<HandCardDTO> getHand(String gameCode, Long playerId) {
+        GameState state = requireGame(gameCode);
+        synchronized (state) {
+            PlayerState player = state.getPlayers().stream()
+                .filter(p -> p.getId().equals(playerId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Player not found with id " + playerId + " in game " + gameCode));
+            boolean isTurn = state.getStatus() == Game.GameStatus.IN_PROGRESS && player == state.getCurrentPlayer();
+            Hand hand = player.getHand();
+            List<HandCardDTO> cards = new ArrayList<>(hand.size());
+            for (int i = 0; i < hand.size(); i++) {
+                byte cardCode = hand.get(i);
+                boolean playable = isTurn && hand.isPlayable(cardCode, state.getTopDiscardCard(), state.getCurrentColor());
+                cards.add(HandCardDTO.fromEntity(toCard(state, cardCode), playable));
+            }
+            return cards;
+        }
+    }
+
+    /**
+     * Página del listado de salas en espera con al menos {@code minOpenSeats} asientos libres, a
+     * partir del cursor {@code afterId}. Sale del índice en memoria, sin consultar la base de datos.
+     */
+    public LobbyPageDTO listLobbies(long afterId, int minOpenSeats, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_LOBBY_PAGE_SIZE);
+        List<LobbyIndex.Lobby> lobbies = lobbyIndex.page(afterId, minOpenSeats, pageSize);
+        Long nextAfterId = lobbies.size() == pageSize ? lobbies.getLast().id() : null;
+        return new LobbyPageDTO(lobbies.stream().map(LobbyDTO::fromLobby).toList(), nextAfterId);
+    }
+
+    /**
+     * Diario de comandos aceptados de la partida, en orden de secuencia.
+     */
+    @Transactional(readOnly = true)
+    public List<GameEvent> getGameEvents(String gameCode) {
+        return gameJournalService.getEvents(requireGame(gameCode).getId());
+    }
+
     public boolean isCardPlayable(Card cardToPlay, Card topDiscardCard, Color currentColor) {
-        //1. Un comodín (negro) puede jugarse en cualquier momento
-        if (cardToPlay.getColor() == Color.BLACK) return true;
+        return GameRules.isCardPlayable(cardToPlay.getColor(), cardToPlay.getValue(), topDiscardCard.getValue(), currentColor);
+    }
 
-        //2. La caarta coincide con el color activo
-        //3. O la carta coincide en valor con la caarta suerior de la pila de descarte
-        return cardToPlay.getColor() == currentColor || cardToPlay.getValue() == topDiscardCard.getValue();
+    /**
+     * Devuelve la partida viva del motor en memoria. Si el motor está activo pero la partida
+     * todavía no está cargada (p. ej. tras un reinicio), se hidrata desde la base de datos.
+     */
+    private Optional<GameState> findLiveGame(String gameCode) {
+        if (!gameEngine.isEnabled()) {
+            return Optional.empty();
+        }
+        return findGame(gameCode).filter(state -> gameEngine.find(gameCode).isPresent());
+    }
+
+    /**
+     * Devuelve la partida para leerla: la viva del motor si lo está y, si no, la de la caché de
+     * lectura. Con el motor activo, una partida en curso que no estaba cargada sale de la caché y se
+     * carga en el motor.
+     */
+    private Optional<GameState> findGame(String gameCode) {
+        if (gameEngine.isEnabled()) {
+            Optional<GameState> liveGame = gameEngine.find(gameCode);
+            if (liveGame.isPresent()) {
+                return liveGame;
+            }
+            // La instantánea (si existe) evita cargar el agregado completo con sus cartas
+            Optional<GameState> snapshot = gameSnapshotService.load(gameCode);
+            if (snapshot.isPresent()) {
+                return snapshot.map(this::registerLiveGame);
+            }
+        }
+
+        Optional<GameState> game = gameCache.get(gameCode);
+        if (!gameEngine.isEnabled() || game.isEmpty() || !isInProgress(game.get())) {
+            return game;
+        }
+        // El estado cacheado lo comparten otras lecturas: el motor recibe uno propio.
+        // Con diario, la última instantánea más los eventos posteriores restauran también
+        // la versión y el generador, de modo que la secuencia de eventos continúa sin huecos
+        gameCache.invalidate(gameCode);
+        return gameRepository.findByGameCode(gameCode)
+            .filter(entity -> entity.getStatus() == Game.GameStatus.IN_PROGRESS)
+            .map(entity -> registerLiveGame(gameJournalService.rebuild(entity.getId(), gameCode, entity.getLastActivityAt())
+                .orElseGet(() -> GameState.fromEntity(entity))));
+    }
+
+    private static boolean isInProgress(GameState state) {
+        synchronized (state) {
+            return state.getStatus() == Game.GameStatus.IN_PROGRESS;
+        }
+    }
+
+    private GameState requireGame(String gameCode) {
+        return findGame(gameCode)
+            .orElseThrow(() -> new RuntimeException("Game not found with code: " + gameCode));
+    }
+
+    /**
+     * Carga una partida hidratada en el motor. El reaper y el temporizador de turnos también la
+     * vigilan en este nodo, que puede no ser el que la empezó (reinicio o cambio de dueño en el clúster).
+     */
+    private GameState registerLiveGame(GameState state) {
+        GameState liveGame = gameEngine.register(state);
+        idleGameReaper.track(liveGame.getGameCode(), Game.GameStatus.IN_PROGRESS);
+        turnTimerService.track(liveGame.getGameCode());
+        return liveGame;
+    }
+
+    private Card toCard(GameState state, byte cardCode) {
+        Card card = new Card(CardCodes.color(cardCode), CardCodes.value(cardCode));
+        card.setId(state.getCardId(cardCode));
+        return card;
     }
 
     private void notifyGameUpdate(Game game) {
@@ -426,70 +722,27 @@ public class GameService {
         messagingTemplate.convertAndSend(destination, gameResponse);
     }
 
-    private String generateUniqueGameCode() {
-        String code;
-        do {
-            code = generateRandomCode(6);
-        } while (gameRepository.findByGameCode(code).isPresent());
-        return code;
-    }
-
-    private String generateRandomCode(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(ALPHANUMERIC_CHARS.charAt(random.nextInt(ALPHANUMERIC_CHARS.length())));
-        }
-        return sb.toString();
-    }
-
-    private List<Card> initializeDeck(Game game) {
-        List<Card> deck = new ArrayList<>();
-
-        // Cartas de colores (Rojo, Verde, Azul, Amarillo)
-        for (Color color : new Color[]{Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW}) {
-            // Una carta de '0' por color
-            Card zeroCard = new Card(color, CardValue.ZERO);
-            zeroCard.setDeckGame(game);
-            deck.add(zeroCard);
-
-            // Dos cartas del '1' al '9' por color
-            for (CardValue value : new CardValue[]{CardValue.ONE, CardValue.TWO, CardValue.THREE, CardValue.FOUR, CardValue.FIVE, CardValue.SIX, CardValue.SEVEN, CardValue.EIGHT, CardValue.NINE}) {
-                Card card1 = new Card(color, value);
-                card1.setDeckGame(game);
-                deck.add(card1);
-                
-                Card card2 = new Card(color, value);
-                card2.setDeckGame(game);
-                deck.add(card2);
-            }
+    private void notifyGameUpdate(GameState state) {
+        gameBroadcastService.publish(state);
+    }
 
-            // Dos cartas de acción por color
-            for (CardValue value : new CardValue[]{CardValue.SKIP, CardValue.REVERSE, CardValue.DRAW_TWO}) {
-                Card card1 = new Card(color, value);
-                card1.setDeckGame(game);
-                deck.add(card1);
-                
-                Card card2 = new Card(color, value);
-                card2.setDeckGame(game);
-                deck.add(card2);
-            }
+    /**
+     * Crea y baraja el mazo de la partida al empezarla. Las salas creadas antes de que el mazo
+     * se difiriera ya tienen uno y se respetan tal cual.
+     */
+    private void materializeDeck(Game game) {
+        if (!game.getDrawPile().isEmpty()) {
+            return;
         }
-
-        // Cartas comodín (negras)
-        IntStream.range(0, 4).forEach(i -> {
-            Card wildCard = new Card(Color.BLACK, CardValue.WILD);
-            wildCard.setDeckGame(game);
-            deck.add(wildCard);
-            
-            Card wildDrawFourCard = new Card(Color.BLACK, CardValue.WILD_DRAW_FOUR);
-            wildDrawFourCard.setDeckGame(game);
-            deck.add(wildDrawFourCard);
-        });
-
-        return deck;
+        List<Card> deck = GameDeck.initializeDeck(game);
+        Collections.shuffle(deck);
+        game.getDrawPile().addAll(deck);
     }
 
-    private Player applyCardEffect(Game game, Player currentPlayer, Card playedCard, Color chosenColor) {
+    /**
+     * Aplica el efecto de la carta jugada y devuelve el asiento del siguiente jugador.
+     */
+    private int applyCardEffect(Game game, Card playedCard, Color chosenColor) {
         //Primero, se actualiza el color del juego
         if (playedCard.getColor() == Color.BLACK) {
             if (chosenColor == null || chosenColor == Color.BLACK) {
@@ -501,91 +754,43 @@ public class GameService {
             game.setCurrentColor(playedCard.getColor());
         }
 
-        Player nextPlayer = determineNextPlayer(game,
-            currentPlayer,
-            1);  // Por defecto, el siguiente jugador es el que sigue en turno
+        int nextSeat = nextSeat(game, 1);  // Por defecto, el siguiente jugador es el que sigue en turno
 
         switch (playedCard.getValue()) {
             case SKIP:
                 // El siguiente jugador pierde su turno
-                return determineNextPlayer(game, currentPlayer, 2);
+                return nextSeat(game, 2);
             case REVERSE:
                 // Cambia el sentido del juego
                 game.setReversed(!game.isReversed());
                 // Si solo hay 2 jugadores, REVERSE actúa como SKIP
                 if (game.getPlayers().size() == 2) {
-                    return determineNextPlayer(game, currentPlayer, 2);
+                    return nextSeat(game, 2);
                 }
                 //Con más de 2 jugadores, el turno va al jugador anterior
-                return determineNextPlayer(game, currentPlayer, 1);
+                return nextSeat(game, 1);
             case DRAW_TWO:
                 // El siguiente jugador roba dos cartas y pierde su turno
-                drawCardsForPlayer(game, nextPlayer, 2);
-                return determineNextPlayer(game, currentPlayer, 2);
+                GameDeck.drawCardsForPlayer(game, game.getPlayers().get(nextSeat), 2);
+                return nextSeat(game, 2);
             case WILD_DRAW_FOUR:
                 // El siguiente jugador roba cuatro cartas y pierde su turno
-                drawCardsForPlayer(game, nextPlayer, 4);
-                return determineNextPlayer(game, currentPlayer, 2);
+                GameDeck.drawCardsForPlayer(game, game.getPlayers().get(nextSeat), 4);
+                return nextSeat(game, 2);
             case WILD:
                 // Un comodín no tiene efecto especial, solo cambia el color
                 // El siguiente jugador es el que sigue en turno
-                return nextPlayer;
+                return nextSeat;
             default:
-                return nextPlayer; // Para cualquier otra carta, simplemente retorna el siguiente jugador
-        }
-    }
-
-    private Player determineNextPlayer(Game game, Player currentPlayer, int positionsToAdvance) {
-        List<Player> players = game.getPlayers();
-        int currentPlayerIndex = players.indexOf(currentPlayer);
-        int totalPlayers = players.size();
-
-
-        int direction = game.isReversed() ? -1 : 1;
-        int nextPlayerIndex = (currentPlayerIndex + (direction * positionsToAdvance)) % totalPlayers;
-
-        if (nextPlayerIndex < 0) {
-            nextPlayerIndex += totalPlayers; // Asegura que el índice no sea negativo
+                return nextSeat; // Para cualquier otra carta, simplemente retorna el siguiente jugador
         }
-        return players.get(nextPlayerIndex);
     }
 
-    private List<Card> drawCardsForPlayer(Game game, Player player, int numberOfCards) {
-        List<Card> drawPile = game.getDrawPile();
-        List<Card> drawnCards = new ArrayList<>();
-
-        for (int i = 0; i < numberOfCards; i++) {
-            if (drawPile.isEmpty()) {
-                //si el mazo de robo está vacío, se baraja la pila de descarte y se convierte en el nuevo mazo de robo
-                reshuffleDiscardPile(game);
-                // Verificar si después de rebarajar tenemos cartas disponibles
-                if (drawPile.isEmpty()) {
-                    // No hay más cartas disponibles, terminar el bucle
-                    break;
-                }
-            }
-            Card card = drawPile.removeLast();
-            card.setDeckGame(null);
-            card.setPlayer(player);
-            player.getHand().add(card);
-            drawnCards.add(card);
-        }
-        return drawnCards;
-    }
-
-    private void reshuffleDiscardPile(Game game) {
-        Card topCard = game.getDiscardPile().removeLast(); // Retirar la última carta para no incluirla en el nuevo mazo
-        List<Card> newDrawPile = new ArrayList<>(game.getDiscardPile());
-
-        // Actualizar las relaciones de las cartas que van al mazo
-        for (Card card : newDrawPile) {
-            card.setDiscardPileGame(null);
-            card.setDeckGame(game);
-        }
-
-        Collections.shuffle(newDrawPile);
-        game.setDrawPile(newDrawPile);
-        game.getDiscardPile().clear();
-        game.getDiscardPile().add(topCard); // Volver a añadir la última carta como la nueva superior de la pila de descarte
+    /**
+     * Asiento del jugador que juega tras avanzar {@code positionsToAdvance} posiciones desde el
+     * jugador actual. Sólo aritmética sobre índices, sin recorrer la lista de jugadores.
+     */
+    private int nextSeat(Game game, int positionsToAdvance) {
+        return GameRules.nextSeat(game.getCurrentSeat(), positionsToAdvance, game.getPlayers().size(), game.isReversed());
     }
 }
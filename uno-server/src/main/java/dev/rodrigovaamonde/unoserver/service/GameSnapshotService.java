@@ -0,0 +1,68 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameSnapshotCodec;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persistencia de partidas en curso como una instantánea binaria en la propia fila de {@code games}.
+ * <p>
+ * Sólo está activa con {@code uno.engine.persistence-mode=snapshot}. En ese modo cada volcado del
+ * write-behind es un único UPDATE, y la hidratación de una partida lee sólo la columna
+ * {@code snapshot} sin cargar jugadores ni cartas.
+ */
+@Service
+public class GameSnapshotService {
+
+    public enum PersistenceMode {
+        RELATIONAL,
+        SNAPSHOT
+    }
+
+    private final GameRepository gameRepository;
+    private final PersistenceMode persistenceMode;
+
+    public GameSnapshotService(GameRepository gameRepository,
+                               @Value("${uno.engine.persistence-mode:relational}") PersistenceMode persistenceMode) {
+        this.gameRepository = gameRepository;
+        this.persistenceMode = persistenceMode;
+    }
+
+    public boolean isEnabled() {
+        return persistenceMode == PersistenceMode.SNAPSHOT;
+    }
+
+    /**
+     * Reconstruye el estado de una partida en curso a partir de su instantánea, si la tiene.
+     */
+    public Optional<GameState> load(String gameCode) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        return gameRepository.findSnapshotByGameCode(gameCode, Game.GameStatus.IN_PROGRESS)
+            .map(view -> GameSnapshotCodec.decode(view.getId(), gameCode, view.getSnapshot()));
+    }
+
+    /**
+     * Escribe la instantánea. Debe ejecutarse dentro de una transacción.
+     *
+     * @return false si la base de datos ya tenía esta versión o una más nueva y no se ha escrito nada.
+     */
+    public boolean save(GameState state) {
+        return gameRepository.updateSnapshot(
+            state.getId(),
+            GameSnapshotCodec.encode(state),
+            state.getVersion(),
+            state.getStatus().name(),
+            state.getCurrentColor() != null ? state.getCurrentColor().name() : null,
+            state.isReversed(),
+            state.getCurrentPlayerIndex(),
+            Instant.ofEpochMilli(state.getLastActivityMillis())) > 0;
+    }
+}
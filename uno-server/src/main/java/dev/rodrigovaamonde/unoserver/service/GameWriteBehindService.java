@@ -0,0 +1,247 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.AcceptedCommand;
+import dev.rodrigovaamonde.unoserver.engine.Deck;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.Hand;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistencia diferida (write-behind) de las partidas vivas del {@link GameEngine}.
+ * <p>
+ * Cada intervalo ({@code uno.engine.write-behind-interval-ms}) vuelca a la base de datos
+ * las partidas con cambios pendientes. La base de datos puede ir por detrás del estado en
+ * memoria como máximo ese intervalo; las partidas terminadas se persisten y se expulsan del motor.
+ * En modo {@code snapshot} las partidas en curso se escriben como una única fila
+ * ({@link GameSnapshotService}); al terminar se vuelcan también a las tablas relacionales.
+ * Los comandos aceptados desde el último volcado se añaden al diario ({@link GameJournalService})
+ * en la misma transacción, así el diario y el estado persistido nunca divergen.
+ * <p>
+ * Los volcados de una misma partida nunca se solapan: el ciclo programado y el traspaso a otro nodo
+ * ({@link #handOff}) toman el mismo cerrojo por partida.
+ */
+@Service
+@Slf4j
+public class GameWriteBehindService {
+
+    private final GameEngine gameEngine;
+    private final GameRepository gameRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GameSnapshotService gameSnapshotService;
+    private final GameJournalService gameJournalService;
+    private final GameBroadcastService gameBroadcastService;
+    private final Timer flushTimer;
+    // Cerrojo de volcado por partida; se retira cuando la partida deja el motor
+    private final ConcurrentMap<String, ReentrantLock> flushLocks = new ConcurrentHashMap<>();
+
+    public GameWriteBehindService(GameEngine gameEngine, GameRepository gameRepository,
+                                  TransactionTemplate transactionTemplate, GameSnapshotService gameSnapshotService,
+                                  GameJournalService gameJournalService, GameBroadcastService gameBroadcastService,
+                                  MeterRegistry meterRegistry) {
+        this.gameEngine = gameEngine;
+        this.gameRepository = gameRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.gameSnapshotService = gameSnapshotService;
+        this.gameJournalService = gameJournalService;
+        this.gameBroadcastService = gameBroadcastService;
+        this.flushTimer = Timer.builder("uno.engine.flush")
+            .description("Tiempo de volcar una partida del motor a la base de datos (fase save de las jugadas en memoria)")
+            .publishPercentiles(0.5, 0.99, 0.999)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${uno.engine.write-behind-interval-ms:250}")
+    public void flushDirtyGames() {
+        for (String gameCode : gameEngine.drainDirtyGameCodes()) {
+            withFlushLock(gameCode, () -> flush(gameCode, false, true));
+        }
+    }
+
+    /**
+     * Vuelca la partida y la expulsa del motor para que otro nodo pase a jugarla
+     * ({@link GameOwnershipService}). Debe ejecutarse en el buzón de la partida, detrás de los
+     * comandos que ya estaban encolados. Si hay un volcado programado en curso espera a que termine:
+     * la partida sólo se expulsa cuando su último estado está confirmado en la base de datos, y si ese
+     * volcado falla, sus comandos devueltos se escriben aquí.
+     */
+    public void handOff(String gameCode) {
+        withFlushLock(gameCode, () -> flush(gameCode, true, gameEngine.clearDirty(gameCode)));
+    }
+
+    private void withFlushLock(String gameCode, Runnable action) {
+        while (true) {
+            ReentrantLock lock = flushLocks.computeIfAbsent(gameCode, code -> new ReentrantLock());
+            lock.lock();
+            try {
+                if (flushLocks.get(gameCode) != lock) {
+                    // Se retiró mientras esperábamos: la partida salió del motor
+                    continue;
+                }
+                try {
+                    action.run();
+                } finally {
+                    if (gameEngine.find(gameCode).isEmpty()) {
+                        flushLocks.remove(gameCode, lock);
+                    }
+                }
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param dirty si la partida estaba marcada con cambios pendientes. Sin cambios ni comandos
+     *              pendientes la base de datos ya tiene este estado y no se escribe nada.
+     */
+    private void flush(String gameCode, boolean evict, boolean dirty) {
+        Optional<GameState> liveGame = gameEngine.find(gameCode);
+        if (liveGame.isEmpty()) {
+            return;
+        }
+
+        // Copiamos bajo el monitor para no bloquear la partida durante la escritura
+        GameState snapshot;
+        List<AcceptedCommand> commands;
+        synchronized (liveGame.get()) {
+            snapshot = liveGame.get().copy();
+            commands = liveGame.get().drainPendingCommands();
+        }
+        if (!dirty && commands.isEmpty()) {
+            if (evict) {
+                evict(gameCode, snapshot);
+            }
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            Boolean current = transactionTemplate.execute(status -> {
+                // Una partida terminada o cancelada va a las filas relacionales: su instantánea ya no se lee
+                boolean written = gameSnapshotService.isEnabled() && snapshot.getStatus() == Game.GameStatus.IN_PROGRESS
+                    ? gameSnapshotService.save(snapshot)
+                    : persist(snapshot);
+                if (!written) {
+                    return false;
+                }
+                gameJournalService.append(snapshot, commands);
+                return true;
+            });
+            flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            if (!Boolean.TRUE.equals(current)) {
+                // Otro nodo ya ha escrito una versión más nueva: esta copia está obsoleta
+                log.warn("Discarding stale in-memory copy of game {} at version {}", gameCode, snapshot.getVersion());
+                evict(gameCode, snapshot);
+            } else if (evict || snapshot.getStatus() != Game.GameStatus.IN_PROGRESS) {
+                evict(gameCode, snapshot);
+            }
+        } catch (Exception e) {
+            // Se vuelve a marcar para reintentarlo en el siguiente ciclo, sin perder los eventos
+            synchronized (liveGame.get()) {
+                liveGame.get().requeuePendingCommands(commands);
+            }
+            gameEngine.markDirty(gameCode);
+            log.error("Error persisting game {} from the in-memory engine: {}", gameCode, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyGames();
+    }
+
+    private void evict(String gameCode, GameState snapshot) {
+        gameEngine.evict(gameCode);
+        gameJournalService.forget(snapshot.getId());
+        gameBroadcastService.forget(gameCode);
+    }
+
+    /**
+     * Reescribe las filas relacionales de la partida con el estado en memoria.
+     *
+     * @return false si la base de datos ya tenía una versión más nueva y no se ha escrito nada.
+     */
+    private boolean persist(GameState snapshot) {
+        if (gameRepository.advanceMoveCount(snapshot.getId(), snapshot.getVersion()) == 0) {
+            return false;
+        }
+        Game game = gameRepository.findById(snapshot.getId())
+            .orElseThrow(() -> new RuntimeException("Game not found with id: " + snapshot.getId()));
+
+        // Todas las cartas de la partida indexadas por id, estén donde estén ahora mismo
+        Map<Long, Card> cardsById = new HashMap<>();
+        game.getDrawPile().forEach(card -> cardsById.put(card.getId(), card));
+        game.getDiscardPile().forEach(card -> cardsById.put(card.getId(), card));
+        game.getPlayers().forEach(player -> player.getHand().forEach(card -> cardsById.put(card.getId(), card)));
+
+        for (PlayerState playerState : snapshot.getPlayers()) {
+            Player player = game.findPlayer(playerState.getId())
+                .orElseThrow(() -> new RuntimeException("Player not found with id " + playerState.getId()
+                    + " in game " + snapshot.getGameCode()));
+            player.setHasDeclaredUno(playerState.isHasDeclaredUno());
+            player.getHand().clear();
+            Hand hand = playerState.getHand();
+            for (int i = 0; i < hand.size(); i++) {
+                Card card = cardsById.get(snapshot.getCardId(hand.get(i)));
+                card.setDeckGame(null);
+                card.setDiscardPileGame(null);
+                card.setPlayer(player);
+                player.getHand().add(card);
+            }
+        }
+
+        game.getDrawPile().clear();
+        Deck drawPile = snapshot.getDrawPile();
+        for (int i = 0; i < drawPile.size(); i++) {
+            Card card = cardsById.get(snapshot.getCardId(drawPile.get(i)));
+            card.setPlayer(null);
+            card.setDiscardPileGame(null);
+            card.setDeckGame(game);
+            game.getDrawPile().add(card);
+        }
+
+        game.getDiscardPile().clear();
+        Deck discardPile = snapshot.getDiscardPile();
+        for (int i = 0; i < discardPile.size(); i++) {
+            Card card = cardsById.get(snapshot.getCardId(discardPile.get(i)));
+            card.setPlayer(null);
+            card.setDeckGame(null);
+            card.setDiscardPileGame(game);
+            game.getDiscardPile().add(card);
+        }
+
+        game.setCurrentSeat(snapshot.getCurrentPlayerIndex());
+        game.setCurrentColor(snapshot.getCurrentColor());
+        game.setReversed(snapshot.isReversed());
+        game.setStatus(snapshot.getStatus());
+        game.setMoveCount(snapshot.getVersion());
+        game.setLastActivityAt(Instant.ofEpochMilli(snapshot.getLastActivityMillis()));
+
+        gameRepository.save(game);
+        return true;
+    }
+}
@@ -0,0 +1,131 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporización con hash: {@code wheelSize} ranuras de {@code tickMillis} cada una.
+ * Un plazo se guarda en la ranura de su tick ({@code tick mod wheelSize}) junto con el tick
+ * absoluto en que vence, así que los plazos más lejanos que una vuelta comparten ranura con
+ * otros y simplemente se saltan hasta su vuelta.
+ * <p>
+ * Programar y cancelar son O(1): cada ranura es una lista doblemente enlazada y un mapa guarda
+ * el nodo de cada clave. Cada tick sólo recorre su propia ranura, no todos los plazos. Una clave
+ * tiene como mucho un plazo; programarla de nuevo sustituye el anterior.
+ * <p>
+ * Todas las operaciones se hacen bajo el monitor de la rueda.
+ */
+public final class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final Timeout<K>[] slots;
+    private final int mask;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+    // Siguiente tick absoluto (epoch ms / tickMillis) por procesar
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        // Potencia de dos para calcular la ranura con una máscara
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.slots = (Timeout<K>[]) new Timeout[size];
+        this.mask = size - 1;
+        this.nextTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Programa (o reprograma) el plazo de la clave. Un plazo ya pasado vence en el siguiente tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        unlink(timeouts.remove(key));
+        long deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), nextTick);
+        Timeout<K> timeout = new Timeout<>(key, deadlineTick, (int) (deadlineTick & mask));
+        timeout.next = slots[timeout.slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        slots[timeout.slot] = timeout;
+        timeouts.put(key, timeout);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        unlink(timeout);
+        return timeout != null;
+    }
+
+    public synchronized boolean contains(K key) {
+        return timeouts.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    /**
+     * Avanza la rueda hasta {@code nowMillis} y devuelve las claves cuyos plazos han vencido,
+     * que dejan de estar programadas. Si ha pasado más de una vuelta desde el último avance,
+     * cada ranura se recorre una sola vez.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long currentTick = nowMillis / tickMillis;
+        if (currentTick < nextTick) {
+            return List.of();
+        }
+        List<K> expired = new ArrayList<>();
+        long ticks = Math.min(currentTick - nextTick + 1, slots.length);
+        for (long tick = nextTick; tick < nextTick + ticks; tick++) {
+            Timeout<K> timeout = slots[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout<K> next = timeout.next;
+                if (timeout.deadlineTick <= currentTick) {
+                    unlink(timeout);
+                    timeouts.remove(timeout.key);
+                    expired.add(timeout.key);
+                }
+                timeout = next;
+            }
+        }
+        nextTick = currentTick + 1;
+        return expired;
+    }
+
+    private void unlink(Timeout<K> timeout) {
+        if (timeout == null) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static final class Timeout<K> {
+        final K key;
+        final long deadlineTick;
+        final int slot;
+        Timeout<K> prev;
+        Timeout<K> next;
+
+        Timeout(K key, long deadlineTick, int slot) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporización jerárquica: {@value #LEVELS} niveles de {@value #WHEEL_SIZE} ranuras.
+ * Cada ranura del nivel 0 dura un tick y cada ranura de un nivel abarca una vuelta entera del
+ * nivel inferior, así que con ticks cortos se cubren plazos de días sin ruedas enormes (con ticks
+ * de 200 ms: 12,8 s, 13,6 min, 14,5 h y 38 días).
+ * <p>
+ * Un plazo se guarda en el nivel más bajo cuyo alcance lo cubre. Al completar una vuelta de un
+ * nivel, la siguiente ranura del nivel superior se baja (cascada) a los inferiores, de modo que
+ * cuando vence un plazo siempre está en el nivel 0 y cada tick sólo recorre una ranura. Programar
+ * y cancelar son O(1); cada plazo baja como mucho {@value #LEVELS} - 1 veces. A diferencia de
+ * {@link HashedTimingWheel}, las ranuras nunca mezclan plazos de vueltas distintas.
+ * <p>
+ * Una clave tiene como mucho un plazo; programarla de nuevo sustituye el anterior. Todas las
+ * operaciones se hacen bajo el monitor de la rueda.
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Timeout<K>[][] wheels;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+    // Último tick absoluto (epoch ms / tickMillis) procesado
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.wheels = (Timeout<K>[][]) new Timeout[LEVELS][WHEEL_SIZE];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Programa (o reprograma) el plazo de la clave. Un plazo ya pasado vence en el siguiente tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        unlink(timeouts.remove(key));
+        Timeout<K> timeout = new Timeout<>(key, Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1));
+        timeouts.put(key, timeout);
+        insert(timeout);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        unlink(timeout);
+        return timeout != null;
+    }
+
+    public synchronized boolean contains(K key) {
+        return timeouts.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    /**
+     * Avanza la rueda tick a tick hasta {@code nowMillis} y devuelve las claves cuyos plazos han
+     * vencido, que dejan de estar programadas.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Al cerrar una vuelta del nivel inferior se baja la ranura que empieza en este tick
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0; level++) {
+                cascade(level, slotOf(currentTick, level));
+            }
+            expireSlot(slotOf(currentTick, 0), expired);
+        }
+        return expired;
+    }
+
+    private void insert(Timeout<K> timeout) {
+        long tick = Math.max(timeout.deadlineTick, currentTick);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        // Los plazos más allá del último nivel vuelven a colocarse en cada vuelta hasta que entran
+        timeout.level = level;
+        timeout.slot = slotOf(tick, level);
+        Timeout<K>[] wheel = wheels[level];
+        timeout.next = wheel[timeout.slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        wheel[timeout.slot] = timeout;
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout<K> timeout = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (timeout != null) {
+            Timeout<K> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    private void expireSlot(int slot, List<K> expired) {
+        Timeout<K> timeout = wheels[0][slot];
+        while (timeout != null) {
+            Timeout<K> next = timeout.next;
+            if (timeout.deadlineTick <= currentTick) {
+                unlink(timeout);
+                timeouts.remove(timeout.key);
+                expired.add(timeout.key);
+            }
+            timeout = next;
+        }
+    }
+
+    private void unlink(Timeout<K> timeout) {
+        if (timeout == null) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheels[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    private static final class Timeout<K> {
+        final K key;
+        final long deadlineTick;
+        int level;
+        int slot;
+        Timeout<K> prev;
+        Timeout<K> next;
+
+        Timeout(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository.GameActivityView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cancela las partidas abandonadas: salas en espera sin actividad durante
+ * {@code uno.reaper.lobby-timeout-ms} y partidas en curso sin jugadas durante
+ * {@code uno.reaper.game-timeout-ms}.
+ * <p>
+ * Cada partida abierta tiene un plazo en una {@link HashedTimingWheel}, así que cada tick
+ * ({@code uno.reaper.tick-ms}) sólo toca los plazos que vencen en él. Las jugadas no reprograman
+ * nada: al vencer un plazo se comprueba la última actividad real (la del motor si la partida está
+ * viva, si no {@code games.last_activity_at}) y, si la partida sigue activa, se vuelve a programar
+ * desde esa actividad.
+ * <p>
+ * Las salas y las partidas que no están en memoria se cancelan en bloque, en lotes de
+ * {@code uno.reaper.batch-size}, con una actualización condicionada al estado y a la última
+ * actividad: es idempotente aunque varios nodos expiren la misma partida. Las partidas vivas en el
+ * motor se cancelan desde su buzón y la persistencia diferida las vuelca y las expulsa de memoria.
+ * Las filas de las partidas canceladas las borra después {@link GameArchiveService}.
+ */
+@Service
+@Slf4j
+public class IdleGameReaper {
+
+    private static final List<Game.GameStatus> OPEN_STATUSES =
+        List.of(Game.GameStatus.WAITING_FOR_PLAYERS, Game.GameStatus.IN_PROGRESS);
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final GameRepository gameRepository;
+    private final GameEngine gameEngine;
+    private final GameCommandDispatcher commandDispatcher;
+    private final GameBroadcastService gameBroadcastService;
+    private final TransactionTemplate transactionTemplate;
+    private final GameCache gameCache;
+    private final LobbyIndex lobbyIndex;
+    private final boolean enabled;
+    private final long lobbyTimeoutMs;
+    private final long gameTimeoutMs;
+    private final int batchSize;
+    private final HashedTimingWheel<String> wheel;
+    private final Counter cancelledLobbies;
+    private final Counter cancelledGames;
+
+    public IdleGameReaper(GameRepository gameRepository, GameEngine gameEngine, GameCommandDispatcher commandDispatcher,
+                          GameBroadcastService gameBroadcastService, TransactionTemplate transactionTemplate,
+                          GameCache gameCache, LobbyIndex lobbyIndex, MeterRegistry meterRegistry,
+                          @Value("${uno.reaper.enabled:true}") boolean enabled,
+                          @Value("${uno.reaper.tick-ms:1000}") long tickMs,
+                          @Value("${uno.reaper.wheel-size:512}") int wheelSize,
+                          @Value("${uno.reaper.lobby-timeout-ms:1800000}") long lobbyTimeoutMs,
+                          @Value("${uno.reaper.game-timeout-ms:3600000}") long gameTimeoutMs,
+                          @Value("${uno.reaper.batch-size:200}") int batchSize) {
+        this.gameRepository = gameRepository;
+        this.gameEngine = gameEngine;
+        this.commandDispatcher = commandDispatcher;
+        this.gameBroadcastService = gameBroadcastService;
+        this.transactionTemplate = transactionTemplate;
+        this.gameCache = gameCache;
+        this.lobbyIndex = lobbyIndex;
+        this.enabled = enabled;
+        this.lobbyTimeoutMs = lobbyTimeoutMs;
+        this.gameTimeoutMs = gameTimeoutMs;
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+
+        Gauge.builder("uno.reaper.tracked", wheel, HashedTimingWheel::size)
+            .description("Partidas abiertas con un plazo de inactividad programado en este nodo")
+            .register(meterRegistry);
+        this.cancelledLobbies = Counter.builder("uno.reaper.cancelled")
+            .description("Partidas canceladas por inactividad")
+            .tag("status", Game.GameStatus.WAITING_FOR_PLAYERS.name())
+            .register(meterRegistry);
+        this.cancelledGames = Counter.builder("uno.reaper.cancelled")
+            .description("Partidas canceladas por inactividad")
+            .tag("status", Game.GameStatus.IN_PROGRESS.name())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Empieza a vigilar una partida (o reinicia su plazo) tras crearla, empezarla o cargarla en
+     * el motor.
+     */
+    public void track(String gameCode, Game.GameStatus status) {
+        if (enabled) {
+            wheel.schedule(gameCode, System.currentTimeMillis() + timeoutOf(status));
+        }
+    }
+
+    /**
+     * Programa las partidas abiertas que ya había en la base de datos al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenGames() {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0L;
+        int loaded = 0;
+        List<GameActivityView> page;
+        do {
+            page = gameRepository.findActivityByStatusIn(OPEN_STATUSES, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (GameActivityView game : page) {
+                wheel.schedule(game.getGameCode(), lastActivityMillis(game) + timeoutOf(game.getStatus()));
+                afterId = game.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        if (loaded > 0) {
+            log.info("Tracking {} open games for inactivity", loaded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${uno.reaper.tick-ms:1000}")
+    public void tick() {
+        if (enabled) {
+            reap(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Revisa las partidas cuyo plazo ha vencido hasta {@code nowMillis}.
+     *
+     * @return Número de partidas canceladas en la base de datos en esta pasada (las vivas en el
+     * motor se cancelan de forma asíncrona desde su buzón).
+     */
+    int reap(long nowMillis) {
+        List<String> expired = wheel.advance(nowMillis);
+        int cancelled = 0;
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            cancelled += reapBatch(expired.subList(from, Math.min(from + batchSize, expired.size())), nowMillis);
+        }
+        return cancelled;
+    }
+
+    private int reapBatch(List<String> gameCodes, long nowMillis) {
+        long lobbyIdleSince = nowMillis - lobbyTimeoutMs;
+        long gameIdleSince = nowMillis - gameTimeoutMs;
+        List<String> idleLobbies = new ArrayList<>();
+        List<String> idleGames = new ArrayList<>();
+
+        // Las partidas terminadas, canceladas o borradas no vuelven a programarse
+        for (GameActivityView game : gameRepository.findActivityByGameCodes(gameCodes)) {
+            String gameCode = game.getGameCode();
+            if (game.getStatus() == Game.GameStatus.WAITING_FOR_PLAYERS) {
+                long lastActivity = lastActivityMillis(game);
+                if (lastActivity < lobbyIdleSince) {
+                    idleLobbies.add(gameCode);
+                    // Si alguien se une antes de la cancelación, la siguiente revisión lo verá
+                    wheel.schedule(gameCode, nowMillis + lobbyTimeoutMs);
+                } else {
+                    wheel.schedule(gameCode, lastActivity + lobbyTimeoutMs);
+                }
+            } else if (game.getStatus() == Game.GameStatus.IN_PROGRESS) {
+                Optional<GameState> liveGame = gameEngine.find(gameCode);
+                long lastActivity = liveGame.map(IdleGameReaper::lastActivityMillis).orElseGet(() -> lastActivityMillis(game));
+                if (lastActivity >= gameIdleSince) {
+                    wheel.schedule(gameCode, lastActivity + gameTimeoutMs);
+                    continue;
+                }
+                wheel.schedule(gameCode, nowMillis + gameTimeoutMs);
+                if (liveGame.isPresent()) {
+                    cancelLiveGame(gameCode, gameIdleSince);
+                } else {
+                    idleGames.add(gameCode);
+                }
+            }
+        }
+
+        if (idleLobbies.isEmpty() && idleGames.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.ofEpochMilli(nowMillis);
+        Integer cancelled = transactionTemplate.execute(status -> {
+            int lobbies = idleLobbies.isEmpty() ? 0 : gameRepository.cancelIdleGames(idleLobbies,
+                Game.GameStatus.WAITING_FOR_PLAYERS.name(), Instant.ofEpochMilli(lobbyIdleSince), now);
+            int games = idleGames.isEmpty() ? 0 : gameRepository.cancelIdleGames(idleGames,
+                Game.GameStatus.IN_PROGRESS.name(), Instant.ofEpochMilli(gameIdleSince), now);
+            cancelledLobbies.increment(lobbies);
+            cancelledGames.increment(games);
+            // La actualización en bloque no dice qué filas ha cambiado: se descartan todas las revisadas
+            gameCache.invalidateAll(idleLobbies);
+            gameCache.invalidateAll(idleGames);
+            lobbyIndex.removeIfIdle(idleLobbies, lobbyIdleSince);
+            return lobbies + games;
+        });
+        if (cancelled != null && cancelled > 0) {
+            log.info("Cancelled {} idle games", cancelled);
+        }
+        return cancelled == null ? 0 : cancelled;
+    }
+
+    /**
+     * Cancela una partida viva desde su buzón, detrás de los comandos ya encolados, y difunde el
+     * estado final. La escritura diferida la persiste y la expulsa del motor.
+     */
+    private void cancelLiveGame(String gameCode, long idleSinceMillis) {
+        commandDispatcher.execute(gameCode, () -> gameEngine.cancelIfIdle(gameCode, idleSinceMillis)
+                .ifPresent(state -> {
+                    cancelledGames.increment();
+                    log.info("Cancelled idle game {}", gameCode);
+                    gameBroadcastService.publish(state);
+                }))
+            .exceptionally(e -> {
+                log.error("Error cancelling idle game {}: {}", gameCode, e.getMessage(), e);
+                return null;
+            });
+    }
+
+    private long timeoutOf(Game.GameStatus status) {
+        return status == Game.GameStatus.WAITING_FOR_PLAYERS ? lobbyTimeoutMs : gameTimeoutMs;
+    }
+
+    private static long lastActivityMillis(GameActivityView game) {
+        // Partidas anteriores a la columna: cuentan como activas ahora
+        return game.getLastActivityAt() != null ? game.getLastActivityAt().toEpochMilli() : System.currentTimeMillis();
+    }
+
+    private static long lastActivityMillis(GameState state) {
+        synchronized (state) {
+            return state.getLastActivityMillis();
+        }
+    }
+}
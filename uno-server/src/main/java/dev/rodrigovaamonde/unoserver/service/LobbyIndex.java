@@ -0,0 +1,254 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository.LobbyView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria de las salas en espera ({@code WAITING_FOR_PLAYERS}) para listarlas sin
+ * consultar la tabla {@code games}.
+ * <p>
+ * Hay un mapa ordenado por id por cada número de jugadores, así que filtrar por asientos libres es
+ * elegir qué mapas recorrer: una página mezcla, desde el cursor ({@code afterId}), sólo los de las
+ * salas con sitio, y nunca recorre salas que no va a devolver. Las lecturas no bloquean; los cambios
+ * se serializan en el monitor del índice.
+ * <p>
+ * Se carga al arrancar y se mantiene con los comandos de este nodo al confirmarse su transacción:
+ * crear y unirse ({@link #put}), empezar ({@link #remove}) y la cancelación por inactividad
+ * ({@link #removeIfIdle}). Con varios nodos, {@code uno.lobby.refresh} (activo por defecto si
+ * {@code uno.cluster.enabled}) vuelve a cargarlo cada {@code uno.lobby.refresh-interval-ms} para
+ * incluir las salas creadas, unidas o empezadas en otros nodos.
+ */
+@Service
+@Slf4j
+public class LobbyIndex {
+
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    private final GameRepository gameRepository;
+    private final boolean refreshEnabled;
+    private final Map<String, Lobby> lobbies = new ConcurrentHashMap<>();
+    // Salas por número de jugadores (0..MAX_PLAYERS), cada una ordenada por id
+    private final List<ConcurrentSkipListMap<Long, Lobby>> byPlayerCount = new ArrayList<>(Game.MAX_PLAYERS + 1);
+    // Última vez que este nodo cambió cada sala; una recarga que empezó antes no la toca
+    private final Map<String, Long> changedAtMillis = new HashMap<>();
+
+    public LobbyIndex(GameRepository gameRepository, MeterRegistry meterRegistry,
+                      @Value("${uno.lobby.refresh:${uno.cluster.enabled:false}}") boolean refreshEnabled) {
+        this.gameRepository = gameRepository;
+        this.refreshEnabled = refreshEnabled;
+        for (int i = 0; i <= Game.MAX_PLAYERS; i++) {
+            byPlayerCount.add(new ConcurrentSkipListMap<>());
+        }
+
+        Gauge.builder("uno.lobby.open", lobbies, Map::size)
+            .description("Salas en espera en el índice de salas abiertas")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Sala en espera tal como se lista.
+     */
+    public record Lobby(Long id, String gameCode, String hostName, int playerCount, long lastActivityMillis) {
+
+        static Lobby fromEntity(Game game) {
+            return new Lobby(game.getId(), game.getGameCode(),
+                game.getCreatedBy() != null ? game.getCreatedBy().getName() : null,
+                game.getPlayers().size(), game.getLastActivityAt().toEpochMilli());
+        }
+
+        static Lobby fromView(LobbyView view) {
+            return new Lobby(view.getId(), view.getGameCode(), view.getHostName(),
+                view.getPlayerCount().intValue(), view.getLastActivityAt().toEpochMilli());
+        }
+
+        public int openSeats() {
+            return Game.MAX_PLAYERS - playerCount;
+        }
+    }
+
+    private record Head(Lobby lobby, Iterator<Lobby> rest) {
+    }
+
+    /**
+     * Hasta {@code limit} salas con al menos {@code minOpenSeats} asientos libres y id mayor que
+     * {@code afterId}, ordenadas por id (las que más llevan esperando primero). El id de la última
+     * es el cursor de la página siguiente.
+     */
+    public List<Lobby> page(long afterId, int minOpenSeats, int limit) {
+        int maxPlayerCount = Game.MAX_PLAYERS - Math.max(minOpenSeats, 0);
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparingLong((Head head) -> head.lobby().id()));
+        for (int playerCount = 0; playerCount <= maxPlayerCount; playerCount++) {
+            Iterator<Lobby> rest = byPlayerCount.get(playerCount).tailMap(afterId, false).values().iterator();
+            if (rest.hasNext()) {
+                heads.add(new Head(rest.next(), rest));
+            }
+        }
+
+        List<Lobby> page = new ArrayList<>(Math.min(limit, lobbies.size()));
+        long lastId = afterId;
+        while (page.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            // Una sala que cambia de mapa mientras se recorre puede aparecer en los dos
+            if (head.lobby().id() > lastId) {
+                page.add(head.lobby());
+                lastId = head.lobby().id();
+            }
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return page;
+    }
+
+    public int size() {
+        return lobbies.size();
+    }
+
+    /**
+     * Añade o actualiza una sala recién creada o con un jugador más, al confirmarse la transacción.
+     */
+    public void put(Game game) {
+        Lobby lobby = Lobby.fromEntity(game);
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                store(lobby);
+                touch(lobby.gameCode());
+            }
+        });
+    }
+
+    /**
+     * Quita una sala que ha empezado, al confirmarse la transacción.
+     */
+    public void remove(String gameCode) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                discard(gameCode);
+                touch(gameCode);
+            }
+        });
+    }
+
+    /**
+     * Quita las salas sin actividad desde {@code idleBeforeMillis} (la misma condición con la que el
+     * reaper las cancela), al confirmarse la transacción.
+     */
+    public void removeIfIdle(Collection<String> gameCodes, long idleBeforeMillis) {
+        if (gameCodes.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                for (String gameCode : gameCodes) {
+                    Lobby lobby = lobbies.get(gameCode);
+                    if (lobby != null && lobby.lastActivityMillis() < idleBeforeMillis) {
+                        discard(gameCode);
+                        touch(gameCode);
+                    }
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLobbies() {
+        int loaded = reload();
+        if (loaded > 0) {
+            log.info("Indexed {} open lobbies", loaded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${uno.lobby.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (refreshEnabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Sustituye el índice por las salas en espera de la base de datos, salvo las que este nodo ha
+     * cambiado mientras tanto.
+     *
+     * @return Número de salas cargadas.
+     */
+    int reload() {
+        long startedAt = System.currentTimeMillis();
+        Map<String, Lobby> loaded = new HashMap<>();
+        long afterId = 0L;
+        List<LobbyView> page;
+        do {
+            page = gameRepository.findLobbies(Game.GameStatus.WAITING_FOR_PLAYERS, afterId,
+                PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (LobbyView view : page) {
+                loaded.put(view.getGameCode(), Lobby.fromView(view));
+                afterId = view.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        synchronized (this) {
+            for (String gameCode : List.copyOf(lobbies.keySet())) {
+                if (!loaded.containsKey(gameCode) && !changedSince(gameCode, startedAt)) {
+                    discard(gameCode);
+                }
+            }
+            for (Lobby lobby : loaded.values()) {
+                if (!changedSince(lobby.gameCode(), startedAt)) {
+                    store(lobby);
+                }
+            }
+            changedAtMillis.values().removeIf(changedAt -> changedAt < startedAt);
+        }
+        return loaded.size();
+    }
+
+    private void store(Lobby lobby) {
+        Lobby previous = lobbies.put(lobby.gameCode(), lobby);
+        if (previous != null) {
+            bucketOf(previous).remove(previous.id());
+        }
+        bucketOf(lobby).put(lobby.id(), lobby);
+    }
+
+    private void discard(String gameCode) {
+        Lobby previous = lobbies.remove(gameCode);
+        if (previous != null) {
+            bucketOf(previous).remove(previous.id());
+        }
+    }
+
+    private ConcurrentSkipListMap<Long, Lobby> bucketOf(Lobby lobby) {
+        return byPlayerCount.get(Math.min(lobby.playerCount(), Game.MAX_PLAYERS));
+    }
+
+    private void touch(String gameCode) {
+        if (refreshEnabled) {
+            changedAtMillis.put(gameCode, System.currentTimeMillis());
+        }
+    }
+
+    private boolean changedSince(String gameCode, long sinceMillis) {
+        Long changedAt = changedAtMillis.get(gameCode);
+        return changedAt != null && changedAt >= sinceMillis;
+    }
+}
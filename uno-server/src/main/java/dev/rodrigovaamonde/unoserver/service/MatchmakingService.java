@@ -0,0 +1,231 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.QuickMatchDTO;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Operation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cola de partida rápida: junta a los jugadores que esperan en partidas de
+ * {@code uno.matchmaking.game-size} jugadores y las crea, llena y empieza de una vez
+ * ({@link GameService#createQuickMatch}).
+ * <p>
+ * La cola no tiene cerrojos: los billetes entran en una {@link ConcurrentLinkedDeque} y un contador
+ * atómico lleva cuántos esperan sin partida. Quien hace que el contador llegue al tamaño de partida
+ * reserva esos billetes con un compare-and-set, los saca de la cola y crea la partida en su propio
+ * hilo, así que las ráfagas se reparten entre los hilos que las traen. Si el más antiguo lleva
+ * esperando {@code uno.matchmaking.max-wait-ms}, una pasada periódica empieza la partida con los que
+ * haya (al menos dos). Cada billete caduca a los {@code uno.matchmaking.queue-timeout-ms}; los
+ * caducados se descartan al sacarlos de la cola. Caducar y entrar en una partida compiten por el
+ * mismo compare-and-set del billete ({@code claimed}), así que un jugador nunca recibe un timeout
+ * después de haber ocupado asiento.
+ * <p>
+ * La cola es de este nodo: con varias instancias sólo se emparejan los jugadores que llegan al mismo.
+ */
+@Service
+@Slf4j
+public class MatchmakingService {
+
+    private static final int MIN_PLAYERS = 2;
+
+    private final GameService gameService;
+    private final GameMetrics gameMetrics;
+    private final int gameSize;
+    private final long maxWaitNanos;
+    private final long queueTimeoutMs;
+    private final ConcurrentLinkedDeque<Ticket> queue = new ConcurrentLinkedDeque<>();
+    // Billetes de la cola que todavía no ha reservado ninguna partida; nunca supera al tamaño de la cola
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer timeToMatch;
+    private final Counter matchedGames;
+    private final Counter timedOutTickets;
+
+    public MatchmakingService(GameService gameService, GameMetrics gameMetrics, MeterRegistry meterRegistry,
+                              @Value("${uno.matchmaking.game-size:4}") int gameSize,
+                              @Value("${uno.matchmaking.max-wait-ms:10000}") long maxWaitMs,
+                              @Value("${uno.matchmaking.queue-timeout-ms:25000}") long queueTimeoutMs) {
+        if (gameSize < MIN_PLAYERS || gameSize > Game.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Quick match game size must be between " + MIN_PLAYERS
+                + " and " + Game.MAX_PLAYERS);
+        }
+        this.gameService = gameService;
+        this.gameMetrics = gameMetrics;
+        this.gameSize = gameSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.queueTimeoutMs = queueTimeoutMs;
+
+        Gauge.builder("uno.matchmaking.waiting", waiting, AtomicInteger::get)
+            .description("Jugadores en la cola de partida rápida")
+            .register(meterRegistry);
+        this.timeToMatch = Timer.builder("uno.matchmaking.time-to-match")
+            .description("Tiempo desde que un jugador entra en la cola hasta que tiene partida")
+            .publishPercentiles(0.5, 0.99, 0.999)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.matchedGames = Counter.builder("uno.matchmaking.games")
+            .description("Partidas creadas por la cola de partida rápida")
+            .register(meterRegistry);
+        this.timedOutTickets = Counter.builder("uno.matchmaking.timeouts")
+            .description("Jugadores que salen de la cola sin partida")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param claimed lo gana o bien una partida que reserva el billete, o bien su timeout.
+     */
+    private record Ticket(String playerName, long enqueuedAtNanos, CompletableFuture<QuickMatchDTO> match,
+                          AtomicBoolean claimed) {
+    }
+
+    /**
+     * Pone al jugador en la cola. El resultado se completa con su partida ya empezada, o con un
+     * {@link TimeoutException} si no la encuentra a tiempo.
+     */
+    public CompletableFuture<QuickMatchDTO> enqueue(String playerName) {
+        if (playerName == null || playerName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Player name cannot be empty");
+        }
+        Ticket ticket = new Ticket(playerName.trim(), System.nanoTime(), new CompletableFuture<>(), new AtomicBoolean());
+        CompletableFuture.delayedExecutor(queueTimeoutMs, TimeUnit.MILLISECONDS).execute(() -> expire(ticket));
+        // Primero a la cola y luego al contador: un billete reservado siempre está en la cola
+        queue.offerLast(ticket);
+        waiting.incrementAndGet();
+
+        List<Ticket> batch;
+        while ((batch = reserve(gameSize)) != null && match(batch, gameSize)) {
+            // Una ráfaga puede completar varias partidas seguidas
+        }
+        return ticket.match();
+    }
+
+    /**
+     * Empieza una partida con los que haya si el más antiguo lleva demasiado esperando.
+     */
+    @Scheduled(fixedDelayString = "${uno.matchmaking.tick-ms:1000}")
+    public void matchOverdue() {
+        Ticket oldest = queue.peekFirst();
+        if (maxWaitNanos <= 0 || oldest == null || System.nanoTime() - oldest.enqueuedAtNanos() < maxWaitNanos) {
+            return;
+        }
+        List<Ticket> batch = reserve(MIN_PLAYERS);
+        if (batch != null) {
+            match(batch, MIN_PLAYERS);
+        }
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Reserva hasta {@code gameSize} billetes si esperan al menos {@code min} y los saca de la cola.
+     */
+    private List<Ticket> reserve(int min) {
+        int available;
+        int taken;
+        do {
+            available = waiting.get();
+            if (available < min) {
+                return null;
+            }
+            taken = Math.min(available, gameSize);
+        } while (!waiting.compareAndSet(available, available - taken));
+
+        List<Ticket> batch = new ArrayList<>(taken);
+        for (int i = 0; i < taken; i++) {
+            batch.add(queue.pollFirst());
+        }
+        return batch;
+    }
+
+    /**
+     * Crea la partida de un lote reservado si le quedan al menos {@code min} jugadores.
+     *
+     * @return false si el lote no daba para una partida y se ha devuelto a la cola.
+     */
+    private boolean match(List<Ticket> batch, int min) {
+        List<Ticket> players = new ArrayList<>(batch.size());
+        List<Ticket> repeatedNames = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Ticket ticket : batch) {
+            if (!ticket.claimed().compareAndSet(false, true)) {
+                // Caducado: no ocupa asiento
+                continue;
+            }
+            // Dos jugadores no pueden llamarse igual en una partida: el repetido espera a la siguiente
+            if (names.add(ticket.playerName().toLowerCase(Locale.ROOT))) {
+                players.add(ticket);
+            } else {
+                repeatedNames.add(ticket);
+            }
+        }
+        repeatedNames.forEach(ticket -> requeue(ticket, false));
+        if (players.size() < min) {
+            // Vuelven delante y en el mismo orden: conservan su turno en la cola
+            players.reversed().forEach(ticket -> requeue(ticket, true));
+            return false;
+        }
+
+        try {
+            List<String> playerNames = players.stream().map(Ticket::playerName).toList();
+            GameResponseDTO game = gameMetrics.record(Operation.QUICK_MATCH,
+                () -> gameService.createQuickMatch(playerNames));
+            matchedGames.increment();
+            long now = System.nanoTime();
+            for (Ticket ticket : players) {
+                timeToMatch.record(now - ticket.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                ticket.match().complete(QuickMatchDTO.forPlayer(game, ticket.playerName()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error creating quick match for {}: {}", players.stream().map(Ticket::playerName).toList(),
+                e.getMessage(), e);
+            players.forEach(ticket -> ticket.match().completeExceptionally(e));
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve a la cola un billete que había reservado este lote. Si ha vencido mientras estaba
+     * reservado, su timeout no pudo completarlo: caduca ahora.
+     */
+    private void requeue(Ticket ticket, boolean first) {
+        ticket.claimed().set(false);
+        if (System.nanoTime() - ticket.enqueuedAtNanos() >= TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs)) {
+            expire(ticket);
+            return;
+        }
+        if (first) {
+            queue.offerFirst(ticket);
+        } else {
+            queue.offerLast(ticket);
+        }
+        waiting.incrementAndGet();
+    }
+
+    private void expire(Ticket ticket) {
+        if (ticket.claimed().compareAndSet(false, true)) {
+            timedOutTickets.increment();
+            ticket.match().completeExceptionally(new TimeoutException());
+        }
+    }
+}
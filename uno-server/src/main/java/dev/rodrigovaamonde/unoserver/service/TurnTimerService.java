@@ -0,0 +1,116 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Temporizadores de turno de las partidas vivas en el motor de este nodo.
+ * <p>
+ * Todas las partidas comparten una sola {@link HierarchicalTimingWheel} en lugar de tener un
+ * {@code ScheduledFuture} cada una: cada tick ({@code uno.turn-timer.tick-ms}) sólo recorre los
+ * plazos que vencen en él. Como en {@link IdleGameReaper}, las jugadas no tocan la rueda; sólo
+ * reinician {@link GameState#getTurnDeadlineMillis()} en el motor. Al vencer el plazo programado
+ * se comprueba el real desde el buzón de la partida: si el turno ha cambiado mientras tanto se
+ * vuelve a programar para su nuevo plazo y, si no, el jugador roba y pasa
+ * ({@link GameEngine#expireTurn}) y se difunde el cambio.
+ * <p>
+ * Las partidas expulsadas del motor o terminadas dejan de programarse. Con el motor desactivado no
+ * hay temporizadores.
+ */
+@Service
+@Slf4j
+public class TurnTimerService {
+
+    private final GameEngine gameEngine;
+    private final GameCommandDispatcher commandDispatcher;
+    private final GameBroadcastService gameBroadcastService;
+    private final boolean enabled;
+    private final long turnTimeoutMs;
+    private final HierarchicalTimingWheel<String> wheel;
+    private final Counter expiredTurns;
+
+    public TurnTimerService(GameEngine gameEngine, GameCommandDispatcher commandDispatcher,
+                            GameBroadcastService gameBroadcastService, MeterRegistry meterRegistry,
+                            @Value("${uno.turn-timer.tick-ms:200}") long tickMs) {
+        this.gameEngine = gameEngine;
+        this.commandDispatcher = commandDispatcher;
+        this.gameBroadcastService = gameBroadcastService;
+        this.turnTimeoutMs = gameEngine.getTurnTimeoutMs();
+        this.enabled = gameEngine.isEnabled() && turnTimeoutMs > 0;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, System.currentTimeMillis());
+
+        Gauge.builder("uno.turn-timer.scheduled", wheel, HierarchicalTimingWheel::size)
+            .description("Partidas vivas con un plazo de turno programado en este nodo")
+            .register(meterRegistry);
+        this.expiredTurns = Counter.builder("uno.turn-timer.expired")
+            .description("Turnos agotados en los que el servidor ha robado y pasado por el jugador")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Empieza a vigilar el turno de una partida recién cargada en el motor.
+     */
+    public void track(String gameCode) {
+        if (enabled) {
+            wheel.schedule(gameCode, System.currentTimeMillis() + turnTimeoutMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${uno.turn-timer.tick-ms:200}")
+    public void tick() {
+        if (enabled) {
+            expire(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Encola en su buzón la comprobación de cada partida cuyo plazo ha vencido hasta {@code nowMillis}.
+     *
+     * @return Número de plazos vencidos.
+     */
+    int expire(long nowMillis) {
+        List<String> expired = wheel.advance(nowMillis);
+        for (String gameCode : expired) {
+            commandDispatcher.execute(gameCode, () -> checkTurn(gameCode))
+                .exceptionally(e -> {
+                    log.error("Error expiring turn in game {}: {}", gameCode, e.getMessage(), e);
+                    return null;
+                });
+        }
+        return expired.size();
+    }
+
+    /**
+     * Se ejecuta en el buzón de la partida, detrás de los comandos ya encolados.
+     */
+    private void checkTurn(String gameCode) {
+        Optional<GameState> liveGame = gameEngine.find(gameCode);
+        if (liveGame.isEmpty()) {
+            return;
+        }
+        gameEngine.expireTurn(gameCode, System.currentTimeMillis()).ifPresent(state -> {
+            expiredTurns.increment();
+            gameBroadcastService.publish(state);
+        });
+        long deadline = turnDeadlineMillis(liveGame.get());
+        if (deadline > 0) {
+            wheel.schedule(gameCode, deadline);
+        }
+    }
+
+    private static long turnDeadlineMillis(GameState state) {
+        synchronized (state) {
+            return state.getTurnDeadlineMillis();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- Asientos estables y jugador actual como índice de asiento
+-- V10__Store_seats_and_current_seat.sql
+
+-- Posición de cada jugador en la mesa (0..n-1), en orden de llegada a la partida.
+-- Sin ella el orden de games.players dependía del orden en que la base de datos devolvía las filas
+ALTER TABLE players
+ADD COLUMN seat INTEGER;
+
+UPDATE players
+SET seat = (
+    SELECT COUNT(*)
+    FROM players other
+    WHERE other.game_id = players.game_id
+      AND other.id < players.id
+)
+WHERE game_id IS NOT NULL;
+
+-- Asiento del jugador con el turno, -1 si no hay turno activo
+ALTER TABLE games
+ADD COLUMN current_seat INTEGER NOT NULL DEFAULT -1;
+
+UPDATE games
+SET current_seat = (
+    SELECT p.seat
+    FROM players p
+    WHERE p.id = games.current_player_id
+)
+WHERE current_player_id IS NOT NULL;
+
+ALTER TABLE games
+DROP CONSTRAINT fk_game_current_player;
+
+ALTER TABLE games
+DROP COLUMN current_player_id;
+
+CREATE INDEX idx_players_game_seat ON players(game_id, seat);
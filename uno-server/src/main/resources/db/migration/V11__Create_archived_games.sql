@@ -0,0 +1,39 @@
+-- Archivo compacto de partidas terminadas
+-- V11__Create_archived_games.sql
+
+-- Datos necesarios para archivar: número de jugadas y cuándo empezó y terminó la partida
+ALTER TABLE games
+ADD COLUMN move_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE games
+ADD COLUMN started_at TIMESTAMP WITH TIME ZONE;
+
+ALTER TABLE games
+ADD COLUMN finished_at TIMESTAMP WITH TIME ZONE;
+
+-- Las partidas ya terminadas no tienen fecha de fin real; se archivan en la primera pasada
+UPDATE games
+SET finished_at = COALESCE(updated_at, created_at, CURRENT_TIMESTAMP)
+WHERE status = 'FINISHED';
+
+-- El archivador busca partidas terminadas por antigüedad
+CREATE INDEX idx_games_status_finished_at ON games(status, finished_at);
+
+-- Una fila por partida archivada (id = id original de la partida) en lugar de ~108 cartas y sus jugadores.
+-- players guarda, por asiento, nombre, cartas en la mano al terminar y sus puntos
+CREATE TABLE archived_games (
+    id BIGINT PRIMARY KEY,
+    game_code VARCHAR(255) NOT NULL,
+    winner_name VARCHAR(255),
+    winner_score INTEGER NOT NULL,
+    player_count INTEGER NOT NULL,
+    move_count BIGINT NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE,
+    finished_at TIMESTAMP WITH TIME ZONE,
+    duration_ms BIGINT,
+    players JSONB NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_archived_games_game_code ON archived_games(game_code);
+CREATE INDEX idx_archived_games_finished_at ON archived_games(finished_at);
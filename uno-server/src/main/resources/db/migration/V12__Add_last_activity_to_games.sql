@@ -0,0 +1,15 @@
+-- Última actividad de cada partida para cancelar las abandonadas (IdleGameReaper)
+-- V12__Add_last_activity_to_games.sql
+
+ALTER TABLE games
+ADD COLUMN last_activity_at TIMESTAMP WITH TIME ZONE;
+
+UPDATE games
+SET last_activity_at = COALESCE(updated_at, created_at, CURRENT_TIMESTAMP);
+
+-- Al arrancar, el reaper carga las partidas en espera o en curso
+CREATE INDEX idx_games_status_last_activity ON games(status, last_activity_at);
+
+-- El archivo recibe también las partidas canceladas (CANCELLED ya está permitido desde V2)
+ALTER TABLE archived_games
+ADD COLUMN status VARCHAR(50) NOT NULL DEFAULT 'FINISHED';
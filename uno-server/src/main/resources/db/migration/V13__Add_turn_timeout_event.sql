@@ -0,0 +1,9 @@
+-- Turnos agotados por el temporizador del servidor (TurnTimerService)
+-- V13__Add_turn_timeout_event.sql
+
+ALTER TABLE game_events
+DROP CONSTRAINT chk_game_event_type;
+
+ALTER TABLE game_events
+ADD CONSTRAINT chk_game_event_type
+CHECK (type IN ('PLAY_CARD', 'DRAW_CARD', 'PASS_TURN', 'DECLARE_UNO', 'CHALLENGE_UNO', 'TURN_TIMEOUT'));
@@ -0,0 +1,12 @@
+-- Persistencia de partidas en curso como instantánea de una sola fila
+-- V5__Add_game_snapshot.sql
+
+-- Estado completo de la partida en formato binario versionado (ver GameSnapshotCodec).
+-- Con uno.engine.persistence-mode=snapshot cada jugada actualiza sólo esta fila
+-- en lugar de reubicar decenas de filas de la tabla cards.
+ALTER TABLE games
+ADD COLUMN snapshot BYTEA;
+
+-- Número de mutaciones aceptadas que refleja la instantánea; evita sobrescribir con estados antiguos
+ALTER TABLE games
+ADD COLUMN snapshot_version BIGINT;
@@ -0,0 +1,30 @@
+-- Diario de eventos (append-only) e instantáneas periódicas de las partidas
+-- V6__Create_game_journal.sql
+
+-- Un registro por comando aceptado por el motor; sequence es la versión del estado tras aplicarlo
+CREATE TABLE game_events (
+    id BIGSERIAL PRIMARY KEY,
+    game_id BIGINT NOT NULL,
+    sequence BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    player_id BIGINT,
+    card_id BIGINT,
+    chosen_color VARCHAR(20),
+    target_player_id BIGINT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_game_event_game FOREIGN KEY (game_id) REFERENCES games(id) ON DELETE CASCADE,
+    CONSTRAINT uk_game_event_sequence UNIQUE (game_id, sequence),
+    CONSTRAINT chk_game_event_type CHECK (type IN ('PLAY_CARD', 'DRAW_CARD', 'PASS_TURN', 'DECLARE_UNO', 'CHALLENGE_UNO'))
+);
+
+-- Estado completo (formato de GameSnapshotCodec) tras el evento número sequence.
+-- El estado actual se reconstruye con la última instantánea más los eventos posteriores.
+CREATE TABLE game_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    game_id BIGINT NOT NULL,
+    sequence BIGINT NOT NULL,
+    snapshot BYTEA NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_game_snapshot_game FOREIGN KEY (game_id) REFERENCES games(id) ON DELETE CASCADE,
+    CONSTRAINT uk_game_snapshot_sequence UNIQUE (game_id, sequence)
+);
@@ -0,0 +1,23 @@
+-- Ids reservados en bloques para poder agrupar los INSERT en lotes JDBC
+-- V7__Use_pooled_id_sequences.sql
+
+-- Con IDENTITY Hibernate necesita el id de cada fila justo después de insertarla y no puede
+-- agrupar los INSERT. Las secuencias de las columnas BIGSERIAL pasan a avanzar en bloques
+-- (optimizador "pooled" de Hibernate): una llamada a nextval reserva el bloque completo.
+-- setval deja cada secuencia por encima de los ids existentes para que los bloques no se solapen.
+
+ALTER SEQUENCE games_id_seq INCREMENT BY 50;
+SELECT setval('games_id_seq', (SELECT COALESCE(MAX(id), 0) FROM games) + 50);
+
+ALTER SEQUENCE players_id_seq INCREMENT BY 50;
+SELECT setval('players_id_seq', (SELECT COALESCE(MAX(id), 0) FROM players) + 50);
+
+-- Una baraja completa (108 cartas) por llamada a la secuencia
+ALTER SEQUENCE cards_id_seq INCREMENT BY 128;
+SELECT setval('cards_id_seq', (SELECT COALESCE(MAX(id), 0) FROM cards) + 128);
+
+ALTER SEQUENCE game_events_id_seq INCREMENT BY 50;
+SELECT setval('game_events_id_seq', (SELECT COALESCE(MAX(id), 0) FROM game_events) + 50);
+
+ALTER SEQUENCE game_snapshots_id_seq INCREMENT BY 50;
+SELECT setval('game_snapshots_id_seq', (SELECT COALESCE(MAX(id), 0) FROM game_snapshots) + 50);
@@ -0,0 +1,6 @@
+-- Reserva de códigos de partida por bloques
+-- V8__Create_game_codes_sequence.sql
+
+-- Cada nextval reserva un bloque de 1000 números que el nodo reparte desde memoria
+-- (GameCodeAllocator.BLOCK_SIZE). GameCodes convierte cada número en un código único de 6 caracteres.
+CREATE SEQUENCE game_codes_seq START WITH 1 INCREMENT BY 1000;
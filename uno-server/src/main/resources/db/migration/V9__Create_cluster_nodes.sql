@@ -0,0 +1,9 @@
+-- Nodos del clúster para repartir las partidas por hash consistente
+-- V9__Create_cluster_nodes.sql
+
+-- Cada instancia renueva last_heartbeat periódicamente; las filas sin latido reciente se ignoran
+CREATE TABLE cluster_nodes (
+    node_id VARCHAR(100) PRIMARY KEY,
+    url VARCHAR(255) NOT NULL,
+    last_heartbeat TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Hibernate ejecuta este script tras generar el esquema (sólo con ddl-auto create/create-drop: perfiles dev y test).
+-- En PostgreSQL la secuencia la crea Flyway (V8__Create_game_codes_sequence.sql).
+CREATE SEQUENCE IF NOT EXISTS game_codes_seq START WITH 1 INCREMENT BY 1000;
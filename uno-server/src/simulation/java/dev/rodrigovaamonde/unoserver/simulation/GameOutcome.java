@@ -0,0 +1,17 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+/**
+ * Resultado de una partida simulada.
+ * @param winnerSeat Asiento del ganador, o -1 si se alcanzó el límite de turnos sin terminar.
+ * @param turns Turnos jugados (jugar, o robar y pasar).
+ * @param version Versión final del estado, es decir, comandos aceptados por el motor.
+ */
+public record GameOutcome(
+    int winnerSeat,
+    int turns,
+    long version
+) {
+    public boolean finished() {
+        return winnerSeat >= 0;
+    }
+}
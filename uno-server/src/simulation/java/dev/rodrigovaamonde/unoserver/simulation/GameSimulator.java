@@ -0,0 +1,200 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.Deck;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameRandom;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulador de partidas completas sin Spring, JPA ni broker.
+ * <p>
+ * Las jugadas se aplican con el mismo {@link GameEngine} que usa el servidor, así que las reglas
+ * (cartas jugables, efectos, robos y rebarajados) son exactamente las de producción. El reparto
+ * reproduce el de {@code GameService.startGame}, barajando con el {@link GameRandom} de la partida
+ * en lugar de {@code Collections.shuffle} para que cada partida dependa sólo de su semilla.
+ * <p>
+ * La semilla de la partida {@code i} se deriva de la semilla base y de {@code i}, de modo que
+ * el resultado de una tanda no depende del número de hilos ni del reparto del trabajo.
+ */
+public final class GameSimulator {
+
+    /**
+     * Límite de turnos por partida. Sin cartas que robar y sin cartas jugables los jugadores
+     * sólo pueden pasar, y la partida no terminaría nunca.
+     */
+    public static final int MAX_TURNS = 10_000;
+
+    // Partidas por tarea hoja del fork-join
+    private static final int BATCH_SIZE = 256;
+    private static final int INITIAL_HAND_SIZE = 7;
+
+    private final int playersPerGame;
+    private final SimulationStrategy strategy;
+
+    public GameSimulator(int playersPerGame, SimulationStrategy strategy) {
+        if (playersPerGame < 2 || playersPerGame * INITIAL_HAND_SIZE >= CardCodes.DECK_SIZE) {
+            throw new IllegalArgumentException("Cannot simulate a game with " + playersPerGame + " players.");
+        }
+        this.playersPerGame = playersPerGame;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Simula {@code games} partidas repartidas entre los hilos de {@code pool}.
+     */
+    public SimulationStats run(long seed, long games, ForkJoinPool pool) {
+        return pool.invoke(new SimulationTask(seed, 0, games));
+    }
+
+    /**
+     * Simula una única partida; útil para reproducir una partida concreta de una tanda.
+     */
+    public GameOutcome play(long seed, long gameIndex) {
+        return play(new GameEngine(false), seed, gameIndex);
+    }
+
+    private GameOutcome play(GameEngine engine, long seed, long gameIndex) {
+        String gameCode = "SIM" + gameIndex;
+        GameState game = engine.register(deal(gameCode, gameSeed(seed, gameIndex)));
+        try {
+            int turns = 0;
+            while (game.getStatus() == Game.GameStatus.IN_PROGRESS) {
+                if (++turns > MAX_TURNS) {
+                    return new GameOutcome(-1, MAX_TURNS, game.getVersion());
+                }
+                playTurn(engine, game);
+            }
+            checkCardCount(game, seed, gameIndex);
+            return new GameOutcome(winnerSeat(game), turns, game.getVersion());
+        } finally {
+            engine.evict(gameCode);
+        }
+    }
+
+    private void playTurn(GameEngine engine, GameState game) {
+        PlayerState player = game.getCurrentPlayer();
+        Long playerId = player.getId();
+
+        int index = strategy.chooseCard(game, player);
+        if (index < 0) {
+            if (game.getDrawPile().isEmpty() && game.getDiscardPile().size() <= 1) {
+                engine.passTurn(game.getGameCode(), playerId);
+                return;
+            }
+            byte drawnCard = engine.drawCard(game.getGameCode(), playerId);
+            if (!CardCodes.isPlayable(drawnCard, game.getTopDiscardCard(), game.getCurrentColor())) {
+                engine.passTurn(game.getGameCode(), playerId);
+                return;
+            }
+            index = player.getHand().size() - 1;
+        }
+
+        byte card = player.getHand().get(index);
+        Color chosenColor = CardCodes.color(card) == Color.BLACK ? strategy.chooseColor(game, player) : null;
+        engine.playCard(game.getGameCode(), playerId, game.getCardId(card), chosenColor);
+        if (player.getHand().size() == 1) {
+            engine.declareUno(game.getGameCode(), playerId);
+        }
+    }
+
+    /**
+     * Mismo reparto que {@code GameService.startGame}: 7 cartas por jugador desde la cima del mazo
+     * y la siguiente a la pila de descarte, devolviendo al mazo y barajando si es un Comodín +4.
+     */
+    GameState deal(String gameCode, long gameSeed) {
+        GameState game = new GameState(null, gameCode);
+        game.getRandom().setState(gameSeed);
+        for (int seat = 0; seat < playersPerGame; seat++) {
+            game.getPlayers().add(new PlayerState(seat + 1L, "Jugador " + (seat + 1)));
+        }
+
+        Deck drawPile = game.getDrawPile();
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            drawPile.push((byte) code);
+            game.setCardId((byte) code, code + 1L);
+        }
+        drawPile.shuffle(game.getRandom());
+        for (PlayerState player : game.getPlayers()) {
+            for (int i = 0; i < INITIAL_HAND_SIZE; i++) {
+                player.getHand().add(drawPile.pop());
+            }
+        }
+
+        byte firstCard;
+        while (CardCodes.value(firstCard = drawPile.pop()) == CardValue.WILD_DRAW_FOUR) {
+            drawPile.push(firstCard);
+            drawPile.shuffle(game.getRandom());
+        }
+        game.getDiscardPile().push(firstCard);
+        game.setCurrentColor(CardCodes.color(firstCard));
+        game.setCurrentPlayerIndex(0);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        return game;
+    }
+
+    static long gameSeed(long seed, long gameIndex) {
+        GameRandom random = new GameRandom(seed + gameIndex * 0x9E3779B97F4A7C15L);
+        return random.nextLong();
+    }
+
+    private static int winnerSeat(GameState game) {
+        for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+            if (game.getPlayers().get(seat).getHand().isEmpty()) {
+                return seat;
+            }
+        }
+        throw new IllegalStateException("Game " + game.getGameCode() + " finished without a winner.");
+    }
+
+    /**
+     * Invariante que cualquier cambio de reglas debe respetar: ninguna carta se crea ni se pierde.
+     */
+    private static void checkCardCount(GameState game, long seed, long gameIndex) {
+        int cards = game.getDrawPile().size() + game.getDiscardPile().size();
+        for (PlayerState player : game.getPlayers()) {
+            cards += player.getHand().size();
+        }
+        if (cards != CardCodes.DECK_SIZE) {
+            throw new IllegalStateException("Game " + gameIndex + " of seed " + seed + " ended with "
+                + cards + " cards instead of " + CardCodes.DECK_SIZE);
+        }
+    }
+
+    private final class SimulationTask extends RecursiveTask<SimulationStats> {
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        private SimulationTask(long seed, long from, long to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= BATCH_SIZE) {
+                // Un motor por tarea: su mapa de partidas vivas nunca tiene más de una entrada
+                GameEngine engine = new GameEngine(false);
+                SimulationStats stats = new SimulationStats(playersPerGame);
+                for (long gameIndex = from; gameIndex < to; gameIndex++) {
+                    stats.add(gameIndex, play(engine, seed, gameIndex));
+                }
+                return stats;
+            }
+            long middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(seed, from, middle);
+            left.fork();
+            SimulationStats right = new SimulationTask(seed, middle, to).compute();
+            return right.merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.Hand;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.Color;
+
+/**
+ * Juega la primera carta válida de la mano, guardando los comodines para cuando no quede otra,
+ * y al jugar un comodín declara el color del que más cartas tiene.
+ */
+public final class GreedyStrategy implements SimulationStrategy {
+
+    private static final Color[] PLAYABLE_COLORS = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW};
+
+    @Override
+    public int chooseCard(GameState game, PlayerState player) {
+        byte topCard = game.getTopDiscardCard();
+        Color currentColor = game.getCurrentColor();
+        Hand hand = player.getHand();
+        if (!hand.hasPlayableCard(topCard, currentColor)) {
+            return -1;
+        }
+        int wild = -1;
+        for (int i = 0; i < hand.size(); i++) {
+            byte card = hand.get(i);
+            if (!CardCodes.isPlayable(card, topCard, currentColor)) {
+                continue;
+            }
+            if (CardCodes.color(card) != Color.BLACK) {
+                return i;
+            }
+            if (wild < 0) {
+                wild = i;
+            }
+        }
+        return wild;
+    }
+
+    @Override
+    public Color chooseColor(GameState game, PlayerState player) {
+        Hand hand = player.getHand();
+        Color best = Color.RED;
+        for (Color color : PLAYABLE_COLORS) {
+            if (hand.countOfColor(color) > hand.countOfColor(best)) {
+                best = color;
+            }
+        }
+        return best;
+    }
+}
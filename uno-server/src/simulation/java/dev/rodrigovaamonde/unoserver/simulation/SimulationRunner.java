@@ -0,0 +1,40 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Punto de entrada de {@code ./gradlew simulate}. Se configura con propiedades del sistema:
+ * {@code simulation.games} (1 000 000), {@code simulation.players} (4), {@code simulation.seed} (42)
+ * y {@code simulation.parallelism} (núcleos disponibles). El digest final permite comprobar que
+ * un cambio no altera ninguna partida: con la misma semilla debe salir el mismo valor.
+ */
+public final class SimulationRunner {
+
+    private SimulationRunner() {
+    }
+
+    public static void main(String[] args) {
+        long games = Long.getLong("simulation.games", 1_000_000L);
+        int players = Integer.getInteger("simulation.players", 4);
+        long seed = Long.getLong("simulation.seed", 42L);
+        int parallelism = Integer.getInteger("simulation.parallelism", Runtime.getRuntime().availableProcessors());
+
+        GameSimulator simulator = new GameSimulator(players, new GreedyStrategy());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long startTime = System.nanoTime();
+        SimulationStats stats = simulator.run(seed, games, pool);
+        double seconds = (System.nanoTime() - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+        pool.shutdown();
+
+        System.out.printf("Partidas:        %d de %d jugadores (semilla %d, %d hilos)%n", stats.getGames(), players, seed, parallelism);
+        System.out.printf("Tiempo:          %.2f s (%.0f partidas/min)%n", seconds, stats.getGames() / seconds * 60);
+        System.out.printf("Terminadas:      %d (%d alcanzaron %d turnos)%n", stats.getFinishedGames(),
+            stats.getGames() - stats.getFinishedGames(), GameSimulator.MAX_TURNS);
+        System.out.printf("Turnos:          media %.1f, máximo %d%n", stats.getAverageTurns(), stats.getMaxTurns());
+        for (int seat = 0; seat < players; seat++) {
+            System.out.printf("Victorias %2d:    %.2f%%%n", seat + 1, stats.getWinRate(seat) * 100);
+        }
+        System.out.printf("Digest:          %016x%n", stats.getDigest());
+    }
+}
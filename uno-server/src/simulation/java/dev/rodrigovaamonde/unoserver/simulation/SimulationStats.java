@@ -0,0 +1,75 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+import lombok.Getter;
+
+/**
+ * Agregado de los resultados de una tanda de partidas simuladas.
+ * <p>
+ * {@code digest} combina el resultado de cada partida con su índice mediante una suma, de forma
+ * que no depende del orden en que los hilos terminan: la misma semilla y las mismas reglas dan
+ * siempre el mismo digest, y cualquier cambio de reglas que altere una sola partida lo cambia.
+ */
+@Getter
+public final class SimulationStats {
+
+    private final int playersPerGame;
+    private final long[] winsBySeat;
+    private long games;
+    private long finishedGames;
+    private long totalTurns;
+    private int maxTurns;
+    private long digest;
+
+    public SimulationStats(int playersPerGame) {
+        this.playersPerGame = playersPerGame;
+        this.winsBySeat = new long[playersPerGame];
+    }
+
+    void add(long gameIndex, GameOutcome outcome) {
+        games++;
+        totalTurns += outcome.turns();
+        maxTurns = Math.max(maxTurns, outcome.turns());
+        if (outcome.finished()) {
+            finishedGames++;
+            winsBySeat[outcome.winnerSeat()]++;
+        }
+        long hash = gameIndex;
+        hash = hash * 31 + outcome.winnerSeat();
+        hash = hash * 31 + outcome.turns();
+        hash = hash * 31 + outcome.version();
+        digest += mix(hash);
+    }
+
+    SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        finishedGames += other.finishedGames;
+        totalTurns += other.totalTurns;
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+        digest += other.digest;
+        for (int seat = 0; seat < winsBySeat.length; seat++) {
+            winsBySeat[seat] += other.winsBySeat[seat];
+        }
+        return this;
+    }
+
+    public long[] getWinsBySeat() {
+        return winsBySeat.clone();
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0.0 : (double) totalTurns / games;
+    }
+
+    /**
+     * Proporción de victorias de un asiento sobre las partidas terminadas.
+     */
+    public double getWinRate(int seat) {
+        return finishedGames == 0 ? 0.0 : (double) winsBySeat[seat] / finishedGames;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
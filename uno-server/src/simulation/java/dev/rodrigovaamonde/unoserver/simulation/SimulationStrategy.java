@@ -0,0 +1,23 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.Color;
+
+/**
+ * Decisiones de un jugador simulado. Las implementaciones no deben tener estado mutable
+ * compartido: el simulador las invoca a la vez desde todos los hilos del pool.
+ */
+public interface SimulationStrategy {
+
+    /**
+     * Devuelve la posición en la mano de la carta que se juega, o -1 para robar.
+     * La carta elegida debe poder jugarse; si no, el motor rechaza la jugada y la simulación falla.
+     */
+    int chooseCard(GameState game, PlayerState player);
+
+    /**
+     * Color que se declara al jugar un comodín.
+     */
+    Color chooseColor(GameState game, PlayerState player);
+}
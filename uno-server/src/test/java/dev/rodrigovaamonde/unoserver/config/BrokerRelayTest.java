@@ -0,0 +1,84 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modo relay contra el broker embebido: lo que publica el servidor pasa por el broker STOMP
+ * externo antes de llegar al cliente, como ocurriría con varias instancias.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "uno.broker.relay.enabled=true",
+        "uno.broker.relay.port=61699",
+        "uno.broker.embedded.enabled=true"
+    })
+@ActiveProfiles("test")
+class BrokerRelayTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void tearDown() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void topicMessages_shouldReachClientsThroughTheRelay() throws Exception {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+        StompSession session = stompClient
+            .connectAsync("ws://localhost:" + port + "/api/ws/websocket", new StompSessionHandlerAdapter() { })
+            .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        CompletableFuture<Void> subscribed = new CompletableFuture<>();
+        session.setAutoReceipt(true);
+        session.subscribe("/topic/RELAY1", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        }).addReceiptTask(() -> subscribed.complete(null));
+        // El RECEIPT lo envía el broker externo: la suscripción ya está registrada allí
+        subscribed.get(10, TimeUnit.SECONDS);
+
+        messagingTemplate.convertAndSend("/topic/RELAY1", "hola");
+
+        assertEquals("hola", received.poll(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,60 @@
+package dev.rodrigovaamonde.unoserver.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Con hilos virtuales y un único permiso de base de datos: una petición de partida rápida que
+ * espera en la cola no puede quedarse el permiso, o la segunda nunca llegaría a emparejarse.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.threads.virtual.enabled=true",
+        "uno.threads.max-database-concurrency=1",
+        "uno.matchmaking.game-size=2"
+    })
+@ActiveProfiles("test")
+class DatabaseConcurrencyConfigTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private CompletableFuture<HttpResponse<String>> post(String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(15))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void quickMatch_shouldNotHoldDatabasePermitWhileWaiting() throws Exception {
+        CompletableFuture<HttpResponse<String>> ana = post("/games/quick-match", "{\"playerName\":\"Ana\"}");
+        // Ana ya espera en la cola cuando llega Luis
+        Thread.sleep(500);
+        CompletableFuture<HttpResponse<String>> luis = post("/games/quick-match", "{\"playerName\":\"Luis\"}");
+
+        assertEquals(200, ana.get(20, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, luis.get(20, TimeUnit.SECONDS).statusCode());
+
+        // Ambos despachos de cada petición devolvieron su permiso: las siguientes siguen entrando
+        HttpResponse<String> created = post("/games", "{\"playerName\":\"Eva\"}").get(20, TimeUnit.SECONDS);
+        assertEquals(201, created.statusCode());
+    }
+}
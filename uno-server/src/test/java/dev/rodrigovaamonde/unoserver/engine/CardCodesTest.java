@@ -0,0 +1,76 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCodesTest {
+
+    @Test
+    void everyCode_shouldRoundTripThroughColorValueAndCopy() {
+        Set<String> seen = new HashSet<>();
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            byte card = (byte) code;
+            Color color = CardCodes.color(card);
+            CardValue value = CardCodes.value(card);
+            int copy = CardCodes.copy(card);
+
+            assertEquals(card, CardCodes.encode(color, value, copy));
+            assertTrue(seen.add(color + "-" + value + "-" + copy));
+        }
+        assertEquals(108, seen.size());
+    }
+
+    @Test
+    void deck_shouldHaveOfficialCopyCounts() {
+        assertEquals(1, CardCodes.copies(Color.RED, CardValue.ZERO));
+        assertEquals(2, CardCodes.copies(Color.BLUE, CardValue.SEVEN));
+        assertEquals(2, CardCodes.copies(Color.GREEN, CardValue.DRAW_TWO));
+        assertEquals(4, CardCodes.copies(Color.BLACK, CardValue.WILD));
+        assertEquals(4, CardCodes.copies(Color.BLACK, CardValue.WILD_DRAW_FOUR));
+        assertThrows(IllegalArgumentException.class, () -> CardCodes.encode(Color.RED, CardValue.ZERO, 1));
+    }
+
+    @Test
+    void reshuffle_shouldKeepTopCardAndMoveTheRestToDrawPile() {
+        Deck drawPile = new Deck();
+        Deck discardPile = new Deck();
+        for (int code = 0; code < 10; code++) {
+            discardPile.push((byte) code);
+        }
+
+        drawPile.takeAllButTop(discardPile);
+        drawPile.shuffle(new Random(42));
+
+        assertEquals(1, discardPile.size());
+        assertEquals(9, discardPile.peek());
+        assertEquals(9, drawPile.size());
+        Set<Byte> drawn = new HashSet<>();
+        while (!drawPile.isEmpty()) {
+            drawn.add(drawPile.pop());
+        }
+        assertEquals(9, drawn.size());
+        assertFalse(drawn.contains((byte) 9));
+    }
+
+    @Test
+    void hand_shouldRemoveCardKeepingOrder() {
+        Hand hand = new Hand();
+        for (int code = 0; code < 20; code++) {
+            hand.add((byte) code);
+        }
+
+        assertTrue(hand.remove((byte) 5));
+        assertFalse(hand.remove((byte) 5));
+
+        assertEquals(19, hand.size());
+        assertEquals(4, hand.get(4));
+        assertEquals(6, hand.get(5));
+    }
+}
@@ -0,0 +1,226 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.GameEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTest {
+
+    private static final String GAME_CODE = "TEST123";
+
+    private GameEngine gameEngine;
+    private GameState game;
+    private byte nextUnplayableCard;
+
+    @BeforeEach
+    void setUp() {
+        gameEngine = new GameEngine(true);
+        game = new GameState(1L, GAME_CODE);
+        nextUnplayableCard = 0;
+        // Todas las cartas llevan como id de fila su código + 1000
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            game.setCardId((byte) code, code + 1000L);
+        }
+        for (int i = 1; i <= 3; i++) {
+            PlayerState player = new PlayerState((long) i, "Player " + i);
+            for (int j = 0; j < 7; j++) {
+                player.getHand().add(nextUnplayableCard());
+            }
+            game.getPlayers().add(player);
+        }
+        for (int i = 0; i < 20; i++) {
+            game.getDrawPile().push(nextUnplayableCard());
+        }
+        game.getDiscardPile().push(CardCodes.encode(Color.RED, CardValue.FIVE, 0));
+        game.setCurrentColor(Color.RED);
+        game.setCurrentPlayerIndex(0);
+        gameEngine.register(game);
+    }
+
+    /**
+     * Devuelve la siguiente carta que no se puede jugar sobre un 5 rojo.
+     */
+    private byte nextUnplayableCard() {
+        while (true) {
+            byte card = nextUnplayableCard++;
+            Color color = CardCodes.color(card);
+            if (color != Color.RED && color != Color.BLACK && CardCodes.value(card) != CardValue.FIVE) {
+                return card;
+            }
+        }
+    }
+
+    private Long idOf(byte card) {
+        return game.getCardId(card);
+    }
+
+    @Test
+    void playCard_shouldMoveCardToDiscardPileAndAdvanceTurn() {
+        byte card = CardCodes.encode(Color.RED, CardValue.ONE, 0);
+        game.getPlayers().getFirst().getHand().add(card);
+
+        gameEngine.playCard(GAME_CODE, 1L, idOf(card), null);
+
+        assertEquals(card, game.getTopDiscardCard());
+        assertEquals(7, game.getPlayers().getFirst().getHand().size());
+        assertEquals(2L, game.getCurrentPlayer().getId());
+        assertEquals(1, game.getVersion());
+        assertEquals(1, gameEngine.drainDirtyGameCodes().size());
+    }
+
+    @Test
+    void playCard_shouldFail_whenCardIsNotInPlayerHand() {
+        byte card = CardCodes.encode(Color.RED, CardValue.ONE, 0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> gameEngine.playCard(GAME_CODE, 1L, idOf(card), null));
+        assertEquals("Card not found with id " + idOf(card) + " in player's hand", exception.getMessage());
+    }
+
+    @Test
+    void playCard_shouldNotMutateState_whenWildColorIsMissing() {
+        byte wild = CardCodes.encode(Color.BLACK, CardValue.WILD, 0);
+        game.getPlayers().getFirst().getHand().add(wild);
+
+        assertThrows(IllegalStateException.class, () -> gameEngine.playCard(GAME_CODE, 1L, idOf(wild), null));
+
+        assertEquals(8, game.getPlayers().getFirst().getHand().size());
+        assertEquals(1, game.getDiscardPile().size());
+        assertEquals(0, game.getVersion());
+        assertTrue(gameEngine.drainDirtyGameCodes().isEmpty());
+    }
+
+    @Test
+    void playCard_shouldMakeNextPlayerDrawTwoAndSkip_whenDrawTwoIsPlayed() {
+        byte drawTwo = CardCodes.encode(Color.RED, CardValue.DRAW_TWO, 0);
+        game.getPlayers().getFirst().getHand().add(drawTwo);
+
+        gameEngine.playCard(GAME_CODE, 1L, idOf(drawTwo), null);
+
+        assertEquals(9, game.getPlayers().get(1).getHand().size());
+        assertEquals(3L, game.getCurrentPlayer().getId());
+    }
+
+    @Test
+    void playCard_shouldFinishGame_whenPlayerHasNoCardsLeft() {
+        byte lastCard = CardCodes.encode(Color.RED, CardValue.ONE, 0);
+        PlayerState player = game.getPlayers().getFirst();
+        player.getHand().clear();
+        player.getHand().add(lastCard);
+
+        gameEngine.playCard(GAME_CODE, 1L, idOf(lastCard), null);
+
+        assertEquals(Game.GameStatus.FINISHED, game.getStatus());
+        assertNull(game.getCurrentPlayer());
+    }
+
+    @Test
+    void drawCard_shouldReshuffleDiscardPile_whenDrawPileIsEmpty() {
+        byte yellowTwo = CardCodes.encode(Color.YELLOW, CardValue.TWO, 1);
+        byte top = game.getTopDiscardCard();
+        game.getDrawPile().clear();
+        game.getDiscardPile().pushBottom(yellowTwo);
+
+        byte drawnCard = gameEngine.drawCard(GAME_CODE, 1L);
+
+        assertEquals(yellowTwo, drawnCard);
+        assertEquals(1, game.getDiscardPile().size());
+        assertEquals(top, game.getTopDiscardCard());
+    }
+
+    @Test
+    void drawCard_shouldFail_whenPlayerHasPlayableCard() {
+        game.getPlayers().getFirst().getHand().add(CardCodes.encode(Color.RED, CardValue.TWO, 0));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> gameEngine.drawCard(GAME_CODE, 1L));
+        assertEquals("You have playable cards in your hand. You must play a card instead of drawing.",
+            exception.getMessage());
+    }
+
+    @Test
+    void copy_shouldBeIndependentOfLiveState() {
+        GameState snapshot = game.copy();
+
+        gameEngine.passTurn(GAME_CODE, 1L);
+        game.getPlayers().getFirst().getHand().clear();
+
+        assertEquals(0, snapshot.getCurrentPlayerIndex());
+        assertEquals(7, snapshot.getPlayers().getFirst().getHand().size());
+        assertEquals(1, game.getCurrentPlayerIndex());
+    }
+
+    @Test
+    void cancelIfIdle_shouldCancelGameWithoutRecentCommands() {
+        game.setLastActivityMillis(1_000L);
+
+        assertTrue(gameEngine.cancelIfIdle(GAME_CODE, 2_000L).isPresent());
+
+        assertEquals(Game.GameStatus.CANCELLED, game.getStatus());
+        assertEquals(-1, game.getCurrentPlayerIndex());
+        assertEquals(List.of(GAME_CODE), gameEngine.drainDirtyGameCodes());
+        assertThrows(IllegalStateException.class, () -> gameEngine.passTurn(GAME_CODE, 1L));
+    }
+
+    @Test
+    void cancelIfIdle_shouldKeepGameWithCommandAfterDeadline() {
+        game.setLastActivityMillis(1_000L);
+        long idleSince = System.currentTimeMillis() - 1;
+        gameEngine.passTurn(GAME_CODE, 1L);
+
+        assertTrue(gameEngine.cancelIfIdle(GAME_CODE, idleSince).isEmpty());
+        assertEquals(Game.GameStatus.IN_PROGRESS, game.getStatus());
+    }
+
+    @Test
+    void register_shouldNotStartTurnDeadline_whenTimersAreDisabled() {
+        assertEquals(0L, game.getTurnDeadlineMillis());
+        assertTrue(gameEngine.expireTurn(GAME_CODE, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void expireTurn_shouldDrawAndPass_withoutCountingAsActivity() {
+        GameEngine timedEngine = new GameEngine(true, 30_000L);
+        gameEngine.evict(GAME_CODE);
+        timedEngine.register(game);
+        long deadline = game.getTurnDeadlineMillis();
+        game.setLastActivityMillis(1_000L);
+
+        assertTrue(timedEngine.expireTurn(GAME_CODE, deadline - 1).isEmpty());
+        assertTrue(timedEngine.expireTurn(GAME_CODE, deadline).isPresent());
+
+        assertEquals(8, game.getPlayers().getFirst().getHand().size());
+        assertEquals(1, game.getCurrentPlayerIndex());
+        assertEquals(1L, game.getVersion());
+        assertEquals(1_000L, game.getLastActivityMillis());
+        assertTrue(game.getTurnDeadlineMillis() > System.currentTimeMillis());
+        assertEquals(GameEventType.TURN_TIMEOUT, game.drainPendingCommands().getFirst().type());
+    }
+
+    @Test
+    void passTurn_shouldRestartTurnDeadline() {
+        GameEngine timedEngine = new GameEngine(true, 30_000L);
+        gameEngine.evict(GAME_CODE);
+        timedEngine.register(game);
+        game.setTurnDeadlineMillis(1L);
+
+        timedEngine.passTurn(GAME_CODE, 1L);
+
+        assertTrue(game.getTurnDeadlineMillis() > System.currentTimeMillis());
+        assertTrue(timedEngine.expireTurn(GAME_CODE, System.currentTimeMillis()).isEmpty());
+    }
+
+    @Test
+    void timeOutTurn_shouldFail_whenItIsNotPlayersTurn() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> gameEngine.timeOutTurn(GAME_CODE, 2L));
+        assertEquals("It's not your turn.", exception.getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotCodecTest {
+
+    private GameState createGame() {
+        GameState game = new GameState(42L, "ABC123");
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            game.setCardId((byte) code, 5000L + code);
+        }
+        byte nextCard = 0;
+        for (int i = 1; i <= 4; i++) {
+            PlayerState player = new PlayerState(100L + i, "Jugador " + i);
+            for (int j = 0; j < 7; j++) {
+                player.getHand().add(nextCard++);
+            }
+            game.getPlayers().add(player);
+        }
+        game.getPlayers().get(2).setHasDeclaredUno(true);
+        while (nextCard < CardCodes.DECK_SIZE - 1) {
+            game.getDrawPile().push(nextCard++);
+        }
+        game.getDiscardPile().push(nextCard);
+        game.setCurrentColor(Color.BLUE);
+        game.setReversed(true);
+        game.setCurrentPlayerIndex(3);
+        game.setCreatedById(101L);
+        game.setVersion(57);
+        return game;
+    }
+
+    @Test
+    void decode_shouldRestoreEncodedState() {
+        GameState original = createGame();
+
+        byte[] snapshot = GameSnapshotCodec.encode(original);
+        GameState decoded = GameSnapshotCodec.decode(42L, "ABC123", snapshot);
+
+        assertEquals(GameSnapshotCodec.CURRENT_FORMAT_VERSION, snapshot[0]);
+        assertEquals(57, decoded.getVersion());
+        assertEquals(Game.GameStatus.IN_PROGRESS, decoded.getStatus());
+        assertEquals(Color.BLUE, decoded.getCurrentColor());
+        assertTrue(decoded.isReversed());
+        assertEquals(104L, decoded.getCurrentPlayer().getId());
+        assertEquals(101L, decoded.getCreatedById());
+        assertEquals(4, decoded.getPlayers().size());
+        assertEquals("Jugador 3", decoded.getPlayers().get(2).getName());
+        assertTrue(decoded.getPlayers().get(2).isHasDeclaredUno());
+        assertEquals(original.getPlayers().get(1).getHand().get(6), decoded.getPlayers().get(1).getHand().get(6));
+        assertEquals(original.getDrawPile().size(), decoded.getDrawPile().size());
+        assertEquals(original.getTopDiscardCard(), decoded.getTopDiscardCard());
+        assertArrayEquals(original.getCardIds(), decoded.getCardIds());
+    }
+
+    @Test
+    void encode_shouldBeCompact() {
+        byte[] snapshot = GameSnapshotCodec.encode(createGame());
+
+        // 108 cartas ubicadas + 108 ids de fila: muy por debajo de 108 filas de cards
+        assertTrue(snapshot.length < 400, "Snapshot size was " + snapshot.length);
+    }
+
+    @Test
+    void decode_shouldRestoreRandomState() {
+        GameState original = createGame();
+
+        GameState decoded = GameSnapshotCodec.decode(42L, "ABC123", GameSnapshotCodec.encode(original));
+
+        assertEquals(original.getRandom().getState(), decoded.getRandom().getState());
+    }
+
+    @Test
+    void decode_shouldStillReadFormatV1() {
+        byte[] v2 = GameSnapshotCodec.encode(createGame());
+        // v1 = v2 sin los 8 bytes del generador que siguen a la versión del estado (57 ocupa 1 byte)
+        byte[] v1 = new byte[v2.length - 8];
+        v1[0] = 1;
+        v1[1] = v2[1];
+        System.arraycopy(v2, 10, v1, 2, v2.length - 10);
+
+        GameState decoded = GameSnapshotCodec.decode(42L, "ABC123", v1);
+
+        assertEquals(57, decoded.getVersion());
+        assertEquals(104L, decoded.getCurrentPlayer().getId());
+        assertEquals("Jugador 3", decoded.getPlayers().get(2).getName());
+    }
+
+    @Test
+    void decode_shouldRejectUnknownFormatVersion() {
+        byte[] snapshot = GameSnapshotCodec.encode(createGame());
+        snapshot[0] = 99;
+
+        assertThrows(IllegalStateException.class, () -> GameSnapshotCodec.decode(42L, "ABC123", snapshot));
+    }
+
+    @Test
+    void decode_shouldRestoreFinishedGameWithoutCurrentPlayer() {
+        GameState game = createGame();
+        game.setStatus(Game.GameStatus.FINISHED);
+        game.setCurrentPlayerIndex(-1);
+        game.setCurrentColor(null);
+        game.getPlayers().getFirst().getHand().clear();
+        game.getDiscardPile().push(CardCodes.encode(Color.RED, CardValue.ZERO, 0));
+
+        GameState decoded = GameSnapshotCodec.decode(42L, "ABC123", GameSnapshotCodec.encode(game));
+
+        assertEquals(Game.GameStatus.FINISHED, decoded.getStatus());
+        assertNull(decoded.getCurrentPlayer());
+        assertNull(decoded.getCurrentColor());
+        assertTrue(decoded.getPlayers().getFirst().getHand().isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package dev.rodrigovaamonde.unoserver.engine;
+
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandTest {
+
+    @Test
+    void index_shouldFollowAddAndRemove() {
+        Hand hand = new Hand();
+        byte redSeven = CardCodes.encode(Color.RED, CardValue.SEVEN, 1);
+        byte wild = CardCodes.encode(Color.BLACK, CardValue.WILD, 3);
+
+        hand.add(redSeven);
+        hand.add(wild);
+        assertTrue(hand.contains(redSeven));
+        assertTrue(hand.contains(wild));
+        assertFalse(hand.contains(CardCodes.encode(Color.RED, CardValue.SEVEN, 0)));
+        assertEquals(1, hand.countOfColor(Color.RED));
+        assertEquals(1, hand.countOfColor(Color.BLACK));
+
+        assertTrue(hand.remove(redSeven));
+        assertFalse(hand.contains(redSeven));
+        assertFalse(hand.remove(redSeven));
+        assertEquals(0, hand.countOfColor(Color.RED));
+        assertEquals(1, hand.size());
+
+        hand.clear();
+        assertFalse(hand.contains(wild));
+        assertEquals(0, hand.countOfColor(Color.BLACK));
+    }
+
+    @Test
+    void playableIndex_shouldMatchTheRulesForRandomHands() {
+        Random random = new Random(42);
+        Color[] colors = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.BLACK};
+        for (int round = 0; round < 2_000; round++) {
+            Hand hand = new Hand();
+            boolean[] inHand = new boolean[CardCodes.DECK_SIZE];
+            int handSize = 1 + random.nextInt(20);
+            while (hand.size() < handSize) {
+                byte card = (byte) random.nextInt(CardCodes.DECK_SIZE);
+                if (!inHand[card]) {
+                    inHand[card] = true;
+                    hand.add(card);
+                }
+            }
+            byte topCard = (byte) random.nextInt(CardCodes.DECK_SIZE);
+            Color currentColor = colors[random.nextInt(colors.length)];
+
+            boolean anyPlayable = false;
+            int playableCount = 0;
+            for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+                byte card = (byte) code;
+                boolean expected = inHand[code] && CardCodes.isPlayable(card, topCard, currentColor);
+                assertEquals(expected, hand.isPlayable(card, topCard, currentColor));
+                anyPlayable |= expected;
+                playableCount += expected ? 1 : 0;
+            }
+            assertEquals(anyPlayable, hand.hasPlayableCard(topCard, currentColor));
+
+            byte[] playable = hand.playableCards(topCard, currentColor);
+            assertEquals(playableCount, playable.length);
+            for (byte card : playable) {
+                assertTrue(inHand[card]);
+                assertTrue(CardCodes.isPlayable(card, topCard, currentColor));
+            }
+        }
+    }
+
+    @Test
+    void copyFrom_shouldCopyTheIndex() {
+        Hand hand = new Hand();
+        byte blueSkip = CardCodes.encode(Color.BLUE, CardValue.SKIP, 0);
+        hand.add(blueSkip);
+
+        Hand copy = new Hand();
+        copy.add(CardCodes.encode(Color.RED, CardValue.ONE, 0));
+        copy.copyFrom(hand);
+
+        assertTrue(copy.contains(blueSkip));
+        assertEquals(1, copy.countOfColor(Color.BLUE));
+        assertEquals(0, copy.countOfColor(Color.RED));
+        assertTrue(copy.hasPlayableCard(CardCodes.encode(Color.GREEN, CardValue.SKIP, 1), Color.GREEN));
+    }
+}
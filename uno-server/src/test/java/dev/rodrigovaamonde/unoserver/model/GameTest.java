@@ -0,0 +1,64 @@
+package dev.rodrigovaamonde.unoserver.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTest {
+
+    @Test
+    void addPlayer_shouldAssignSeatsInJoinOrder() {
+        Game game = new Game("SEATS1");
+        for (int i = 0; i < 3; i++) {
+            Player player = new Player("Player " + i);
+            player.setId(10L + i);
+            game.addPlayer(player);
+        }
+
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(seat, game.getPlayers().get(seat).getSeat());
+            assertEquals(seat, game.seatOf(10L + seat));
+        }
+        assertEquals(-1, game.seatOf(99L));
+        assertTrue(game.findPlayer(99L).isEmpty());
+        assertEquals("Player 2", game.findPlayer(12L).orElseThrow().getName());
+    }
+
+    @Test
+    void seatOf_shouldFindPlayersWhoseIdsWereAssignedAfterJoining() {
+        Game game = new Game("SEATS2");
+        Player first = new Player("First");
+        Player second = new Player("Second");
+        game.addPlayer(first);
+        game.addPlayer(second);
+        // Como al guardar: los ids llegan después de añadir los jugadores
+        assertEquals(-1, game.seatOf(1L));
+        first.setId(1L);
+        second.setId(2L);
+
+        assertEquals(0, game.seatOf(1L));
+        assertEquals(1, game.seatOf(2L));
+    }
+
+    @Test
+    void currentPlayer_shouldBeStoredAsSeat() {
+        Game game = new Game("SEATS3");
+        Player first = new Player("First");
+        first.setId(1L);
+        Player second = new Player("Second");
+        second.setId(2L);
+        game.addPlayer(first);
+        game.addPlayer(second);
+
+        assertNull(game.getCurrentPlayer());
+        game.setCurrentPlayer(second);
+        assertEquals(1, game.getCurrentSeat());
+        assertSame(second, game.getCurrentPlayer());
+
+        game.setCurrentPlayer(null);
+        assertEquals(-1, game.getCurrentSeat());
+        Player stranger = new Player("Stranger");
+        stranger.setId(3L);
+        assertThrows(IllegalArgumentException.class, () -> game.setCurrentPlayer(stranger));
+    }
+}
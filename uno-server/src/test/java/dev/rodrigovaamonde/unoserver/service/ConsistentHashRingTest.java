@@ -0,0 +1,67 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int GAMES = 10_000;
+
+    @Test
+    void ownerOf_shouldNotDependOnNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"));
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"));
+
+        for (int i = 0; i < GAMES; i++) {
+            String gameCode = GameCodes.encode(i);
+            assertEquals(ring.ownerOf(gameCode), reordered.ownerOf(gameCode));
+        }
+    }
+
+    @Test
+    void ownerOf_shouldSpreadGamesEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < GAMES; i++) {
+            counts.merge(ring.ownerOf(GameCodes.encode(i)), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.forEach((node, count) ->
+            assertTrue(count > GAMES * 0.18 && count < GAMES * 0.32, node + " owns " + count + " games"));
+    }
+
+    @Test
+    void addingNode_shouldOnlyMoveGamesToTheNewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"));
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"));
+
+        int moved = 0;
+        for (int i = 0; i < GAMES; i++) {
+            String gameCode = GameCodes.encode(i);
+            String oldOwner = before.ownerOf(gameCode);
+            String newOwner = after.ownerOf(gameCode);
+            if (!oldOwner.equals(newOwner)) {
+                assertEquals("d", newOwner);
+                moved++;
+            }
+        }
+
+        // ~1/4 de las partidas pasan al nodo nuevo
+        assertTrue(moved > GAMES * 0.18 && moved < GAMES * 0.32, "Moved " + moved + " games");
+    }
+
+    @Test
+    void ownerOf_shouldReturnNullForEmptyRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of());
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.ownerOf("ABC123"));
+    }
+}
@@ -0,0 +1,189 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.model.ArchivedGame;
+import dev.rodrigovaamonde.unoserver.model.ArchivedPlayer;
+import dev.rodrigovaamonde.unoserver.model.Card;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import dev.rodrigovaamonde.unoserver.repository.ArchivedGameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameArchiveServiceTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private ArchivedGameRepository archivedGameRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private GameCache gameCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GameArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archiveService = new GameArchiveService(gameRepository, archivedGameRepository, transactionTemplate,
+            dataSource, gameCache, meterRegistry, true, 600_000L, 2, 0L, 5);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static Card card(CardValue value) {
+        return new Card(value == CardValue.WILD ? Color.BLACK : Color.RED, value);
+    }
+
+    private static Game finishedGame(long id) {
+        Game game = new Game("GAME" + id);
+        game.setId(id);
+        Player winner = new Player("Ganador " + id);
+        Player second = new Player("Segundo " + id);
+        second.getHand().add(card(CardValue.WILD));
+        second.getHand().add(card(CardValue.SEVEN));
+        Player third = new Player("Tercero " + id);
+        third.getHand().add(card(CardValue.SKIP));
+        game.addPlayer(second);
+        game.addPlayer(winner);
+        game.addPlayer(third);
+        game.setStartedAt(Instant.parse("2025-01-01T10:00:00Z"));
+        game.setFinishedAt(Instant.parse("2025-01-01T10:12:30Z"));
+        game.setStatus(Game.GameStatus.FINISHED);
+        game.setMoveCount(87);
+        return game;
+    }
+
+    @Test
+    void archive_shouldScoreWinnerWithPointsLeftInOtherHands() {
+        Instant archivedAt = Instant.parse("2025-01-01T11:00:00Z");
+
+        ArchivedGame archived = GameArchiveService.archive(finishedGame(7L), archivedAt);
+
+        assertEquals(7L, archived.getId());
+        assertEquals("GAME7", archived.getGameCode());
+        assertEquals(Game.GameStatus.FINISHED, archived.getStatus());
+        assertEquals("Ganador 7", archived.getWinnerName());
+        assertEquals(50 + 7 + 20, archived.getWinnerScore());
+        assertEquals(3, archived.getPlayerCount());
+        assertEquals(87, archived.getMoveCount());
+        assertEquals(750_000L, archived.getDurationMs());
+        assertEquals(archivedAt, archived.getArchivedAt());
+        assertEquals(List.of(
+            new ArchivedPlayer("Segundo 7", 2, 57),
+            new ArchivedPlayer("Ganador 7", 0, 0),
+            new ArchivedPlayer("Tercero 7", 1, 20)
+        ), archived.getPlayers());
+        assertTrue(archived.isNew());
+    }
+
+    @Test
+    void archive_shouldLeaveDurationEmptyWithoutTimestamps() {
+        Game game = finishedGame(7L);
+        game.setStartedAt(null);
+
+        ArchivedGame archived = GameArchiveService.archive(game, Instant.now());
+
+        assertNull(archived.getDurationMs());
+    }
+
+    @Test
+    void archive_shouldNotPickWinnerForCancelledLobby() {
+        Game lobby = new Game("LOBBY1");
+        lobby.setId(9L);
+        lobby.addPlayer(new Player("Anfitrión"));
+        lobby.addPlayer(new Player("Invitado"));
+        lobby.setStatus(Game.GameStatus.CANCELLED);
+
+        ArchivedGame archived = GameArchiveService.archive(lobby, Instant.now());
+
+        assertEquals(Game.GameStatus.CANCELLED, archived.getStatus());
+        assertNull(archived.getWinnerName());
+        assertEquals(0, archived.getWinnerScore());
+        assertNull(archived.getDurationMs());
+        assertNotNull(archived.getFinishedAt());
+    }
+
+    @Test
+    void archiveFinishedGames_shouldArchiveThenDeleteLiveRows() {
+        runTransactionsInline();
+        List<Long> ids = List.of(1L, 2L);
+        when(gameRepository.findIdsByStatusInAndFinishedAtBefore(any(), any(), any()))
+            .thenReturn(ids, List.of());
+        when(gameRepository.findAllById(ids)).thenReturn(List.of(finishedGame(1L), finishedGame(2L)));
+
+        int archived = archiveService.archiveFinishedGames();
+
+        assertEquals(2, archived);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedGame>> saved = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(archivedGameRepository, gameRepository);
+        inOrder.verify(archivedGameRepository).saveAll(saved.capture());
+        inOrder.verify(archivedGameRepository).flush();
+        inOrder.verify(gameRepository).deleteCardsByGameIds(ids);
+        inOrder.verify(gameRepository).deleteEventsByGameIds(ids);
+        inOrder.verify(gameRepository).deleteSnapshotsByGameIds(ids);
+        inOrder.verify(gameRepository).clearCreatorsByGameIds(ids);
+        inOrder.verify(gameRepository).deletePlayersByGameIds(ids);
+        inOrder.verify(gameRepository).deleteByIds(ids);
+        assertEquals(List.of(1L, 2L), saved.getValue().stream().map(ArchivedGame::getId).toList());
+        assertEquals(2.0, meterRegistry.counter("uno.archive.games").count());
+        verify(gameCache).invalidateAll(List.of("GAME1", "GAME2"));
+    }
+
+    @Test
+    void archiveFinishedGames_shouldStopAfterMaxBatchesPerRun() {
+        runTransactionsInline();
+        // Siempre hay un lote completo pendiente: la pasada se corta en max-batches-per-run
+        when(gameRepository.findIdsByStatusInAndFinishedAtBefore(any(), any(), any(Pageable.class)))
+            .thenReturn(List.of(1L, 2L));
+        when(gameRepository.findAllById(any())).thenReturn(
+            LongStream.of(1L, 2L).mapToObj(GameArchiveServiceTest::finishedGame).toList());
+
+        int archived = archiveService.archiveFinishedGames();
+
+        assertEquals(10, archived);
+        verify(transactionTemplate, times(5)).execute(any());
+    }
+
+    @Test
+    void archiveFinishedGames_shouldDoNothingWhenDisabled() {
+        GameArchiveService disabled = new GameArchiveService(gameRepository, archivedGameRepository,
+            transactionTemplate, dataSource, gameCache, meterRegistry, false, 600_000L, 2, 0L, 5);
+
+        assertEquals(0, disabled.archiveFinishedGames());
+        verifyNoInteractions(transactionTemplate, gameRepository, archivedGameRepository);
+    }
+}
@@ -0,0 +1,176 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rodrigovaamonde.unoserver.dto.CardDTO;
+import dev.rodrigovaamonde.unoserver.dto.GameDeltaDTO;
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GameBroadcastServiceTest {
+
+    private static final String GAME_CODE = "DELTA1";
+
+    private SimpMessagingTemplate messagingTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private GameBroadcastService broadcastService;
+    private GameEngine gameEngine;
+    private GameState game;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Camino de conversión estándar: los tests inspeccionan los DTO enviados
+        broadcastService = new GameBroadcastService(messagingTemplate, new ObjectMapper(), meterRegistry, false);
+        gameEngine = new GameEngine(true);
+        game = new GameState(1L, GAME_CODE);
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            game.setCardId((byte) code, code + 1L);
+        }
+        PlayerState first = new PlayerState(1L, "Ana");
+        first.getHand().add(CardCodes.encode(Color.RED, CardValue.ONE, 0));
+        first.getHand().add(CardCodes.encode(Color.GREEN, CardValue.NINE, 0));
+        PlayerState second = new PlayerState(2L, "Luis");
+        second.getHand().add(CardCodes.encode(Color.BLUE, CardValue.TWO, 0));
+        game.getPlayers().add(first);
+        game.getPlayers().add(second);
+        game.getDrawPile().push(CardCodes.encode(Color.YELLOW, CardValue.THREE, 0));
+        game.getDiscardPile().push(CardCodes.encode(Color.RED, CardValue.FIVE, 0));
+        game.setCurrentColor(Color.RED);
+        game.setCurrentPlayerIndex(0);
+        gameEngine.register(game);
+    }
+
+    private Object lastMessage(int times) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(times)).convertAndSend(eq("/topic/" + GAME_CODE), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void publish_shouldSendFullStateFirst() {
+        broadcastService.publish(game);
+
+        GameResponseDTO full = assertInstanceOf(GameResponseDTO.class, lastMessage(1));
+        assertEquals(GameResponseDTO.TYPE, full.getType());
+        assertEquals(0L, full.getSequence());
+        assertEquals(Color.RED, full.getCurrentColor());
+    }
+
+    @Test
+    void publish_shouldSendOnlyChangedFields() {
+        broadcastService.publish(game);
+        gameEngine.playCard(GAME_CODE, 1L, game.getCardId(CardCodes.encode(Color.RED, CardValue.ONE, 0)), null);
+
+        broadcastService.publish(game);
+
+        GameDeltaDTO delta = assertInstanceOf(GameDeltaDTO.class, lastMessage(2));
+        assertEquals(GameDeltaDTO.TYPE, delta.type());
+        assertEquals(1L, delta.sequence());
+        assertEquals(new CardDTO(Color.RED, CardValue.ONE), delta.topDiscardCard());
+        assertNull(delta.currentColor());
+        assertNull(delta.status());
+        assertEquals(2L, delta.currentPlayerId());
+        assertEquals(Map.of(1L, 1), delta.cardCounts());
+    }
+
+    @Test
+    void publish_shouldSendRemainingTurnTime_whenTurnStarts() {
+        GameEngine timedEngine = new GameEngine(true, 30_000L);
+        gameEngine.evict(GAME_CODE);
+        timedEngine.register(game);
+        broadcastService.publish(game);
+        GameResponseDTO full = assertInstanceOf(GameResponseDTO.class, lastMessage(1));
+        assertTrue(full.getTurnRemainingMs() > 0 && full.getTurnRemainingMs() <= 30_000L);
+
+        timedEngine.passTurn(GAME_CODE, 1L);
+        broadcastService.publish(game);
+        GameDeltaDTO afterPass = assertInstanceOf(GameDeltaDTO.class, lastMessage(2));
+        assertTrue(afterPass.turnRemainingMs() > 0 && afterPass.turnRemainingMs() <= 30_000L);
+
+        // Mismo turno, mismo plazo: no se repite
+        timedEngine.declareUno(GAME_CODE, 2L);
+        broadcastService.publish(game);
+        GameDeltaDTO afterUno = assertInstanceOf(GameDeltaDTO.class, lastMessage(3));
+        assertNull(afterUno.turnRemainingMs());
+    }
+
+    @Test
+    void publish_shouldSendFullState_whenSequenceHasGap() {
+        broadcastService.publish(game);
+        gameEngine.passTurn(GAME_CODE, 1L);
+        gameEngine.passTurn(GAME_CODE, 2L);
+
+        broadcastService.publish(game);
+
+        GameResponseDTO full = assertInstanceOf(GameResponseDTO.class, lastMessage(2));
+        assertEquals(2L, full.getSequence());
+    }
+
+    @Test
+    void publish_shouldKeepSendingDeltas_afterSilentDeclareUno() {
+        game.getPlayers().getFirst().getHand().remove(CardCodes.encode(Color.GREEN, CardValue.NINE, 0));
+        broadcastService.publish(game);
+        gameEngine.declareUno(GAME_CODE, 1L);
+        broadcastService.publish(game);
+        gameEngine.passTurn(GAME_CODE, 1L);
+
+        broadcastService.publish(game);
+
+        GameDeltaDTO delta = assertInstanceOf(GameDeltaDTO.class, lastMessage(3));
+        assertEquals(2L, delta.sequence());
+        assertEquals(2L, delta.currentPlayerId());
+    }
+
+    @Test
+    void publish_shouldSendFullState_afterGameIsForgotten() {
+        broadcastService.publish(game);
+        gameEngine.passTurn(GAME_CODE, 1L);
+
+        // Cedida a otro nodo y vuelta a cargar aquí
+        broadcastService.forget(GAME_CODE);
+        broadcastService.publish(game);
+
+        assertInstanceOf(GameResponseDTO.class, lastMessage(2));
+    }
+
+    @Test
+    void publish_shouldSendPreSerializedJson_whenSerializeOnceIsEnabled() {
+        GameBroadcastService serializeOnce =
+            new GameBroadcastService(messagingTemplate, new ObjectMapper(), meterRegistry, true);
+        serializeOnce.publish(game);
+        gameEngine.passTurn(GAME_CODE, 1L);
+
+        serializeOnce.publish(game);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(eq("/topic/" + GAME_CODE), captor.capture());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        String json = new String(captor.getValue().getPayload(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"type\":\"DELTA\""), json);
+        assertTrue(json.contains("\"sequence\":1"), json);
+        assertFalse(json.contains("topDiscardCard"), json);
+        assertEquals(2, meterRegistry.get("uno.broadcast.publish").tag("mode", "serialize-once").timer().count());
+    }
+}
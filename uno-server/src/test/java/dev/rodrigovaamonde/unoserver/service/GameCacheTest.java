@@ -0,0 +1,204 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository.GameActivityView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameCacheTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GameCache cache;
+
+    private record Activity(Long id, String gameCode, Game.GameStatus status, Instant lastActivityAt)
+        implements GameActivityView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getGameCode() {
+            return gameCode;
+        }
+
+        @Override
+        public Game.GameStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public Instant getLastActivityAt() {
+            return lastActivityAt;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new GameCache(gameRepository, meterRegistry, true, 2, 60_000L, false);
+    }
+
+    private Game lobby(String gameCode) {
+        Game game = new Game(gameCode);
+        game.setId((long) gameCode.hashCode());
+        Player host = new Player("Anfitrión");
+        host.setId(1L);
+        game.addPlayer(host);
+        lenient().when(gameRepository.findByGameCode(gameCode)).thenReturn(Optional.of(game));
+        return game;
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("uno.cache.gets").tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("uno.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeLaterReadsFromCache() {
+        lobby("LOBBY1");
+
+        GameState first = cache.get("LOBBY1").orElseThrow();
+        GameState second = cache.get("LOBBY1").orElseThrow();
+
+        assertSame(first, second);
+        verify(gameRepository, times(1)).findByGameCode("LOBBY1");
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+        assertEquals(1.0, meterRegistry.get("uno.cache.size").gauge().value());
+    }
+
+    @Test
+    void get_shouldNotCacheMissingGames() {
+        when(gameRepository.findByGameCode("NOPE")).thenReturn(Optional.empty());
+
+        assertTrue(cache.get("NOPE").isEmpty());
+        assertTrue(cache.get("NOPE").isEmpty());
+
+        verify(gameRepository, times(2)).findByGameCode("NOPE");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedBeyondMaxSize() {
+        lobby("LOBBY1");
+        lobby("LOBBY2");
+        lobby("LOBBY3");
+        cache.get("LOBBY1");
+        cache.get("LOBBY2");
+        // LOBBY1 pasa a ser la más reciente: se expulsa LOBBY2
+        cache.get("LOBBY1");
+
+        cache.get("LOBBY3");
+        cache.get("LOBBY1");
+        cache.get("LOBBY2");
+
+        verify(gameRepository, times(1)).findByGameCode("LOBBY1");
+        verify(gameRepository, times(2)).findByGameCode("LOBBY2");
+        assertEquals(2, cache.size());
+        assertEquals(2.0, evictions("size"));
+    }
+
+    @Test
+    void get_shouldReloadExpiredEntries() {
+        GameCache expiring = new GameCache(gameRepository, meterRegistry, true, 10, 0L, false);
+        lobby("LOBBY1");
+
+        expiring.get("LOBBY1");
+        expiring.get("LOBBY1");
+
+        verify(gameRepository, times(2)).findByGameCode("LOBBY1");
+        assertEquals(1.0, evictions("expired"));
+    }
+
+    @Test
+    void invalidate_shouldDropEntryOutsideTransactions() {
+        lobby("LOBBY1");
+        cache.get("LOBBY1");
+
+        cache.invalidate("LOBBY1");
+        cache.get("LOBBY1");
+
+        verify(gameRepository, times(2)).findByGameCode("LOBBY1");
+        assertEquals(1.0, evictions("invalidated"));
+    }
+
+    @Test
+    void update_shouldReplaceEntryWithCommandResult() {
+        Game game = lobby("LOBBY1");
+        cache.get("LOBBY1");
+        Player guest = new Player("Invitado");
+        guest.setId(2L);
+        game.addPlayer(guest);
+
+        cache.update(game);
+
+        assertEquals(2, cache.get("LOBBY1").orElseThrow().getPlayers().size());
+        verify(gameRepository, times(1)).findByGameCode("LOBBY1");
+    }
+
+    @Test
+    void get_shouldNotStoreLoadThatRacedWithInvalidation() {
+        Game game = lobby("LOBBY1");
+        // Otro comando confirma un cambio mientras esta lectura carga la partida
+        when(gameRepository.findByGameCode("LOBBY1")).thenAnswer(invocation -> {
+            cache.invalidate("LOBBY1");
+            return Optional.of(game);
+        });
+
+        assertTrue(cache.get("LOBBY1").isPresent());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldReloadStaleEntriesWhenRevalidating() {
+        GameCache revalidating = new GameCache(gameRepository, meterRegistry, true, 10, 60_000L, true);
+        Game game = lobby("LOBBY1");
+        revalidating.get("LOBBY1");
+        // Otro nodo empezó la partida
+        when(gameRepository.findActivityByGameCodes(List.of("LOBBY1"))).thenReturn(List.of(
+            new Activity(game.getId(), "LOBBY1", Game.GameStatus.IN_PROGRESS, game.getLastActivityAt())));
+
+        revalidating.get("LOBBY1");
+
+        verify(gameRepository, times(2)).findByGameCode("LOBBY1");
+        assertEquals(1.0, evictions("stale"));
+    }
+
+    @Test
+    void get_shouldServeCurrentEntriesWhenRevalidating() {
+        GameCache revalidating = new GameCache(gameRepository, meterRegistry, true, 10, 60_000L, true);
+        Game game = lobby("LOBBY1");
+        revalidating.get("LOBBY1");
+        when(gameRepository.findActivityByGameCodes(List.of("LOBBY1"))).thenReturn(List.of(
+            new Activity(game.getId(), "LOBBY1", game.getStatus(), game.getLastActivityAt())));
+
+        revalidating.get("LOBBY1");
+
+        verify(gameRepository, times(1)).findByGameCode("LOBBY1");
+        assertEquals(1.0, gets("hit"));
+    }
+}
@@ -0,0 +1,70 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCodeAllocatorTest {
+
+    @Test
+    void encode_shouldProduceSixAlphanumericCharacters() {
+        String code = GameCodes.encode(42L);
+
+        assertEquals(GameCodes.LENGTH, code.length());
+        assertTrue(code.matches("[A-Z0-9]{6}"), code);
+    }
+
+    @Test
+    void encode_shouldGiveDistinctCodesToDistinctNumbers() {
+        Set<String> codes = new HashSet<>();
+        for (long number = 0L; number < 10_000L; number++) {
+            assertTrue(codes.add(GameCodes.encode(number)), "Repeated code for " + number);
+        }
+        assertTrue(codes.add(GameCodes.encode(GameCodes.CAPACITY - 1)));
+        assertThrows(IllegalArgumentException.class, () -> GameCodes.encode(GameCodes.CAPACITY));
+    }
+
+    @Test
+    void encode_shouldNotMakeConsecutiveNumbersLookConsecutive() {
+        assertNotEquals(GameCodes.encode(1L).substring(0, 4), GameCodes.encode(2L).substring(0, 4));
+    }
+
+    @Test
+    void nextCode_shouldReserveOneBlockPerThousandCodes() {
+        AtomicInteger blockRequests = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong(1L);
+        // Simula game_codes_seq: START WITH 1 INCREMENT BY 1000
+        GameCodeAllocator allocator = new GameCodeAllocator(() -> {
+            blockRequests.incrementAndGet();
+            return sequence.getAndAdd(GameCodeAllocator.BLOCK_SIZE);
+        });
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 2_500; i++) {
+            codes.add(allocator.nextCode());
+        }
+
+        assertEquals(2_500, codes.size());
+        assertEquals(3, blockRequests.get());
+    }
+
+    @Test
+    void nextCode_shouldNeverCollideAcrossNodes() {
+        AtomicLong sequence = new AtomicLong(1L);
+        GameCodeAllocator nodeA = new GameCodeAllocator(() -> sequence.getAndAdd(GameCodeAllocator.BLOCK_SIZE));
+        GameCodeAllocator nodeB = new GameCodeAllocator(() -> sequence.getAndAdd(GameCodeAllocator.BLOCK_SIZE));
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 1_500; i++) {
+            codes.add(nodeA.nextCode());
+            codes.add(nodeB.nextCode());
+        }
+
+        assertEquals(3_000, codes.size());
+    }
+}
@@ -0,0 +1,84 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCommandDispatcherTest {
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private GameCommandDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new GameCommandDispatcher(executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void commandsForSameGame_shouldRunInSubmissionOrderWithoutOverlap() {
+        List<Integer> executionOrder = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            int commandNumber = i;
+            futures.add(dispatcher.execute("ABC123", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                executionOrder.add(commandNumber);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, executionOrder.get(i));
+        }
+        assertEquals(0, dispatcher.getPendingCommands());
+        assertEquals(200, meterRegistry.get("uno.mailbox.wait").timer().count());
+    }
+
+    @Test
+    void commandsForDifferentGames_shouldRunInParallel() throws Exception {
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        dispatcher.execute("GAME01", blocker::join);
+
+        // La partida bloqueada no debe impedir que otra avance
+        String result = dispatcher.submit("GAME02", () -> "done").get(5, TimeUnit.SECONDS);
+
+        assertEquals("done", result);
+        blocker.complete(null);
+    }
+
+    @Test
+    void failingCommand_shouldCompleteExceptionallyAndNotBlockMailbox() {
+        CompletableFuture<Void> failed = dispatcher.execute("ABC123", () -> {
+            throw new IllegalStateException("It's not your turn.");
+        });
+        CompletableFuture<String> next = dispatcher.submit("ABC123", () -> "next");
+
+        assertThrows(Exception.class, failed::join);
+        assertEquals("next", next.join());
+    }
+}
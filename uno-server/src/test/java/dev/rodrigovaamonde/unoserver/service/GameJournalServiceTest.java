@@ -0,0 +1,128 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.AcceptedCommand;
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameSnapshotCodec;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import dev.rodrigovaamonde.unoserver.model.GameEvent;
+import dev.rodrigovaamonde.unoserver.model.GameSnapshot;
+import dev.rodrigovaamonde.unoserver.repository.GameEventRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameSnapshotRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GameJournalServiceTest {
+
+    private static final String GAME_CODE = "JOURNAL";
+
+    private final GameEventRepository gameEventRepository = mock(GameEventRepository.class);
+    private final GameSnapshotRepository gameSnapshotRepository = mock(GameSnapshotRepository.class);
+    private final GameJournalService journalService =
+        new GameJournalService(gameEventRepository, gameSnapshotRepository, true, 3);
+
+    /**
+     * Dos jugadores, mazo de robo vacío y una pila de descartes grande: el primer robo rebaraja.
+     */
+    private GameState createGame() {
+        GameState game = new GameState(7L, GAME_CODE);
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            game.setCardId((byte) code, code + 1L);
+        }
+        PlayerState first = new PlayerState(1L, "Ana");
+        PlayerState second = new PlayerState(2L, "Luis");
+        first.getHand().add(CardCodes.encode(Color.GREEN, CardValue.ONE, 0));
+        second.getHand().add(CardCodes.encode(Color.GREEN, CardValue.TWO, 0));
+        game.getPlayers().add(first);
+        game.getPlayers().add(second);
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            byte card = (byte) code;
+            if (!first.getHand().contains(card) && !second.getHand().contains(card)
+                && CardCodes.color(card) == Color.BLUE) {
+                game.getDiscardPile().push(card);
+            }
+        }
+        game.getDiscardPile().push(CardCodes.encode(Color.RED, CardValue.FIVE, 0));
+        game.setCurrentColor(Color.RED);
+        game.setCurrentPlayerIndex(0);
+        return game;
+    }
+
+    private GameEvent toEvent(Long gameId, AcceptedCommand command) {
+        GameEvent event = new GameEvent();
+        event.setGameId(gameId);
+        event.setSequence(command.sequence());
+        event.setType(command.type());
+        event.setPlayerId(command.playerId());
+        event.setCardId(command.cardId());
+        event.setChosenColor(command.chosenColor());
+        event.setTargetPlayerId(command.targetPlayerId());
+        return event;
+    }
+
+    @Test
+    void rebuild_shouldReplayEventsOnTopOfLatestSnapshot_includingReshuffles() {
+        GameState live = createGame();
+        byte[] initialSnapshot = GameSnapshotCodec.encode(live);
+
+        GameEngine engine = new GameEngine(true);
+        engine.register(live);
+        engine.drawCard(GAME_CODE, 1L);
+        engine.passTurn(GAME_CODE, 1L);
+        engine.challengeUno(GAME_CODE, 2L, 1L);
+        List<GameEvent> events = new ArrayList<>();
+        live.drainPendingCommands().forEach(command -> events.add(toEvent(7L, command)));
+
+        when(gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc(7L))
+            .thenReturn(Optional.of(new GameSnapshot(7L, 0L, initialSnapshot)));
+        when(gameEventRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(7L, 0L)).thenReturn(events);
+
+        Instant lastActivityAt = Instant.parse("2025-01-01T10:00:00Z");
+        GameState rebuilt = journalService.rebuild(7L, GAME_CODE, lastActivityAt).orElseThrow();
+
+        assertEquals(3, events.size());
+        // La reproducción no cuenta como actividad: se conserva la de la fila
+        assertEquals(lastActivityAt.toEpochMilli(), rebuilt.getLastActivityMillis());
+        assertEquals(live.getVersion(), rebuilt.getVersion());
+        assertEquals(live.getCurrentPlayerIndex(), rebuilt.getCurrentPlayerIndex());
+        assertArrayEquals(GameSnapshotCodec.encode(live), GameSnapshotCodec.encode(rebuilt));
+    }
+
+    @Test
+    void append_shouldWriteEventsAndSnapshotEveryInterval() {
+        GameState live = createGame();
+        GameEngine engine = new GameEngine(true);
+        engine.register(live);
+        when(gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc(7L))
+            .thenReturn(Optional.of(new GameSnapshot(7L, 0L, new byte[0])));
+
+        engine.passTurn(GAME_CODE, 1L);
+        engine.passTurn(GAME_CODE, 2L);
+        journalService.append(live.copy(), live.drainPendingCommands());
+        verify(gameEventRepository).saveAll(anyList());
+        verify(gameSnapshotRepository, never()).save(any());
+
+        engine.passTurn(GAME_CODE, 1L);
+        journalService.append(live.copy(), live.drainPendingCommands());
+        verify(gameSnapshotRepository).save(argThat(snapshot -> snapshot.getSequence() == 3L));
+    }
+
+    @Test
+    void rebuild_shouldBeEmpty_whenGameHasNoSnapshot() {
+        when(gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc(7L)).thenReturn(Optional.empty());
+
+        assertTrue(journalService.rebuild(7L, GAME_CODE, null).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Operation;
+import dev.rodrigovaamonde.unoserver.service.GameMetrics.Phase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GameMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GameEngine gameEngine;
+    private GameRepository gameRepository;
+    private GameMetrics gameMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        gameEngine = new GameEngine(true);
+        gameRepository = mock(GameRepository.class);
+        gameMetrics = new GameMetrics(meterRegistry, gameEngine, gameRepository);
+    }
+
+    @Test
+    void record_shouldTimeSuccessfulOperation() {
+        String result = gameMetrics.record(Operation.CREATE, () -> "ABC123");
+
+        assertEquals("ABC123", result);
+        assertEquals(1, meterRegistry.get("uno.game.operation").tag("operation", "create").timer().count());
+        assertTrue(meterRegistry.find("uno.game.errors").counters().isEmpty());
+    }
+
+    @Test
+    void record_shouldCountErrorsByExceptionType() {
+        assertThrows(IllegalStateException.class, () -> gameMetrics.record(Operation.PLAY_CARD, () -> {
+            throw new IllegalStateException("It's not your turn.");
+        }));
+
+        assertEquals(1.0, meterRegistry.get("uno.game.errors")
+            .tag("operation", "play-card")
+            .tag("exception", "IllegalStateException")
+            .counter().count());
+        assertEquals(1, meterRegistry.get("uno.game.operation").tag("operation", "play-card").timer().count());
+    }
+
+    @Test
+    void phases_shouldRecordEachLapInItsPhase() {
+        GameMetrics.Phases phases = gameMetrics.phases(Operation.PASS_TURN);
+        phases.lap(Phase.LOAD);
+        phases.lap(Phase.RULES);
+        phases.lap(Phase.BROADCAST);
+
+        for (String phase : new String[]{"load", "rules", "broadcast"}) {
+            assertEquals(1, meterRegistry.get("uno.game.operation.phase")
+                .tag("operation", "pass-turn").tag("phase", phase).timer().count());
+        }
+        assertEquals(0, meterRegistry.get("uno.game.operation.phase")
+            .tag("operation", "pass-turn").tag("phase", "save").timer().count());
+    }
+
+    @Test
+    void gauges_shouldReportLiveAndActiveGames() {
+        gameEngine.register(new GameState(1L, "ABC123"));
+        when(gameRepository.countByStatus(Game.GameStatus.IN_PROGRESS)).thenReturn(7L);
+        gameMetrics.refreshActiveGames();
+
+        assertEquals(1.0, meterRegistry.get("uno.games.live").gauge().value());
+        assertEquals(7.0, meterRegistry.get("uno.games.active").tag("status", "IN_PROGRESS").gauge().value());
+    }
+
+    @Test
+    void gauges_shouldNotQueryDatabaseOnScrape() {
+        meterRegistry.get("uno.games.active").tag("status", "IN_PROGRESS").gauge().value();
+        meterRegistry.get("uno.games.active").tag("status", "WAITING_FOR_PLAYERS").gauge().value();
+
+        verifyNoInteractions(gameRepository);
+    }
+}
@@ -0,0 +1,129 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.ClusterNode;
+import dev.rodrigovaamonde.unoserver.repository.ClusterNodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameOwnershipServiceTest {
+
+    @Mock
+    private ClusterNodeRepository clusterNodeRepository;
+
+    @Mock
+    private GameCommandDispatcher commandDispatcher;
+
+    @Mock
+    private GameWriteBehindService writeBehindService;
+
+    private GameEngine gameEngine;
+    private GameOwnershipService ownershipService;
+
+    @BeforeEach
+    void setUp() {
+        gameEngine = new GameEngine(true);
+        ownershipService = new GameOwnershipService(clusterNodeRepository, gameEngine, commandDispatcher,
+            writeBehindService, true, "node-a", "http://node-a:8080", 15_000L);
+    }
+
+    private String gameOwnedBy(ConsistentHashRing ring, String nodeId) {
+        return LongStream.range(0, 1_000)
+            .mapToObj(GameCodes::encode)
+            .filter(code -> nodeId.equals(ring.ownerOf(code)))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private void clusterOf(String... nodeIds) {
+        List<ClusterNode> nodes = Arrays.stream(nodeIds)
+            .map(id -> new ClusterNode(id, "http://" + id + ":8080", Instant.now()))
+            .toList();
+        when(clusterNodeRepository.findByLastHeartbeatAfter(any())).thenReturn(nodes);
+    }
+
+    @Test
+    void isLocal_shouldOwnEveryGameBeforeOtherNodesJoin() {
+        assertTrue(ownershipService.isLocal("ABC123"));
+        assertTrue(ownershipService.isLocal("ZZZ999"));
+    }
+
+    @Test
+    void heartbeat_shouldRebalanceWhenNodeJoins() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b"));
+        String foreignGame = gameOwnedBy(ring, "node-b");
+        String localGame = gameOwnedBy(ring, "node-a");
+        clusterOf("node-a", "node-b");
+
+        ownershipService.heartbeat();
+
+        assertFalse(ownershipService.isLocal(foreignGame));
+        assertTrue(ownershipService.isLocal(localGame));
+        assertEquals("http://node-b:8080", ownershipService.ownerOf(foreignGame).getUrl());
+        verify(clusterNodeRepository).save(argThat(node -> node.getNodeId().equals("node-a")));
+    }
+
+    @Test
+    void heartbeat_shouldHandOffLiveGamesOwnedByAnotherNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b"));
+        String foreignGame = gameOwnedBy(ring, "node-b");
+        String localGame = gameOwnedBy(ring, "node-a");
+        gameEngine.register(new GameState(1L, foreignGame));
+        gameEngine.register(new GameState(2L, localGame));
+        clusterOf("node-a", "node-b");
+
+        ownershipService.heartbeat();
+
+        verify(commandDispatcher).execute(eq(foreignGame), any());
+        verify(commandDispatcher, never()).execute(eq(localGame), any());
+    }
+
+    @Test
+    void heartbeat_shouldTakeBackGamesWhenNodeLeaves() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b"));
+        String foreignGame = gameOwnedBy(ring, "node-b");
+        clusterOf("node-a", "node-b");
+        ownershipService.heartbeat();
+
+        clusterOf("node-a");
+        ownershipService.heartbeat();
+
+        assertTrue(ownershipService.isLocal(foreignGame));
+    }
+
+    @Test
+    void ownerOf_shouldBeNullWhenNoNodeIsAlive() {
+        clusterOf();
+
+        ownershipService.heartbeat();
+
+        assertNull(ownershipService.ownerOf("ABC123"));
+        assertFalse(ownershipService.isLocal("ABC123"));
+    }
+
+    @Test
+    void isLocal_shouldAlwaysBeTrueWhenClusterIsDisabled() {
+        GameOwnershipService standalone = new GameOwnershipService(clusterNodeRepository, gameEngine,
+            commandDispatcher, writeBehindService, false, "node-a", "http://node-a:8080", 15_000L);
+
+        standalone.heartbeat();
+
+        assertTrue(standalone.isLocal("ABC123"));
+        verifyNoInteractions(clusterNodeRepository);
+    }
+}
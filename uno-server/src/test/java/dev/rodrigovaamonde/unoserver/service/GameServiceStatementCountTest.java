@@ -0,0 +1,63 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.model.Game;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cuenta las sentencias JDBC que lanza Hibernate al crear partidas contra H2.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class GameServiceStatementCountTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void createGameWithPlayer_shouldOnlyInsertGameAndCreator() {
+        Game game = gameService.createGameWithPlayer("Contador de sentencias");
+
+        assertNotNull(game.getId());
+        // La sala en espera no tiene mazo: partida + creador
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+            "Prepared statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void startGameByCode_shouldInsertDeckInBatches() {
+        Game game = gameService.createGameWithPlayer("Anfitrión");
+        gameService.joinGameByCode(game.getGameCode(), "Invitado");
+        statistics.clear();
+
+        gameService.startGameByCode(game.getGameCode(), game.getCreatedBy().getId());
+
+        // Las 108 cartas se crean al empezar
+        assertTrue(statistics.getEntityInsertCount() >= 108,
+            "Inserted entities: " + statistics.getEntityInsertCount());
+        // Con IDENTITY eran más de 108 sentencias; con ids por bloques y lotes JDBC quedan
+        // las lecturas de la partida, un nextval y unos pocos lotes de INSERT/UPDATE
+        assertTrue(statistics.getPrepareStatementCount() <= 20,
+            "Prepared statements: " + statistics.getPrepareStatementCount());
+    }
+}
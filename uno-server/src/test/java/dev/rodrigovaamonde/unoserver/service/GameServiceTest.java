@@ -2,7 +2,10 @@ package dev.rodrigovaamonde.unoserver.service;
 
 import dev.rodrigovaamonde.unoserver.dto.ChallengeUnoRequestDTO;
 import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.HandCardDTO;
 import dev.rodrigovaamonde.unoserver.dto.PlayCardRequestDTO;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
 import dev.rodrigovaamonde.unoserver.model.*; // Importar los modelos de cartas
 import dev.rodrigovaamonde.unoserver.repository.GameRepository;
 import org.junit.jupiter.api.Test;
@@ -10,15 +13,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList; // Importar ArrayList
 import java.util.List;      // Importar List
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 
@@ -31,12 +40,47 @@ class GameServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    // Motor en memoria desactivado (mock): los tests ejercitan el camino JPA
+    @Mock
+    private GameEngine gameEngine;
+
+    @Mock
+    private GameSnapshotService gameSnapshotService;
+
+    @Mock
+    private GameJournalService gameJournalService;
+
+    @Mock
+    private GameBroadcastService gameBroadcastService;
+
+    @Mock
+    private GameCodeAllocator gameCodeAllocator;
+
+    @Mock
+    private IdleGameReaper idleGameReaper;
+
+    @Mock
+    private TurnTimerService turnTimerService;
+
+    @Mock
+    private GameCache gameCache;
+
+    @Mock
+    private LobbyIndex lobbyIndex;
+
+    @Mock
+    private GameCommandDispatcher commandDispatcher;
+
+    @Spy
+    private GameMetrics gameMetrics =
+        new GameMetrics(new SimpleMeterRegistry(), mock(GameEngine.class), mock(GameRepository.class));
+
     @InjectMocks
     private GameService gameService;
 
     /**
      * Crea un mazo de prueba con un número específico de cartas simples.
-     * Esto evita la necesidad de llamar al método privado initializeDeck() del servicio.
+     * Esto evita la necesidad de usar la baraja completa de GameDeck.initializeDeck().
      *
      * @param cardCount El número de cartas a crear.
      * @return Una lista de cartas para usar en los tests.
@@ -54,6 +98,13 @@ class GameServiceTest {
         return deck;
     }
 
+    private void runCommandsInline() {
+        when(commandDispatcher.execute(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
     @Test
     void joinGame_shouldAddPlayerToGame() {
         // Arrange
@@ -130,6 +181,38 @@ class GameServiceTest {
         assertEquals("A player with the name 'Rodrigo' is already in this game.", exception.getMessage());
     }
 
+    @Test
+    void joinGame_shouldThrowException_whenGameIsFull() {
+        Long gameId = 1L;
+        Game game = new Game("ABCDEF");
+        game.setId(gameId);
+        for (int i = 1; i <= Game.MAX_PLAYERS; i++) {
+            game.addPlayer(new Player("Jugador " + i));
+        }
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> gameService.joinGame(gameId, "Rodrigo"));
+
+        assertEquals("The game is full.", exception.getMessage());
+        verify(lobbyIndex, never()).put(any());
+    }
+
+    @Test
+    void joinGame_shouldUpdateLobbyIndex() {
+        Long gameId = 1L;
+        Game game = new Game("ABCDEF");
+        game.setId(gameId);
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        gameService.joinGame(gameId, "Rodrigo");
+
+        verify(lobbyIndex).put(game);
+    }
+
     @Test
     void startGame_shouldStartGameSuccessfully() {
         // Arrange
@@ -167,6 +250,89 @@ class GameServiceTest {
         verify(gameRepository, times(1)).save(game);
     }
 
+    @Test
+    void startGame_shouldCreateFullDeck_whenLobbyHasNoDeck() {
+        Long gameId = 1L;
+        Game game = new Game("XYZ123");
+        game.setId(gameId);
+        game.addPlayer(new Player("Player 1"));
+        game.addPlayer(new Player("Player 2"));
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Game startedGame = gameService.startGame(gameId);
+
+        // 108 - 14 (repartidas) - 1 (descarte)
+        assertEquals(93, startedGame.getDrawPile().size());
+        assertTrue(startedGame.getDrawPile().stream().allMatch(card -> card.getDeckGame() == game));
+        verify(idleGameReaper).track("XYZ123", Game.GameStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void createGameWithPlayer_shouldNotCreateDeck() {
+        when(gameCodeAllocator.nextCode()).thenReturn("ABC123");
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Game game = gameService.createGameWithPlayer("Creator");
+
+        assertEquals("ABC123", game.getGameCode());
+        assertTrue(game.getDrawPile().isEmpty());
+        assertEquals(1, game.getPlayers().size());
+        assertEquals("Creator", game.getCreatedBy().getName());
+        verify(idleGameReaper).track("ABC123", Game.GameStatus.WAITING_FOR_PLAYERS);
+    }
+
+    @Test
+    void createQuickMatch_shouldThrowException_whenFewerThanTwoPlayers() {
+        assertThrows(IllegalArgumentException.class, () -> gameService.createQuickMatch(List.of("Solo")));
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void createQuickMatch_shouldStartGameWithoutPassingThroughLobby() {
+        runCommandsInline();
+        when(gameCodeAllocator.nextCode()).thenReturn("QUICK1");
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
+            Game game = invocation.getArgument(0);
+            game.setId(1L);
+            for (Player player : game.getPlayers()) {
+                player.setId(10L + player.getSeat());
+            }
+            return game;
+        });
+
+        GameResponseDTO response;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            response = gameService.createQuickMatch(List.of("Ana", "Luis", "Eva"));
+
+            // Nada se difunde hasta confirmar la transacción
+            verifyNoInteractions(messagingTemplate);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Game.GameStatus.IN_PROGRESS, response.getStatus());
+        assertEquals(3, response.getPlayers().size());
+        assertEquals(10L, response.getCreatedById());
+        verify(gameRepository, times(1)).save(any(Game.class));
+        verify(idleGameReaper, times(1)).track(any(), any());
+        verify(idleGameReaper).track("QUICK1", Game.GameStatus.IN_PROGRESS);
+        verify(lobbyIndex, never()).put(any());
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/QUICK1"), any(GameResponseDTO.class));
+        verify(gameMetrics).phases(GameMetrics.Operation.QUICK_MATCH);
+    }
+
+    @Test
+    void createQuickMatch_shouldThrowException_whenNamesRepeat() {
+        when(gameCodeAllocator.nextCode()).thenReturn("QUICK1");
+
+        assertThrows(IllegalArgumentException.class, () -> gameService.createQuickMatch(List.of("Ana", "ana")));
+        verifyNoInteractions(gameRepository);
+    }
+
     @Test
     void startGame_shouldNotifyClientsViaWebSocket() {
         Long gameId = 1L;
@@ -177,14 +343,53 @@ class GameServiceTest {
         game.addPlayer(new Player("Player 1"));
         game.addPlayer(new Player("Player 2"));
 
+        runCommandsInline();
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
         when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         gameService.startGame(gameId);
 
         ArgumentCaptor<String> destinationCaptor = ArgumentCaptor.forClass(String.class);
-        verify(messagingTemplate, times(1)).convertAndSend(destinationCaptor.capture(), any(GameResponseDTO.class));
+        ArgumentCaptor<GameResponseDTO> payloadCaptor = ArgumentCaptor.forClass(GameResponseDTO.class);
+        verify(commandDispatcher).execute(eq(gameCode), any());
+        verify(messagingTemplate, times(1)).convertAndSend(destinationCaptor.capture(), payloadCaptor.capture());
         assertEquals("/topic/" + gameCode, destinationCaptor.getValue());
+        // Sin motor en memoria la secuencia es el contador de jugadas
+        assertEquals(game.getMoveCount(), payloadCaptor.getValue().getSequence());
+    }
+
+    @Test
+    void startGame_shouldPutGameInPlayOnlyAfterCommit() {
+        Game game = new Game("XYZ123");
+        game.setId(1L);
+        game.addPlayer(new Player("Player 1"));
+        game.addPlayer(new Player("Player 2"));
+
+        runCommandsInline();
+        when(gameEngine.isEnabled()).thenReturn(true);
+        when(gameEngine.register(any(GameState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gameService.startGame(1L);
+
+            // Sin confirmar todavía: la instantánea inicial va en la transacción, la partida aún no está viva
+            verify(gameJournalService).start(any(GameState.class));
+            verify(gameEngine, never()).register(any(GameState.class));
+            verifyNoInteractions(turnTimerService, gameBroadcastService, commandDispatcher);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // La partida entra en juego y se difunde desde su buzón
+        verify(commandDispatcher).execute(eq("XYZ123"), any());
+        verify(gameEngine).register(any(GameState.class));
+        verify(turnTimerService).track("XYZ123");
+        verify(gameBroadcastService).publish(any(GameState.class));
     }
 
     @Test
@@ -289,6 +494,15 @@ class GameServiceTest {
         assertNotEquals(currentPlayer.getId(), game.getCurrentPlayer().getId());
     }
 
+    /**
+     * Vacía el mazo y las manos de prueba, que repiten la misma carta más veces de las que tiene un
+     * mazo real, para poder hidratar la partida como {@link GameState} (p. ej. en la caché de lectura).
+     */
+    private void clearCards(Game game) {
+        game.getDrawPile().clear();
+        game.getPlayers().forEach(player -> player.getHand().clear());
+    }
+
     /**
      * Método de ayuda para configurar un juego en progreso para los tests.
      */
@@ -466,6 +680,44 @@ class GameServiceTest {
         verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(GameResponseDTO.class));
     }
 
+    @Test
+    void getHand_shouldReturnPlayerCardsWithIds() {
+        Game game = setupInProgressGame();
+        clearCards(game);
+        Player player = game.getPlayers().get(1);
+        Card card = new Card(Color.GREEN, CardValue.SKIP);
+        card.setId(300L);
+        player.getHand().add(card);
+        when(gameCache.get(game.getGameCode())).thenReturn(Optional.of(GameState.fromEntity(game)));
+
+        List<HandCardDTO> hand = gameService.getHand(game.getGameCode(), player.getId());
+
+        assertEquals(1, hand.size());
+        assertEquals(300L, hand.getFirst().id());
+        assertEquals(CardValue.SKIP, hand.getFirst().value());
+        // No es su turno: ninguna carta es una jugada legal
+        assertFalse(hand.getFirst().playable());
+    }
+
+    @Test
+    void getHand_shouldMarkPlayableCards_whenItIsThePlayersTurn() {
+        Game game = setupInProgressGame();
+        clearCards(game);
+        Player player = game.getCurrentPlayer();
+        Card redSeven = new Card(Color.RED, CardValue.SEVEN);
+        redSeven.setId(301L);
+        Card greenTwo = new Card(Color.GREEN, CardValue.TWO);
+        greenTwo.setId(302L);
+        player.getHand().add(redSeven);
+        player.getHand().add(greenTwo);
+        when(gameCache.get(game.getGameCode())).thenReturn(Optional.of(GameState.fromEntity(game)));
+
+        List<HandCardDTO> hand = gameService.getHand(game.getGameCode(), player.getId());
+
+        assertTrue(hand.get(0).playable());
+        assertFalse(hand.get(1).playable());
+    }
+
     @Test
     void declareUno_shouldSucceed_whenPlayerHasOneCardLeft() {
         Game game = setupInProgressGame();
@@ -0,0 +1,143 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.AcceptedCommand;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.GameEventType;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameWriteBehindServiceTest {
+
+    private static final String GAME_CODE = "FLUSH1";
+
+    @Mock
+    private GameRepository gameRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private GameSnapshotService gameSnapshotService;
+    @Mock
+    private GameJournalService gameJournalService;
+    @Mock
+    private GameBroadcastService gameBroadcastService;
+
+    private GameEngine gameEngine;
+    private GameWriteBehindService writeBehindService;
+
+    @BeforeEach
+    void setUp() {
+        gameEngine = new GameEngine(true);
+        writeBehindService = new GameWriteBehindService(gameEngine, gameRepository, transactionTemplate,
+            gameSnapshotService, gameJournalService, gameBroadcastService, new SimpleMeterRegistry());
+
+        GameState game = new GameState(1L, GAME_CODE);
+        game.getPlayers().add(new PlayerState(1L, "Ana"));
+        game.getPlayers().add(new PlayerState(2L, "Luis"));
+        game.setCurrentPlayerIndex(0);
+        game.setVersion(7L);
+        gameEngine.register(game);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void handOff_shouldEvictWithoutWriting_whenNothingIsPending() {
+        writeBehindService.handOff(GAME_CODE);
+
+        // La base de datos ya tiene este estado: no se escribe nada
+        verifyNoInteractions(transactionTemplate, gameRepository);
+        assertTrue(gameEngine.find(GAME_CODE).isEmpty());
+        verify(gameJournalService).forget(1L);
+        verify(gameBroadcastService).forget(GAME_CODE);
+    }
+
+    @Test
+    void flushDirtyGames_shouldDiscardStaleCopy_whenDatabaseHasNewerVersion() {
+        runTransactionsInline();
+        when(gameRepository.advanceMoveCount(1L, 7L)).thenReturn(0);
+        gameEngine.markDirty(GAME_CODE);
+
+        writeBehindService.flushDirtyGames();
+
+        // Otro nodo ya ha escrito una versión posterior: ni se reescriben las filas ni se anota el diario
+        verify(gameRepository, never()).findById(any());
+        verify(gameJournalService, never()).append(any(), anyList());
+        assertTrue(gameEngine.find(GAME_CODE).isEmpty());
+        verify(gameBroadcastService).forget(GAME_CODE);
+    }
+
+    @Test
+    void flushDirtyGames_shouldNotAppendToJournal_whenSnapshotIsNotNewer() {
+        runTransactionsInline();
+        when(gameSnapshotService.isEnabled()).thenReturn(true);
+        when(gameSnapshotService.save(any(GameState.class))).thenReturn(false);
+        gameEngine.markDirty(GAME_CODE);
+
+        writeBehindService.flushDirtyGames();
+
+        // La instantánea no ha cambiado ninguna fila: la copia en memoria está obsoleta
+        verify(gameJournalService, never()).append(any(), anyList());
+        assertTrue(gameEngine.find(GAME_CODE).isEmpty());
+    }
+
+    @Test
+    void handOff_shouldWaitForInFlightFlush_andWriteItsRequeuedCommands() throws Exception {
+        AcceptedCommand command = new AcceptedCommand(8L, GameEventType.PASS_TURN, 1L, null, null, null);
+        GameState game = gameEngine.find(GAME_CODE).orElseThrow();
+        game.requeuePendingCommands(List.of(command));
+        gameEngine.markDirty(GAME_CODE);
+
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gameSnapshotService.isEnabled()).thenReturn(true);
+        when(gameSnapshotService.save(any(GameState.class))).thenReturn(true);
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> {
+                flushing.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                throw new IllegalStateException("connection lost");
+            })
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        CompletableFuture<Void> scheduled = CompletableFuture.runAsync(writeBehindService::flushDirtyGames);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> handOff = CompletableFuture.runAsync(() -> writeBehindService.handOff(GAME_CODE));
+
+        // El traspaso espera a que el volcado en curso termine antes de decidir nada
+        Thread.sleep(200);
+        assertFalse(handOff.isDone());
+        assertTrue(gameEngine.find(GAME_CODE).isPresent());
+
+        release.countDown();
+        scheduled.get(5, TimeUnit.SECONDS);
+        handOff.get(5, TimeUnit.SECONDS);
+
+        // El volcado falló y devolvió su comando: el traspaso lo escribe antes de expulsar la partida
+        verify(gameJournalService).append(any(GameState.class), eq(List.of(command)));
+        assertTrue(gameEngine.find(GAME_CODE).isEmpty());
+    }
+}
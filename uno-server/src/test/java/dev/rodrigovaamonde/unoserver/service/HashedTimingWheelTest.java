@@ -0,0 +1,83 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 8 ranuras de 100 ms: una vuelta completa son 800 ms
+        wheel = new HashedTimingWheel<>(100, 8, 0L);
+    }
+
+    @Test
+    void advance_shouldExpireOnlyDueTimeouts() {
+        wheel.schedule("A", 250);
+        wheel.schedule("B", 500);
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of("A"), wheel.advance(300));
+        assertEquals(List.of("B"), wheel.advance(500));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldSkipTimeoutsOfLaterRevolutions() {
+        // Misma ranura que 300 ms, pero dos vueltas después
+        wheel.schedule("far", 1_900);
+        wheel.schedule("near", 300);
+
+        assertEquals(List.of("near"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(1_100));
+        assertTrue(wheel.contains("far"));
+        assertEquals(List.of("far"), wheel.advance(1_900));
+    }
+
+    @Test
+    void advance_shouldExpireEverythingDueAfterLongPause() {
+        wheel.schedule("A", 100);
+        wheel.schedule("B", 750);
+        wheel.schedule("C", 5_000);
+
+        List<String> expired = wheel.advance(3_000);
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("A", "B")));
+        assertTrue(wheel.contains("C"));
+    }
+
+    @Test
+    void schedule_shouldReplacePreviousDeadline() {
+        wheel.schedule("A", 200);
+        wheel.schedule("A", 600);
+
+        assertEquals(List.of(), wheel.advance(500));
+        assertEquals(List.of("A"), wheel.advance(600));
+    }
+
+    @Test
+    void cancel_shouldRemoveTimeout() {
+        wheel.schedule("A", 200);
+        wheel.schedule("B", 200);
+
+        assertTrue(wheel.cancel("A"));
+        assertFalse(wheel.cancel("A"));
+
+        assertEquals(List.of("B"), wheel.advance(200));
+    }
+
+    @Test
+    void schedule_shouldExpirePastDeadlineOnNextTick() {
+        wheel.advance(1_000);
+        wheel.schedule("late", 400);
+
+        assertEquals(List.of("late"), wheel.advance(1_100));
+    }
+}
@@ -0,0 +1,87 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private HierarchicalTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        // Ticks de 10 ms: el nivel 0 cubre 640 ms, el 1 unos 41 s y el 2 unos 44 min
+        wheel = new HierarchicalTimingWheel<>(10, 0L);
+    }
+
+    @Test
+    void advance_shouldExpireOnlyDueTimeouts() {
+        wheel.schedule("A", 250);
+        wheel.schedule("B", 500);
+
+        assertEquals(List.of(), wheel.advance(240));
+        assertEquals(List.of("A"), wheel.advance(250));
+        assertEquals(List.of("B"), wheel.advance(600));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldCascadeDistantTimeoutsDownToTheirExactTick() {
+        // Nivel 1 y nivel 2
+        wheel.schedule("seconds", 30_000);
+        wheel.schedule("minutes", 20 * 60_000);
+
+        assertEquals(List.of(), wheel.advance(29_990));
+        assertEquals(List.of("seconds"), wheel.advance(30_000));
+        assertEquals(List.of(), wheel.advance(20 * 60_000 - 10));
+        assertEquals(List.of("minutes"), wheel.advance(20 * 60_000));
+    }
+
+    @Test
+    void advance_shouldExpireEverythingWhenFallingBehind() {
+        List<String> scheduled = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            wheel.schedule("game-" + i, i * 997L);
+            scheduled.add("game-" + i);
+        }
+
+        List<String> expired = wheel.advance(500_000);
+
+        assertEquals(200, expired.size());
+        assertTrue(expired.containsAll(scheduled));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_shouldReplacePreviousDeadline() {
+        wheel.schedule("A", 5_000);
+        wheel.schedule("A", 200);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("A"), wheel.advance(200));
+        assertEquals(List.of(), wheel.advance(10_000));
+    }
+
+    @Test
+    void schedule_shouldExpirePastDeadlinesOnNextTick() {
+        wheel.advance(1_000);
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of(), wheel.advance(1_000));
+        assertEquals(List.of("late"), wheel.advance(1_010));
+    }
+
+    @Test
+    void cancel_shouldRemoveTimeout() {
+        wheel.schedule("A", 90_000);
+
+        assertTrue(wheel.cancel("A"));
+        assertFalse(wheel.cancel("A"));
+        assertFalse(wheel.contains("A"));
+        assertEquals(List.of(), wheel.advance(100_000));
+    }
+}
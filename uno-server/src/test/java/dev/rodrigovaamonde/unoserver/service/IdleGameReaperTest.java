@@ -0,0 +1,206 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository.GameActivityView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdleGameReaperTest {
+
+    private static final long LOBBY_TIMEOUT = 60_000L;
+    private static final long GAME_TIMEOUT = 120_000L;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameCommandDispatcher commandDispatcher;
+
+    @Mock
+    private GameBroadcastService gameBroadcastService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private GameCache gameCache;
+
+    @Mock
+    private LobbyIndex lobbyIndex;
+
+    private GameEngine gameEngine;
+    private IdleGameReaper reaper;
+
+    private record Activity(Long id, String gameCode, Game.GameStatus status, Instant lastActivityAt)
+        implements GameActivityView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getGameCode() {
+            return gameCode;
+        }
+
+        @Override
+        public Game.GameStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public Instant getLastActivityAt() {
+            return lastActivityAt;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        gameEngine = new GameEngine(true);
+        reaper = new IdleGameReaper(gameRepository, gameEngine, commandDispatcher, gameBroadcastService,
+            transactionTemplate, gameCache, lobbyIndex, new SimpleMeterRegistry(), true, 1_000L, 64, LOBBY_TIMEOUT, GAME_TIMEOUT, 100);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static Activity activity(String gameCode, Game.GameStatus status, long lastActivityMillis) {
+        return new Activity(1L, gameCode, status, Instant.ofEpochMilli(lastActivityMillis));
+    }
+
+    @Test
+    void reap_shouldIgnoreGamesBeforeTheirDeadline() {
+        long now = System.currentTimeMillis();
+        reaper.track("LOBBY1", Game.GameStatus.WAITING_FOR_PLAYERS);
+
+        assertEquals(0, reaper.reap(now + LOBBY_TIMEOUT / 2));
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void reap_shouldCancelIdleLobbiesInOneUpdate() {
+        runTransactionsInline();
+        long now = System.currentTimeMillis();
+        reaper.track("LOBBY1", Game.GameStatus.WAITING_FOR_PLAYERS);
+        reaper.track("LOBBY2", Game.GameStatus.WAITING_FOR_PLAYERS);
+        long reapAt = now + LOBBY_TIMEOUT + 2_000L;
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of(
+            activity("LOBBY1", Game.GameStatus.WAITING_FOR_PLAYERS, now),
+            activity("LOBBY2", Game.GameStatus.WAITING_FOR_PLAYERS, now)));
+        when(gameRepository.cancelIdleGames(anyCollection(), eq("WAITING_FOR_PLAYERS"), any(), any())).thenReturn(2);
+
+        assertEquals(2, reaper.reap(reapAt));
+
+        verify(gameRepository).cancelIdleGames(eq(List.of("LOBBY1", "LOBBY2")), eq("WAITING_FOR_PLAYERS"),
+            eq(Instant.ofEpochMilli(reapAt - LOBBY_TIMEOUT)), eq(Instant.ofEpochMilli(reapAt)));
+        verify(gameCache).invalidateAll(List.of("LOBBY1", "LOBBY2"));
+        verify(lobbyIndex).removeIfIdle(List.of("LOBBY1", "LOBBY2"), reapAt - LOBBY_TIMEOUT);
+    }
+
+    @Test
+    void reap_shouldRescheduleLobbyWithRecentActivity() {
+        long now = System.currentTimeMillis();
+        reaper.track("LOBBY1", Game.GameStatus.WAITING_FOR_PLAYERS);
+        long reapAt = now + LOBBY_TIMEOUT + 2_000L;
+        // Alguien se unió a mitad de plazo
+        long joinedAt = now + LOBBY_TIMEOUT / 2;
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of(
+            activity("LOBBY1", Game.GameStatus.WAITING_FOR_PLAYERS, joinedAt)));
+
+        assertEquals(0, reaper.reap(reapAt));
+        verify(gameRepository, never()).cancelIdleGames(anyCollection(), any(), any(), any());
+
+        // Vuelve a revisarse un plazo después de la última actividad
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of());
+        reaper.reap(joinedAt + LOBBY_TIMEOUT + 2_000L);
+        verify(gameRepository, times(2)).findActivityByGameCodes(List.of("LOBBY1"));
+    }
+
+    @Test
+    void reap_shouldForgetFinishedGames() {
+        long now = System.currentTimeMillis();
+        reaper.track("GAME1", Game.GameStatus.IN_PROGRESS);
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of(
+            activity("GAME1", Game.GameStatus.FINISHED, now)));
+
+        reaper.reap(now + GAME_TIMEOUT + 2_000L);
+        reaper.reap(now + 10 * GAME_TIMEOUT);
+
+        verify(gameRepository, times(1)).findActivityByGameCodes(anyCollection());
+    }
+
+    @Test
+    void reap_shouldCancelIdleLiveGameFromItsMailbox() {
+        long now = System.currentTimeMillis();
+        GameState state = new GameState(1L, "GAME1");
+        state.setLastActivityMillis(now);
+        gameEngine.register(state);
+        reaper.track("GAME1", Game.GameStatus.IN_PROGRESS);
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of(
+            activity("GAME1", Game.GameStatus.IN_PROGRESS, now)));
+        when(commandDispatcher.execute(eq("GAME1"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        reaper.reap(now + GAME_TIMEOUT + 2_000L);
+
+        assertEquals(Game.GameStatus.CANCELLED, state.getStatus());
+        verify(gameBroadcastService).publish(state);
+        verify(gameRepository, never()).cancelIdleGames(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void reap_shouldUseEngineActivityForLiveGames() {
+        long now = System.currentTimeMillis();
+        GameState state = new GameState(1L, "GAME1");
+        // La base de datos va por detrás del motor
+        state.setLastActivityMillis(now + GAME_TIMEOUT);
+        gameEngine.register(state);
+        reaper.track("GAME1", Game.GameStatus.IN_PROGRESS);
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of(
+            activity("GAME1", Game.GameStatus.IN_PROGRESS, now)));
+
+        reaper.reap(now + GAME_TIMEOUT + 2_000L);
+
+        assertEquals(Game.GameStatus.IN_PROGRESS, state.getStatus());
+        verifyNoInteractions(commandDispatcher);
+    }
+
+    @Test
+    void loadOpenGames_shouldScheduleGamesFromDatabase() {
+        long now = System.currentTimeMillis();
+        when(gameRepository.findActivityByStatusIn(anyCollection(), anyLong(), any())).thenReturn(List.of(
+            activity("LOBBY1", Game.GameStatus.WAITING_FOR_PLAYERS, now - LOBBY_TIMEOUT)));
+        when(gameRepository.findActivityByGameCodes(anyCollection())).thenReturn(List.of());
+
+        reaper.loadOpenGames();
+        reaper.reap(now + 2_000L);
+
+        verify(gameRepository).findActivityByGameCodes(List.of("LOBBY1"));
+    }
+}
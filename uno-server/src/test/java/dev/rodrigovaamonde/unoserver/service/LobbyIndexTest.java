@@ -0,0 +1,177 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository.LobbyView;
+import dev.rodrigovaamonde.unoserver.service.LobbyIndex.Lobby;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LobbyIndexTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LobbyIndex index;
+
+    private record View(Long id, String gameCode, String hostName, Long playerCount, Instant lastActivityAt)
+        implements LobbyView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getGameCode() {
+            return gameCode;
+        }
+
+        @Override
+        public String getHostName() {
+            return hostName;
+        }
+
+        @Override
+        public Long getPlayerCount() {
+            return playerCount;
+        }
+
+        @Override
+        public Instant getLastActivityAt() {
+            return lastActivityAt;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new LobbyIndex(gameRepository, meterRegistry, true);
+    }
+
+    private static Game lobby(long id, int players) {
+        Game game = new Game("LOBBY" + id);
+        game.setId(id);
+        for (int i = 1; i <= players; i++) {
+            Player player = new Player("Jugador " + i);
+            game.addPlayer(player);
+            if (i == 1) {
+                game.setCreatedBy(player);
+            }
+        }
+        return game;
+    }
+
+    private static List<Long> ids(List<Lobby> lobbies) {
+        return lobbies.stream().map(Lobby::id).toList();
+    }
+
+    @Test
+    void page_shouldReturnLobbiesInIdOrderFromCursor() {
+        index.put(lobby(3L, 1));
+        index.put(lobby(1L, 2));
+        index.put(lobby(2L, 1));
+        index.put(lobby(5L, 3));
+
+        assertEquals(List.of(1L, 2L), ids(index.page(0L, 1, 2)));
+        assertEquals(List.of(3L, 5L), ids(index.page(2L, 1, 2)));
+        assertEquals(List.of(), ids(index.page(5L, 1, 2)));
+        assertEquals("Jugador 1", index.page(0L, 1, 1).getFirst().hostName());
+    }
+
+    @Test
+    void page_shouldFilterBySeatAvailability() {
+        index.put(lobby(1L, Game.MAX_PLAYERS));
+        index.put(lobby(2L, Game.MAX_PLAYERS - 1));
+        index.put(lobby(3L, 2));
+
+        assertEquals(List.of(2L, 3L), ids(index.page(0L, 1, 10)));
+        assertEquals(List.of(3L), ids(index.page(0L, 2, 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.page(0L, 0, 10)));
+        assertEquals(Game.MAX_PLAYERS - 2, index.page(2L, 1, 10).getFirst().openSeats());
+    }
+
+    @Test
+    void put_shouldMoveLobbyWhenPlayersJoin() {
+        Game game = lobby(1L, Game.MAX_PLAYERS - 1);
+        index.put(game);
+        game.addPlayer(new Player("Último"));
+
+        index.put(game);
+
+        assertEquals(List.of(), index.page(0L, 1, 10));
+        assertEquals(Game.MAX_PLAYERS, index.page(0L, 0, 10).getFirst().playerCount());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_shouldDropStartedLobby() {
+        index.put(lobby(1L, 2));
+
+        index.remove("LOBBY1");
+
+        assertEquals(List.of(), index.page(0L, 0, 10));
+        assertEquals(0.0, meterRegistry.get("uno.lobby.open").gauge().value());
+    }
+
+    @Test
+    void removeIfIdle_shouldKeepLobbiesWithRecentActivity() {
+        Game idle = lobby(1L, 1);
+        idle.setLastActivityAt(Instant.ofEpochMilli(1_000L));
+        Game joined = lobby(2L, 2);
+        index.put(idle);
+        index.put(joined);
+
+        index.removeIfIdle(List.of("LOBBY1", "LOBBY2"), 5_000L);
+
+        assertEquals(List.of(2L), ids(index.page(0L, 0, 10)));
+    }
+
+    @Test
+    void reload_shouldReplaceIndexWithLobbiesInDatabase() {
+        LobbyIndex local = new LobbyIndex(gameRepository, new SimpleMeterRegistry(), false);
+        local.put(lobby(1L, 1));
+        when(gameRepository.findLobbies(eq(Game.GameStatus.WAITING_FOR_PLAYERS), anyLong(), any()))
+            .thenReturn(List.of(
+                new View(2L, "LOBBY2", "Ana", 3L, Instant.ofEpochMilli(1_000L)),
+                new View(4L, "LOBBY4", "Luis", 1L, Instant.ofEpochMilli(1_000L))));
+
+        assertEquals(2, local.reload());
+
+        assertEquals(List.of(2L, 4L), ids(local.page(0L, 1, 10)));
+        assertEquals(3, local.page(0L, 1, 1).getFirst().playerCount());
+    }
+
+    @Test
+    void reload_shouldKeepLobbiesChangedWhileLoading() {
+        index.put(lobby(1L, 2));
+        when(gameRepository.findLobbies(eq(Game.GameStatus.WAITING_FOR_PLAYERS), anyLong(), any()))
+            .thenAnswer(invocation -> {
+                // Otro jugador se une y su transacción se confirma mientras se leen las salas
+                index.put(lobby(1L, 3));
+                index.put(lobby(2L, 1));
+                return List.of(new View(1L, "LOBBY1", "Jugador 1", 2L, Instant.ofEpochMilli(1_000L)));
+            });
+
+        index.reload();
+
+        assertEquals(List.of(1L, 2L), ids(index.page(0L, 1, 10)));
+        assertEquals(3, index.page(0L, 1, 1).getFirst().playerCount());
+    }
+}
@@ -0,0 +1,188 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.dto.GameResponseDTO;
+import dev.rodrigovaamonde.unoserver.dto.QuickMatchDTO;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.model.Game;
+import dev.rodrigovaamonde.unoserver.model.Player;
+import dev.rodrigovaamonde.unoserver.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatchmakingServiceTest {
+
+    @Mock
+    private GameService gameService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GameMetrics gameMetrics;
+    private MatchmakingService matchmaking;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        gameMetrics = new GameMetrics(meterRegistry, mock(GameEngine.class), mock(GameRepository.class));
+        matchmaking = new MatchmakingService(gameService, gameMetrics, meterRegistry, 3, 60_000L, 60_000L);
+    }
+
+    private void startGamesWithQueuedPlayers() {
+        when(gameService.createQuickMatch(anyList())).thenAnswer(invocation -> quickMatch(invocation.getArgument(0)));
+    }
+
+    private static GameResponseDTO quickMatch(List<String> names) {
+        Game game = new Game("QUICK1");
+        for (int i = 0; i < names.size(); i++) {
+            Player player = new Player(names.get(i));
+            player.setId(i + 1L);
+            game.addPlayer(player);
+        }
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        return GameResponseDTO.fromEntity(game);
+    }
+
+    @Test
+    void enqueue_shouldStartGameWhenBatchIsFull() throws Exception {
+        startGamesWithQueuedPlayers();
+
+        CompletableFuture<QuickMatchDTO> ana = matchmaking.enqueue("Ana");
+        CompletableFuture<QuickMatchDTO> luis = matchmaking.enqueue(" Luis ");
+        assertFalse(ana.isDone());
+        verifyNoInteractions(gameService);
+        CompletableFuture<QuickMatchDTO> eva = matchmaking.enqueue("Eva");
+
+        verify(gameService).createQuickMatch(List.of("Ana", "Luis", "Eva"));
+        assertEquals(1L, ana.get().playerId());
+        assertEquals(2L, luis.get().playerId());
+        assertEquals(3L, eva.get().playerId());
+        assertEquals("QUICK1", eva.get().gameCode());
+        assertEquals(0, matchmaking.getWaiting());
+        assertEquals(1.0, meterRegistry.get("uno.matchmaking.games").counter().count());
+        assertEquals(3L, meterRegistry.get("uno.matchmaking.time-to-match").timer().count());
+    }
+
+    @Test
+    void enqueue_shouldRejectBlankNames() {
+        assertThrows(IllegalArgumentException.class, () -> matchmaking.enqueue("  "));
+        assertEquals(0, matchmaking.getWaiting());
+    }
+
+    @Test
+    void enqueue_shouldRequeuePlayersWithRepeatedName() {
+        startGamesWithQueuedPlayers();
+
+        matchmaking.enqueue("Ana");
+        CompletableFuture<QuickMatchDTO> repeated = matchmaking.enqueue("ana");
+        matchmaking.enqueue("Luis");
+
+        // Ana y Luis no llegan al tamaño de partida: vuelven delante y el repetido pasa al final
+        verifyNoInteractions(gameService);
+        assertEquals(3, matchmaking.getWaiting());
+        matchmaking.enqueue("Eva");
+        verifyNoInteractions(gameService);
+
+        matchmaking.enqueue("Pepe");
+        verify(gameService).createQuickMatch(List.of("Ana", "Luis", "Eva"));
+        assertFalse(repeated.isDone());
+        assertEquals(2, matchmaking.getWaiting());
+    }
+
+    @Test
+    void matchOverdue_shouldStartPartialGameAfterMaxWait() throws Exception {
+        MatchmakingService impatient = new MatchmakingService(gameService, gameMetrics, meterRegistry, 4, 1L, 60_000L);
+        startGamesWithQueuedPlayers();
+        CompletableFuture<QuickMatchDTO> ana = impatient.enqueue("Ana");
+        Thread.sleep(5);
+
+        // Un solo jugador no da para una partida
+        impatient.matchOverdue();
+        verifyNoInteractions(gameService);
+
+        impatient.enqueue("Luis");
+        impatient.matchOverdue();
+
+        verify(gameService).createQuickMatch(List.of("Ana", "Luis"));
+        assertTrue(ana.isDone());
+        assertEquals(0, impatient.getWaiting());
+    }
+
+    @Test
+    void matchOverdue_shouldWaitForFullGameBeforeMaxWait() {
+        matchmaking.enqueue("Ana");
+        matchmaking.enqueue("Luis");
+
+        matchmaking.matchOverdue();
+
+        verifyNoInteractions(gameService);
+        assertEquals(2, matchmaking.getWaiting());
+    }
+
+    @Test
+    void enqueue_shouldFailWholeBatchWhenGameCannotBeCreated() {
+        when(gameService.createQuickMatch(anyList())).thenThrow(new RuntimeException("Database unavailable"));
+
+        CompletableFuture<QuickMatchDTO> ana = matchmaking.enqueue("Ana");
+        matchmaking.enqueue("Luis");
+        CompletableFuture<QuickMatchDTO> eva = matchmaking.enqueue("Eva");
+
+        ExecutionException error = assertThrows(ExecutionException.class, ana::get);
+        assertEquals("Database unavailable", error.getCause().getMessage());
+        assertTrue(eva.isCompletedExceptionally());
+        assertEquals(0, matchmaking.getWaiting());
+    }
+
+    @Test
+    void enqueue_shouldSkipPlayersThatTimedOut() throws Exception {
+        MatchmakingService shortQueue = new MatchmakingService(gameService, gameMetrics, meterRegistry, 2, 60_000L, 1L);
+        CompletableFuture<QuickMatchDTO> gone = shortQueue.enqueue("Ana");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> gone.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        shortQueue.enqueue("Luis");
+
+        // Ana ya no espera: Luis no tiene con quién jugar
+        verify(gameService, never()).createQuickMatch(any());
+        assertEquals(1, shortQueue.getWaiting());
+    }
+
+    @Test
+    void enqueue_shouldNotTimeOutPlayersOnceTheirGameIsBeingCreated() throws Exception {
+        MatchmakingService slowGames = new MatchmakingService(gameService, gameMetrics, meterRegistry, 2, 60_000L, 100L);
+        // La partida tarda más en crearse de lo que les queda a los billetes
+        when(gameService.createQuickMatch(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return quickMatch(invocation.getArgument(0));
+        });
+
+        CompletableFuture<QuickMatchDTO> ana = slowGames.enqueue("Ana");
+        CompletableFuture<QuickMatchDTO> luis = slowGames.enqueue("Luis");
+
+        assertEquals(1L, ana.get(5, TimeUnit.SECONDS).playerId());
+        assertEquals(2L, luis.get(5, TimeUnit.SECONDS).playerId());
+        assertEquals(0.0, meterRegistry.get("uno.matchmaking.timeouts").counter().count());
+        assertEquals(1L, meterRegistry.get("uno.game.operation").tag("operation", "quick-match").timer().count());
+    }
+
+    @Test
+    void constructor_shouldRejectGameSizeOutsidePlayerLimits() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new MatchmakingService(gameService, gameMetrics, meterRegistry, 1, 0L, 0L));
+        assertThrows(IllegalArgumentException.class,
+            () -> new MatchmakingService(gameService, gameMetrics, meterRegistry, Game.MAX_PLAYERS + 1, 0L, 0L));
+    }
+}
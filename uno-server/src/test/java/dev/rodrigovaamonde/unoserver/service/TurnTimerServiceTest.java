@@ -0,0 +1,116 @@
+package dev.rodrigovaamonde.unoserver.service;
+
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.GameEngine;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import dev.rodrigovaamonde.unoserver.model.Color;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TurnTimerServiceTest {
+
+    private static final String GAME_CODE = "TIMER1";
+    private static final long TURN_TIMEOUT = 30_000L;
+
+    @Mock
+    private GameCommandDispatcher commandDispatcher;
+
+    @Mock
+    private GameBroadcastService gameBroadcastService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GameEngine gameEngine;
+    private GameState game;
+    private TurnTimerService turnTimerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        gameEngine = new GameEngine(true, TURN_TIMEOUT);
+        game = new GameState(1L, GAME_CODE);
+        PlayerState first = new PlayerState(1L, "Ana");
+        first.getHand().add(CardCodes.encode(Color.BLUE, CardValue.TWO, 0));
+        game.getPlayers().add(first);
+        game.getPlayers().add(new PlayerState(2L, "Luis"));
+        game.getDrawPile().push(CardCodes.encode(Color.YELLOW, CardValue.THREE, 0));
+        game.getDiscardPile().push(CardCodes.encode(Color.RED, CardValue.FIVE, 0));
+        game.setCurrentColor(Color.RED);
+        game.setCurrentPlayerIndex(0);
+        gameEngine.register(game);
+        turnTimerService = new TurnTimerService(gameEngine, commandDispatcher, gameBroadcastService, meterRegistry, 100L);
+    }
+
+    private void runCommandsInline() {
+        when(commandDispatcher.execute(eq(GAME_CODE), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Test
+    void expire_shouldDrawAndPassForPlayerWhoseTurnRanOut() {
+        runCommandsInline();
+        turnTimerService.track(GAME_CODE);
+        game.setTurnDeadlineMillis(System.currentTimeMillis() - 1);
+
+        assertEquals(1, turnTimerService.expire(System.currentTimeMillis() + TURN_TIMEOUT + 1_000L));
+
+        assertEquals(2, game.getPlayers().getFirst().getHand().size());
+        assertEquals(1, game.getCurrentPlayerIndex());
+        verify(gameBroadcastService).publish(game);
+        assertEquals(1.0, meterRegistry.counter("uno.turn-timer.expired").count());
+        // El turno de Luis queda programado
+        assertEquals(1.0, meterRegistry.get("uno.turn-timer.scheduled").gauge().value());
+    }
+
+    @Test
+    void expire_shouldRescheduleWhenTurnChangedMeanwhile() {
+        runCommandsInline();
+        turnTimerService.track(GAME_CODE);
+        // Ana jugó a tiempo: el turno actual vence más tarde que el plazo programado
+        game.setTurnDeadlineMillis(System.currentTimeMillis() + 2 * TURN_TIMEOUT);
+
+        turnTimerService.expire(System.currentTimeMillis() + TURN_TIMEOUT + 1_000L);
+
+        assertEquals(0, game.getCurrentPlayerIndex());
+        verifyNoInteractions(gameBroadcastService);
+        assertEquals(1.0, meterRegistry.get("uno.turn-timer.scheduled").gauge().value());
+    }
+
+    @Test
+    void expire_shouldForgetGamesNoLongerInTheEngine() {
+        runCommandsInline();
+        turnTimerService.track(GAME_CODE);
+        gameEngine.evict(GAME_CODE);
+
+        turnTimerService.expire(System.currentTimeMillis() + TURN_TIMEOUT + 1_000L);
+
+        verifyNoInteractions(gameBroadcastService);
+        assertEquals(0.0, meterRegistry.get("uno.turn-timer.scheduled").gauge().value());
+    }
+
+    @Test
+    void track_shouldDoNothingWithoutTurnTimeout() {
+        TurnTimerService disabled = new TurnTimerService(new GameEngine(true), commandDispatcher,
+            gameBroadcastService, new SimpleMeterRegistry(), 100L);
+
+        disabled.track(GAME_CODE);
+
+        assertEquals(0, disabled.expire(System.currentTimeMillis() + 10 * TURN_TIMEOUT));
+        verifyNoInteractions(commandDispatcher);
+    }
+}
@@ -0,0 +1,88 @@
+package dev.rodrigovaamonde.unoserver.simulation;
+
+import dev.rodrigovaamonde.unoserver.engine.CardCodes;
+import dev.rodrigovaamonde.unoserver.engine.GameState;
+import dev.rodrigovaamonde.unoserver.engine.PlayerState;
+import dev.rodrigovaamonde.unoserver.model.CardValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSimulatorTest {
+
+    private final GameSimulator simulator = new GameSimulator(4, new GreedyStrategy());
+
+    @Test
+    void deal_shouldGiveSevenCardsEachAndNeverStartWithWildDrawFour() {
+        for (long gameIndex = 0; gameIndex < 200; gameIndex++) {
+            GameState game = simulator.deal("SIM" + gameIndex, GameSimulator.gameSeed(42L, gameIndex));
+
+            for (PlayerState player : game.getPlayers()) {
+                assertEquals(7, player.getHand().size());
+            }
+            assertEquals(1, game.getDiscardPile().size());
+            assertNotEquals(CardValue.WILD_DRAW_FOUR, CardCodes.value(game.getTopDiscardCard()));
+            assertEquals(CardCodes.DECK_SIZE - 4 * 7 - 1, game.getDrawPile().size());
+        }
+    }
+
+    @Test
+    void run_shouldBeDeterministicForTheSameSeed() {
+        SimulationStats first = simulator.run(42L, 2_000, ForkJoinPool.commonPool());
+        SimulationStats second = simulator.run(42L, 2_000, ForkJoinPool.commonPool());
+
+        assertEquals(first.getDigest(), second.getDigest());
+        assertEquals(first.getTotalTurns(), second.getTotalTurns());
+        assertArrayEquals(first.getWinsBySeat(), second.getWinsBySeat());
+    }
+
+    @Test
+    void run_shouldNotDependOnParallelism() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool fourThreads = new ForkJoinPool(4);
+        try {
+            SimulationStats sequential = simulator.run(7L, 3_000, singleThread);
+            SimulationStats parallel = simulator.run(7L, 3_000, fourThreads);
+
+            assertEquals(sequential.getDigest(), parallel.getDigest());
+            assertEquals(sequential.getMaxTurns(), parallel.getMaxTurns());
+        } finally {
+            singleThread.shutdown();
+            fourThreads.shutdown();
+        }
+    }
+
+    @Test
+    void run_shouldChangeWithTheSeed() {
+        SimulationStats first = simulator.run(1L, 500, ForkJoinPool.commonPool());
+        SimulationStats second = simulator.run(2L, 500, ForkJoinPool.commonPool());
+
+        assertNotEquals(first.getDigest(), second.getDigest());
+    }
+
+    @Test
+    void run_shouldFinishGamesAndCountEveryWinner() {
+        SimulationStats stats = simulator.run(42L, 1_000, ForkJoinPool.commonPool());
+
+        assertEquals(1_000, stats.getGames());
+        assertTrue(stats.getFinishedGames() > 0);
+        assertEquals(stats.getFinishedGames(), Arrays.stream(stats.getWinsBySeat()).sum());
+    }
+
+    @Test
+    void play_shouldReproduceASingleGameOfABatch() {
+        GameOutcome first = simulator.play(42L, 123);
+        GameOutcome second = simulator.play(42L, 123);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void constructor_shouldRejectTooManyPlayers() {
+        assertThrows(IllegalArgumentException.class, () -> new GameSimulator(16, new GreedyStrategy()));
+        assertThrows(IllegalArgumentException.class, () -> new GameSimulator(1, new GreedyStrategy()));
+    }
+}